@@ -13,11 +13,11 @@
  */
 package com.querydsl.collections;
 
+import java.lang.reflect.Modifier;
 import java.net.URLClassLoader;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
 import javax.tools.JavaCompiler;
@@ -44,10 +44,20 @@ import com.querydsl.core.types.*;
  */
 public class DefaultEvaluatorFactory {
 
-    private final EvaluatorFactory factory;
-
     private final CollQueryTemplates templates;
 
+    private final EvaluatorCache cache;
+
+    @Nullable
+    private final ClassLoader classLoader;
+
+    @Nullable
+    private final JavaCompiler compiler;
+
+    private final AtomicLong compilations = new AtomicLong();
+
+    private volatile EvaluatorFactory factory;
+
     private final CollectionAnyVisitor collectionAnyVisitor = new CollectionAnyVisitor();
 
     public DefaultEvaluatorFactory(CollQueryTemplates templates) {
@@ -55,27 +65,56 @@ public class DefaultEvaluatorFactory {
         Thread.currentThread().getContextClassLoader());
     }
 
+    public DefaultEvaluatorFactory(CollQueryTemplates templates, EvaluatorCache cache) {
+        this(templates, Thread.currentThread().getContextClassLoader(), null, cache);
+    }
+
     public DefaultEvaluatorFactory(CollQueryTemplates templates, EvaluatorFactory factory) {
         this.templates = templates;
+        this.cache = new EvaluatorCache();
+        this.classLoader = null;
+        this.compiler = null;
         this.factory = factory;
     }
 
     protected DefaultEvaluatorFactory(CollQueryTemplates templates,
             URLClassLoader classLoader, JavaCompiler compiler) {
-        this.templates = templates;
-        this.factory = new JDKEvaluatorFactory(classLoader, compiler);
+        this(templates, classLoader, compiler, new EvaluatorCache());
     }
 
     protected DefaultEvaluatorFactory(CollQueryTemplates templates, ClassLoader classLoader) {
+        this(templates, classLoader, null, new EvaluatorCache());
+    }
+
+    private DefaultEvaluatorFactory(CollQueryTemplates templates, ClassLoader classLoader,
+            @Nullable JavaCompiler compiler, EvaluatorCache cache) {
         this.templates = templates;
-        if (classLoader instanceof URLClassLoader) {
-            this.factory = new JDKEvaluatorFactory((URLClassLoader) classLoader);
+        this.cache = cache;
+        this.classLoader = classLoader;
+        this.compiler = compiler;
+        this.factory = createFactory();
+    }
+
+    private EvaluatorFactory createFactory() {
+        if (compiler != null) {
+            return new JDKEvaluatorFactory((URLClassLoader) classLoader, compiler);
+        } else if (classLoader instanceof URLClassLoader) {
+            return new JDKEvaluatorFactory((URLClassLoader) classLoader);
         } else {
             // for OSGi compatibility
-            this.factory = new ECJEvaluatorFactory(classLoader);
+            return new ECJEvaluatorFactory(classLoader);
         }
     }
 
+    /**
+     * Get the cache of compiled evaluators
+     *
+     * @return evaluator cache
+     */
+    public EvaluatorCache getEvaluatorCache() {
+        return cache;
+    }
+
     /**
      * Create an Evaluator for the given query sources and projection
      *
@@ -116,8 +155,12 @@ public class DefaultEvaluatorFactory {
             }
         }
 
-        return factory.createEvaluator(serializer.toString(), projection.getType(), names,
-                types, constants);
+        Type[] sourceTypes = new Type[types.length];
+        for (int i = 0; i < types.length; i++) {
+            sourceTypes[i] = new ClassType(TypeCategory.SIMPLE, types[i]);
+        }
+        return createEvaluator(serializer.toString(), new ClassType(TypeCategory.SIMPLE, projection.getType()),
+                names, sourceTypes, types, constants);
     }
 
     /**
@@ -148,7 +191,7 @@ public class DefaultEvaluatorFactory {
         Type sourceType = new ClassType(TypeCategory.SIMPLE, source.getType());
         ClassType sourceListType = new ClassType(TypeCategory.SIMPLE, Iterable.class, sourceType);
 
-        return factory.createEvaluator(
+        return createEvaluator(
                 ser.toString(),
                 sourceListType,
                 new String[]{source + "_"},
@@ -259,7 +302,7 @@ public class DefaultEvaluatorFactory {
         Map<String, Object> constants = getConstants(metadata, constantToLabel);
 
         ClassType projectionType = new ClassType(TypeCategory.LIST, List.class, Types.OBJECTS);
-        return factory.createEvaluator(
+        return createEvaluator(
                 ser.toString(),
                 projectionType,
                 sourceNames.toArray(new String[sourceNames.size()]),
@@ -268,6 +311,178 @@ public class DefaultEvaluatorFactory {
                 constants);
     }
 
+    /**
+     * Create an Evaluator for the given sources and filter, which filters tuples of source values
+     *
+     * @param metadata query metadata
+     * @param sources sources of the tuples
+     * @param filter filter of the query
+     * @return evaluator
+     */
+    public Evaluator<List<Object[]>> createTupleEvaluator(QueryMetadata metadata,
+            List<? extends Expression<?>> sources, Predicate filter) {
+        CollQuerySerializer ser = new CollQuerySerializer(templates);
+        ser.append("java.util.List<Object[]> rv = new java.util.ArrayList<Object[]>();\n");
+        appendTupleLoop(ser, sources);
+        ser.append("    try {\n");
+        ser.append("        if (").handle(filter).append(") {\n");
+        ser.append("            rv.add(row_);\n");
+        ser.append("        }\n");
+        ser.append("    } catch (NullPointerException npe) { }\n");
+        ser.append("}\n");
+        ser.append("return rv;");
+        return createTupleEvaluator(metadata, ser);
+    }
+
+    /**
+     * Create an Evaluator for the given sources and keys, which evaluates the keys for tuples of
+     * source values
+     *
+     * <p>The result contains the key values of each tuple or null, if the evaluation of the keys
+     * failed for the tuple.</p>
+     *
+     * @param metadata query metadata
+     * @param sources sources of the tuples
+     * @param keys key expressions
+     * @return evaluator
+     */
+    public Evaluator<List<Object[]>> createKeyEvaluator(QueryMetadata metadata,
+            List<? extends Expression<?>> sources, List<? extends Expression<?>> keys) {
+        CollQuerySerializer ser = new CollQuerySerializer(templates);
+        ser.append("java.util.List<Object[]> rv = new java.util.ArrayList<Object[]>();\n");
+        appendTupleLoop(ser, sources);
+        ser.append("    try {\n");
+        ser.append("        rv.add(new Object[]{");
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                ser.append(", ");
+            }
+            ser.handle(keys.get(i));
+        }
+        ser.append("});\n");
+        ser.append("    } catch (NullPointerException npe) {\n");
+        ser.append("        rv.add(null);\n");
+        ser.append("    }\n");
+        ser.append("}\n");
+        ser.append("return rv;");
+        return createTupleEvaluator(metadata, ser);
+    }
+
+    private void appendTupleLoop(CollQuerySerializer ser, List<? extends Expression<?>> sources) {
+        ser.append("for (Object[] row_ : rows_) {\n");
+        for (int i = 0; i < sources.size(); i++) {
+            Expression<?> source = sources.get(i);
+            String typeName = ClassUtils.getName(source.getType());
+            ser.append("    " + typeName + " " + source + " = (" + typeName + ") row_[" + i + "];\n");
+        }
+    }
+
+    private Evaluator<List<Object[]>> createTupleEvaluator(QueryMetadata metadata, CollQuerySerializer ser) {
+        Map<Object,String> constantToLabel = ser.getConstantToLabel();
+        Map<String, Object> constants = getConstants(metadata, constantToLabel);
+
+        ClassType projectionType = new ClassType(TypeCategory.LIST, List.class, Types.OBJECTS);
+        Type rowsType = new SimpleType(Types.ITERABLE, Types.OBJECTS);
+        return createEvaluator(
+                ser.toString(),
+                projectionType,
+                new String[]{"rows_"},
+                new Type[]{rowsType},
+                new Class<?>[]{Iterable.class},
+                constants);
+    }
+
+    private <T> Evaluator<T> createEvaluator(final String source, final ClassType projectionType,
+            final String[] names, final Type[] types, final Class<?>[] classes, Map<String, Object> constants) {
+        // constants are passed as arguments, so that the compiled class depends only on the source
+        final List<String> constantNames = new ArrayList<String>(constants.keySet());
+        Collections.sort(constantNames);
+        final int size = constantNames.size();
+        final String[] allNames = Arrays.copyOf(names, names.length + size);
+        final Type[] allTypes = Arrays.copyOf(types, types.length + size);
+        final Class<?>[] allClasses = Arrays.copyOf(classes, classes.length + size);
+        Object[] values = new Object[size];
+        StringBuilder key = new StringBuilder(source);
+        key.append("\n").append(projectionType.getGenericName(true));
+        for (int i = 0; i < names.length; i++) {
+            key.append("\n").append(names[i]).append(" ").append(types[i].getGenericName(true));
+        }
+        for (int i = 0; i < size; i++) {
+            values[i] = constants.get(constantNames.get(i));
+            Class<?> constantClass = getPublicType(values[i].getClass());
+            allNames[names.length + i] = constantNames.get(i);
+            allTypes[types.length + i] = new ClassType(TypeCategory.SIMPLE, constantClass);
+            allClasses[classes.length + i] = constantClass;
+            key.append("\n").append(constantNames.get(i)).append(" ").append(constantClass.getName());
+        }
+
+        Evaluator<T> evaluator = cache.get(key.toString(), new Callable<Evaluator<T>>() {
+            @Override
+            public Evaluator<T> call() {
+                Map<String, Object> noConstants = Collections.emptyMap();
+                return getFactory().createEvaluator(source, projectionType, allNames, allTypes, allClasses,
+                        noConstants);
+            }
+        });
+        return size > 0 ? new ConstantsEvaluator<T>(evaluator, values) : evaluator;
+    }
+
+    private EvaluatorFactory getFactory() {
+        // start a new class loader after each cache generation, so that evicted classes can be unloaded
+        if (classLoader != null && compilations.incrementAndGet() % cache.getMaximumSize() == 0) {
+            factory = createFactory();
+        }
+        return factory;
+    }
+
+    private static Class<?> getPublicType(Class<?> type) {
+        Class<?> cl = type;
+        while (cl != null && cl != Object.class) {
+            if (Modifier.isPublic(cl.getModifiers())) {
+                return cl;
+            }
+            cl = cl.getSuperclass();
+        }
+        // non public class with public interfaces, e.g. JDK collection implementations
+        for (cl = type; cl != null; cl = cl.getSuperclass()) {
+            for (Class<?> iface : cl.getInterfaces()) {
+                if (Modifier.isPublic(iface.getModifiers())) {
+                    return iface;
+                }
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * Evaluator which appends the values of the constants to the arguments
+     */
+    private static final class ConstantsEvaluator<T> implements Evaluator<T> {
+
+        private final Evaluator<T> evaluator;
+
+        private final Object[] constants;
+
+        ConstantsEvaluator(Evaluator<T> evaluator, Object[] constants) {
+            this.evaluator = evaluator;
+            this.constants = constants;
+        }
+
+        @Override
+        public T evaluate(Object... args) {
+            Object[] allArgs = new Object[args.length + constants.length];
+            System.arraycopy(args, 0, allArgs, 0, args.length);
+            System.arraycopy(constants, 0, allArgs, args.length, constants.length);
+            return evaluator.evaluate(allArgs);
+        }
+
+        @Override
+        public Class<? extends T> getType() {
+            return evaluator.getType();
+        }
+
+    }
+
     private Map<String, Object> getConstants(QueryMetadata metadata,
             Map<Object, String> constantToLabel) {
         Map<String,Object> constants = new HashMap<String,Object>();
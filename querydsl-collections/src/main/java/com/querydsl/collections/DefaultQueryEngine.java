@@ -15,6 +15,8 @@ package com.querydsl.collections;
 
 import java.util.*;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.mysema.codegen.Evaluator;
@@ -83,21 +85,18 @@ public class DefaultQueryEngine implements QueryEngine {
         }
     }
 
-    private <T> List<T> distinct(List<T> list) {
-        List<T> rv = new ArrayList<T>(list.size());
-        if (!list.isEmpty() && list.get(0) != null && list.get(0).getClass().isArray()) {
-            Set set = new HashSet(list.size());
-            for (T o : list) {
-                if (set.add(ImmutableList.copyOf((Object[]) o))) {
-                    rv.add(o);
-                }
-            }
-            return rv;
-        } else {
-            for (T o : list) {
-                if (!rv.contains(o)) {
-                    rv.add(o);
-                }
+    private List<?> distinct(Iterator<?> iterator, @Nullable QueryModifiers modifiers) {
+        // unique rows needed for the requested page
+        long max = Long.MAX_VALUE;
+        if (modifiers != null && modifiers.getLimit() != null) {
+            max = modifiers.getLimit() + (modifiers.getOffset() != null ? modifiers.getOffset() : 0L);
+        }
+        List<Object> rv = new ArrayList<Object>();
+        Set<Object> keys = new HashSet<Object>();
+        while (rv.size() < max && iterator.hasNext()) {
+            Object o = iterator.next();
+            if (keys.add(o instanceof Object[] ? new ArrayKey((Object[]) o) : o)) {
+                rv.add(o);
             }
         }
         return rv;
@@ -106,43 +105,35 @@ public class DefaultQueryEngine implements QueryEngine {
     private List evaluateMultipleSources(QueryMetadata metadata, Map<Expression<?>,
             Iterable<?>> iterables, boolean count) {
         // from where
-        Evaluator<List<Object[]>> ev = evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
         List<Iterable<?>> iterableList = new ArrayList<Iterable<?>>(metadata.getJoins().size());
         for (JoinExpression join : metadata.getJoins()) {
             if (join.getType() == JoinType.DEFAULT) {
                 iterableList.add(iterables.get(join.getTarget()));
             }
         }
-        List<?> list = ev.evaluate(iterableList.toArray());
+        List<?> list;
+        HashJoin hashJoin = HashJoin.create(evaluatorFactory, metadata);
+        if (hashJoin != null) {
+            list = hashJoin.evaluate(iterableList);
+        } else {
+            Evaluator<List<Object[]>> ev = evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
+            list = ev.evaluate(iterableList.toArray());
+        }
 
         if (!count && !list.isEmpty()) {
-            List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
-            for (JoinExpression join : metadata.getJoins()) {
-                if (join.getType() == JoinType.DEFAULT) {
-                    sources.add(join.getTarget());
-                } else {
-                    Operation target = (Operation) join.getTarget();
-                    sources.add(target.getArg(1));
-                }
-            }
+            List<Expression<?>> sources = getSources(metadata);
             // ordered
             if (!metadata.getOrderBy().isEmpty()) {
                 order(metadata, sources, list);
             }
-            // projection
+            // projection + distinct
             list = project(metadata, sources, list);
             // limit + offset
             if (metadata.getModifiers().isRestricting()) {
                 list = metadata.getModifiers().subList(list);
             }
-            if (list.isEmpty()) {
-                return list;
-            }
-        }
-
-        // distinct
-        if (metadata.isDistinct()) {
-            list = distinct(list);
+        } else if (metadata.isDistinct()) {
+            list = distinct(list.iterator(), null);
         }
 
         return list;
@@ -176,54 +167,123 @@ public class DefaultQueryEngine implements QueryEngine {
                 }
                 order(metadata, sources, list);
             }
-            // projection
+            // projection + distinct
             if (metadata.getProjection() != null && !metadata.getProjection().equals(source)) {
                 list = project(metadata, sources, list);
+            } else if (metadata.isDistinct()) {
+                list = distinct(list.iterator(), metadata.getModifiers());
             }
             // limit + offset
             if (metadata.getModifiers().isRestricting()) {
                 list = metadata.getModifiers().subList(list);
             }
-            if (list.isEmpty()) {
-                return list;
-            }
-        }
-
-        // distinct
-        if (metadata.isDistinct()) {
-            list = distinct(list);
+        } else if (metadata.isDistinct()) {
+            list = distinct(list.iterator(), null);
         }
 
         return list;
 
     }
 
-    private void order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
+    /**
+     * Compile the evaluators of the given queries in advance, e.g. at application startup
+     *
+     * <p>The compiled evaluators are cached by the shape of the query, so later queries of the same
+     * shape can use different constant values. Parameters of the given queries need to be bound.</p>
+     *
+     * @param queries metadata of the queries
+     */
+    public void warmup(Iterable<? extends QueryMetadata> queries) {
+        for (QueryMetadata metadata : queries) {
+            List<Expression<?>> sources = getSources(metadata);
+            // from where
+            if (metadata.getJoins().size() == 1) {
+                if (metadata.getWhere() != null) {
+                    evaluatorFactory.createEvaluator(metadata, sources.get(0), metadata.getWhere());
+                }
+            } else {
+                HashJoin hashJoin = HashJoin.create(evaluatorFactory, metadata);
+                if (hashJoin != null) {
+                    hashJoin.prepare();
+                } else {
+                    evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
+                }
+            }
+            // ordered
+            if (!metadata.getOrderBy().isEmpty()) {
+                createOrderEvaluator(metadata, sources);
+            }
+            // projection
+            if (metadata.getProjection() != null
+                    && (sources.size() > 1 || !metadata.getProjection().equals(sources.get(0)))) {
+                createProjectionEvaluator(metadata, sources);
+            }
+        }
+    }
+
+    private List<Expression<?>> getSources(QueryMetadata metadata) {
+        List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+        for (JoinExpression join : metadata.getJoins()) {
+            if (join.getType() == JoinType.DEFAULT) {
+                sources.add(join.getTarget());
+            } else {
+                Operation target = (Operation) join.getTarget();
+                sources.add(target.getArg(1));
+            }
+        }
+        return sources;
+    }
+
+    private Evaluator createOrderEvaluator(QueryMetadata metadata, List<Expression<?>> sources) {
         // create a projection for the order
         List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
         Expression<Object>[] orderByExpr = new Expression[orderBy.size()];
-        boolean[] directions = new boolean[orderBy.size()];
         for (int i = 0; i < orderBy.size(); i++) {
             orderByExpr[i] = (Expression) orderBy.get(i).getTarget();
-            directions[i] = orderBy.get(i).getOrder() == Order.ASC;
         }
         Expression<?> expr = new ArrayConstructorExpression<Object>(Object[].class, orderByExpr);
-        Evaluator orderEvaluator = evaluatorFactory.create(metadata, sources, expr);
+        return evaluatorFactory.create(metadata, sources, expr);
+    }
+
+    private void order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
+        List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
+        boolean[] directions = new boolean[orderBy.size()];
+        for (int i = 0; i < orderBy.size(); i++) {
+            directions[i] = orderBy.get(i).getOrder() == Order.ASC;
+        }
+        Evaluator orderEvaluator = createOrderEvaluator(metadata, sources);
         Collections.sort(list, new MultiComparator(orderEvaluator, directions));
     }
 
+    private static boolean isAggregation(Expression<?> projection) {
+        return projection instanceof Operation && Ops.aggOps.contains(((Operation) projection).getOperator());
+    }
+
+    private Evaluator createProjectionEvaluator(QueryMetadata metadata, List<Expression<?>> sources) {
+        Expression<?> projection = metadata.getProjection();
+        if (isAggregation(projection)) {
+            projection = ((Operation<?>) projection).getArg(0);
+        }
+        return evaluatorFactory.create(metadata, sources, projection);
+    }
+
     private List<?> project(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
         Expression<?> projection = metadata.getProjection();
         Operator aggregator = null;
-        if (projection instanceof Operation && Ops.aggOps.contains(((Operation) projection).getOperator())) {
+        if (isAggregation(projection)) {
             Operation<?> aggregation = (Operation<?>) projection;
             aggregator = aggregation.getOperator();
             projection = aggregation.getArg(0);
         }
-        Evaluator projectionEvaluator = evaluatorFactory.create(metadata, sources, projection);
+        Evaluator projectionEvaluator = createProjectionEvaluator(metadata, sources);
         EvaluatorFunction transformer = new EvaluatorFunction(projectionEvaluator);
+        Iterator<?> rows = Iterators.transform(list.iterator(), transformer);
+        if (aggregator == null && metadata.isDistinct()) {
+            // projects only the rows needed for the requested page
+            return distinct(rows, metadata.getModifiers());
+        }
         List target = new ArrayList();
-        Iterators.addAll(target, Iterators.transform(list.iterator(), transformer));
+        Iterators.addAll(target, rows);
         if (aggregator != null) {
             return ImmutableList.of(CollQueryFunctions.aggregate(target, projection, aggregator));
         } else {
@@ -231,6 +291,30 @@ public class DefaultQueryEngine implements QueryEngine {
         }
     }
 
+    /**
+     * Hash key for array rows, which uses the array without copying it
+     */
+    private static final class ArrayKey {
+
+        private final Object[] array;
 
+        private final int hashCode;
+
+        ArrayKey(Object[] array) {
+            this.array = array;
+            this.hashCode = Arrays.hashCode(array);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ArrayKey && Arrays.equals(array, ((ArrayKey) o).array);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
 
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.mysema.codegen.Evaluator;
+
+/**
+ * {@code EvaluatorCache} caches the compiled evaluators of {@link DefaultEvaluatorFactory}
+ *
+ * <p>Evaluators are keyed on the generated Java source, in which constants are replaced by
+ * parameters, so queries which differ only in the values of their constants share the same
+ * compiled class. The least recently used evaluators are evicted when the maximum size is
+ * reached.</p>
+ *
+ * @see DefaultEvaluatorFactory#DefaultEvaluatorFactory(CollQueryTemplates, EvaluatorCache)
+ * @see DefaultQueryEngine#warmup(Iterable)
+ */
+public final class EvaluatorCache {
+
+    /**
+     * Default maximum amount of cached evaluators
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final Cache<String, Evaluator<?>> evaluators;
+
+    private final int maximumSize;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong compileTime = new AtomicLong();
+
+    /**
+     * Create a new cache instance with the default maximum size
+     */
+    public EvaluatorCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a new cache instance
+     *
+     * @param maximumSize maximum amount of cached evaluators
+     */
+    public EvaluatorCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.evaluators = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Evaluator<T> get(String key, final Callable<Evaluator<T>> compiler) {
+        Evaluator<T> evaluator = (Evaluator<T>) evaluators.getIfPresent(key);
+        if (evaluator != null) {
+            hits.incrementAndGet();
+            return evaluator;
+        }
+        try {
+            return (Evaluator<T>) evaluators.get(key, new Callable<Evaluator<?>>() {
+                @Override
+                public Evaluator<?> call() throws Exception {
+                    misses.incrementAndGet();
+                    long start = System.nanoTime();
+                    try {
+                        return compiler.call();
+                    } finally {
+                        compileTime.addAndGet(System.nanoTime() - start);
+                    }
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (ExecutionError e) {
+            throw (Error) e.getCause();
+        }
+    }
+
+    /**
+     * Remove all cached evaluators
+     */
+    public void clear() {
+        evaluators.invalidateAll();
+    }
+
+    /**
+     * Get the amount of lookups which could be served from the cache
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the amount of lookups which required compilation
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the total time spent on compilation
+     *
+     * @param unit time unit of the result
+     * @return compile time
+     */
+    public long getCompileTime(TimeUnit unit) {
+        return unit.convert(compileTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the maximum amount of cached evaluators
+     *
+     * @return maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Get the amount of cached evaluators
+     *
+     * @return size
+     */
+    public long size() {
+        return evaluators.size();
+    }
+
+}
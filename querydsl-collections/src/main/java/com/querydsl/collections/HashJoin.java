@@ -0,0 +1,333 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.google.common.primitives.Primitives;
+import com.mysema.codegen.Evaluator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+
+/**
+ * {@code HashJoin} evaluates the equality conditions between the sources of a multi source query
+ * via build and probe hash tables instead of nested loops
+ *
+ * <p>The sources are joined in declaration order, so the results are in the same order as with
+ * nested loop evaluation. Conditions which refer to a single source are applied before the join
+ * and the remaining conditions including the equality conditions are applied to the joined
+ * tuples.</p>
+ */
+@SuppressWarnings("unchecked")
+final class HashJoin {
+
+    /**
+     * Create a hash join for the given query
+     *
+     * @param evaluatorFactory evaluator factory
+     * @param metadata query metadata
+     * @return hash join or null, if the query has no equality conditions between sources
+     */
+    @Nullable
+    static HashJoin create(DefaultEvaluatorFactory evaluatorFactory, QueryMetadata metadata) {
+        if (metadata.getWhere() == null || metadata.getJoins().size() < 2) {
+            return null;
+        }
+        List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+        for (JoinExpression join : metadata.getJoins()) {
+            if (join.getType() != JoinType.DEFAULT) {
+                return null;
+            }
+            sources.add(join.getTarget());
+        }
+
+        HashJoin hashJoin = new HashJoin(evaluatorFactory, metadata, sources);
+        List<Predicate> conditions = new ArrayList<Predicate>();
+        split(metadata.getWhere(), conditions);
+        List<Predicate> residual = new ArrayList<Predicate>();
+        for (Predicate condition : conditions) {
+            hashJoin.addKeys(condition);
+            // equality conditions between sources are also kept in the residual filter to retain
+            // the exact comparison semantics of the query
+            if (!hashJoin.addFilter(condition)) {
+                residual.add(condition);
+            }
+        }
+        if (!hashJoin.hasKeys) {
+            return null;
+        }
+        hashJoin.residual = ExpressionUtils.allOf(residual);
+        return hashJoin;
+    }
+
+    private static void split(Predicate predicate, List<Predicate> conditions) {
+        if (predicate instanceof Operation && ((Operation<?>) predicate).getOperator() == Ops.AND
+                && ((Operation<?>) predicate).getArg(0) instanceof Predicate
+                && ((Operation<?>) predicate).getArg(1) instanceof Predicate) {
+            Operation<?> operation = (Operation<?>) predicate;
+            split((Predicate) operation.getArg(0), conditions);
+            split((Predicate) operation.getArg(1), conditions);
+        } else {
+            conditions.add(predicate);
+        }
+    }
+
+    private final DefaultEvaluatorFactory evaluatorFactory;
+
+    private final QueryMetadata metadata;
+
+    private final List<Expression<?>> sources;
+
+    private final List<List<Predicate>> filters;
+
+    private final List<List<Expression<?>>> buildKeys, probeKeys;
+
+    private boolean hasKeys;
+
+    @Nullable
+    private Predicate residual;
+
+    private HashJoin(DefaultEvaluatorFactory evaluatorFactory, QueryMetadata metadata,
+            List<Expression<?>> sources) {
+        this.evaluatorFactory = evaluatorFactory;
+        this.metadata = metadata;
+        this.sources = sources;
+        this.filters = new ArrayList<List<Predicate>>(sources.size());
+        this.buildKeys = new ArrayList<List<Expression<?>>>(sources.size());
+        this.probeKeys = new ArrayList<List<Expression<?>>>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            filters.add(new ArrayList<Predicate>());
+            buildKeys.add(new ArrayList<Expression<?>>());
+            probeKeys.add(new ArrayList<Expression<?>>());
+        }
+    }
+
+    private void addKeys(Predicate condition) {
+        if (!(condition instanceof Operation) || ((Operation<?>) condition).getOperator() != Ops.EQ) {
+            return;
+        }
+        Operation<?> operation = (Operation<?>) condition;
+        Expression<?> left = operation.getArg(0), right = operation.getArg(1);
+        if (!isKey(left) || !isKey(right)) {
+            return;
+        }
+        // == on floating point numbers and numbers of different types is not consistent with equals
+        Class<?> type = Primitives.wrap(left.getType());
+        if (!type.equals(Primitives.wrap(right.getType()))
+                || type.equals(Double.class) || type.equals(Float.class)) {
+            return;
+        }
+        int leftSource = sources.indexOf(((Path<?>) left).getRoot());
+        int rightSource = sources.indexOf(((Path<?>) right).getRoot());
+        if (leftSource < 0 || rightSource < 0 || leftSource == rightSource) {
+            return;
+        }
+        if (leftSource > rightSource) {
+            buildKeys.get(leftSource).add(left);
+            probeKeys.get(leftSource).add(right);
+        } else {
+            buildKeys.get(rightSource).add(right);
+            probeKeys.get(rightSource).add(left);
+        }
+        hasKeys = true;
+    }
+
+    private static boolean isKey(Expression<?> expr) {
+        if (!(expr instanceof Path)) {
+            return false;
+        }
+        Path<?> path = (Path<?>) expr;
+        while (path != null) {
+            if (path.getMetadata().getPathType() == PathType.COLLECTION_ANY) {
+                return false;
+            }
+            path = path.getMetadata().getParent();
+        }
+        return true;
+    }
+
+    private boolean addFilter(Predicate condition) {
+        Set<Expression<?>> roots = new HashSet<Expression<?>>();
+        if (collectRoots(condition, roots) && roots.size() == 1) {
+            int source = sources.indexOf(roots.iterator().next());
+            if (source > -1) {
+                filters.get(source).add(condition);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean collectRoots(Expression<?> expr, Set<Expression<?>> roots) {
+        if (expr instanceof Path) {
+            roots.add(((Path<?>) expr).getRoot());
+            return true;
+        } else if (expr instanceof Operation) {
+            return collectRoots(((Operation<?>) expr).getArgs(), roots);
+        } else if (expr instanceof TemplateExpression) {
+            for (Object arg : ((TemplateExpression<?>) expr).getArgs()) {
+                if (arg instanceof Expression && !collectRoots((Expression<?>) arg, roots)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (expr instanceof FactoryExpression) {
+            return collectRoots(((FactoryExpression<?>) expr).getArgs(), roots);
+        } else {
+            return expr instanceof Constant || expr instanceof ParamExpression;
+        }
+    }
+
+    private static boolean collectRoots(List<Expression<?>> args, Set<Expression<?>> roots) {
+        for (Expression<?> arg : args) {
+            if (!collectRoots(arg, roots)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluate the join for the given source iterables
+     *
+     * @param iterables source iterables in declaration order
+     * @return joined tuples
+     */
+    List<Object[]> evaluate(List<Iterable<?>> iterables) {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (Object value : getValues(0, iterables.get(0))) {
+            rows.add(new Object[]{value});
+        }
+        for (int i = 1; i < sources.size() && !rows.isEmpty(); i++) {
+            List<?> values = getValues(i, iterables.get(i));
+            if (buildKeys.get(i).isEmpty()) {
+                rows = crossJoin(rows, values);
+            } else {
+                rows = hashJoin(i, rows, values);
+            }
+        }
+        if (residual != null && !rows.isEmpty()) {
+            rows = createResidualEvaluator().evaluate(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Create the evaluators of the join without evaluating them
+     */
+    void prepare() {
+        for (int i = 0; i < sources.size(); i++) {
+            createFilterEvaluator(i);
+            if (!buildKeys.get(i).isEmpty()) {
+                createBuildKeyEvaluator(i);
+                createProbeKeyEvaluator(i);
+            }
+        }
+        if (residual != null) {
+            createResidualEvaluator();
+        }
+    }
+
+    @Nullable
+    private Evaluator<List<?>> createFilterEvaluator(int source) {
+        Predicate filter = ExpressionUtils.allOf(filters.get(source));
+        if (filter != null) {
+            return (Evaluator) evaluatorFactory.createEvaluator(metadata, sources.get(source), filter);
+        } else {
+            return null;
+        }
+    }
+
+    private Evaluator<List<Object[]>> createBuildKeyEvaluator(int source) {
+        return evaluatorFactory.createKeyEvaluator(metadata, sources.subList(source, source + 1),
+                buildKeys.get(source));
+    }
+
+    private Evaluator<List<Object[]>> createProbeKeyEvaluator(int source) {
+        return evaluatorFactory.createKeyEvaluator(metadata, sources.subList(0, source),
+                probeKeys.get(source));
+    }
+
+    private Evaluator<List<Object[]>> createResidualEvaluator() {
+        return evaluatorFactory.createTupleEvaluator(metadata, sources, residual);
+    }
+
+    private List<?> getValues(int source, Iterable<?> iterable) {
+        Evaluator<List<?>> filter = createFilterEvaluator(source);
+        if (filter != null) {
+            return filter.evaluate(iterable);
+        } else if (iterable instanceof List) {
+            return (List<?>) iterable;
+        } else {
+            return IteratorAdapter.asList(iterable.iterator());
+        }
+    }
+
+    private static List<Object[]> crossJoin(List<Object[]> rows, List<?> values) {
+        List<Object[]> rv = new ArrayList<Object[]>(rows.size() * values.size());
+        for (Object[] row : rows) {
+            for (Object value : values) {
+                rv.add(append(row, value));
+            }
+        }
+        return rv;
+    }
+
+    private List<Object[]> hashJoin(int source, List<Object[]> rows, List<?> values) {
+        // build
+        List<Object[]> valueRows = new ArrayList<Object[]>(values.size());
+        for (Object value : values) {
+            valueRows.add(new Object[]{value});
+        }
+        List<Object[]> keys = createBuildKeyEvaluator(source).evaluate(valueRows);
+        Map<List<Object>, List<Object>> table = new HashMap<List<Object>, List<Object>>();
+        for (int i = 0; i < values.size(); i++) {
+            Object[] key = keys.get(i);
+            if (key != null) {
+                List<Object> bucket = table.get(Arrays.asList(key));
+                if (bucket == null) {
+                    bucket = new ArrayList<Object>(1);
+                    table.put(Arrays.asList(key), bucket);
+                }
+                bucket.add(values.get(i));
+            }
+        }
+
+        // probe
+        keys = createProbeKeyEvaluator(source).evaluate(rows);
+        List<Object[]> rv = new ArrayList<Object[]>();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] key = keys.get(i);
+            List<Object> bucket = key != null ? table.get(Arrays.asList(key)) : null;
+            if (bucket != null) {
+                for (Object value : bucket) {
+                    rv.add(append(rows.get(i), value));
+                }
+            }
+        }
+        return rv;
+    }
+
+    private static Object[] append(Object[] row, Object value) {
+        Object[] rv = Arrays.copyOf(row, row.length + 1);
+        rv[row.length] = value;
+        return rv;
+    }
+
+}
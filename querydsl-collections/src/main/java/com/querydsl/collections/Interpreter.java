@@ -0,0 +1,946 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Primitives;
+import com.mysema.codegen.Evaluator;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+
+/**
+ * {@code Interpreter} evaluates expressions without compilation
+ *
+ * <p>Each expression is converted once into a tree of {@link Node} instances, which evaluate the
+ * expression for rows of source values. The semantics follow the Java source generated by
+ * {@link CollQuerySerializer}. Expressions which can't be interpreted cause an
+ * {@link UnsupportedOperationException} on conversion.</p>
+ */
+final class Interpreter implements Visitor<Interpreter.Node, Void> {
+
+    /**
+     * Evaluation of a single expression for a row of source values
+     */
+    interface Node {
+
+        @Nullable
+        Object evaluate(Object[] row);
+
+    }
+
+    private static final Set<Class<?>> WRAPPER_TYPES = ImmutableSet.copyOf(Primitives.allWrapperTypes());
+
+    private static final Set<Operator> NUMERIC_OPERATORS = ImmutableSet.<Operator>of(
+            Ops.EQ, Ops.NE, Ops.GT, Ops.LT, Ops.GOE, Ops.LOE,
+            Ops.ADD, Ops.SUB, Ops.MULT, Ops.DIV);
+
+    private final CollQueryTemplates templates;
+
+    private final QueryMetadata metadata;
+
+    private final List<? extends Expression<?>> sources;
+
+    Interpreter(CollQueryTemplates templates, QueryMetadata metadata, List<? extends Expression<?>> sources) {
+        this.templates = templates;
+        this.metadata = metadata;
+        this.sources = sources;
+    }
+
+    /**
+     * Create an Evaluator for the given query sources and projection
+     *
+     * @see DefaultEvaluatorFactory#create(QueryMetadata, List, Expression)
+     */
+    static <T> Evaluator<T> create(CollQueryTemplates templates, QueryMetadata metadata,
+            List<? extends Expression<?>> sources, final Expression<T> projection) {
+        final Node node = new Interpreter(templates, metadata, sources).convert(projection);
+        return new Evaluator<T>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public T evaluate(Object... args) {
+                return (T) node.evaluate(args);
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Class<? extends T> getType() {
+                return (Class<? extends T>) projection.getType();
+            }
+        };
+    }
+
+    /**
+     * Create an Evaluator for the given source and filter
+     *
+     * @see DefaultEvaluatorFactory#createEvaluator(QueryMetadata, Expression, Predicate)
+     */
+    static <T> Evaluator<List<T>> createEvaluator(CollQueryTemplates templates, QueryMetadata metadata,
+            Expression<? extends T> source, Predicate filter) {
+        final Node node = new Interpreter(templates, metadata, Collections.singletonList(source))
+                .convert(filter);
+        return new ListEvaluator<T>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public List<T> evaluate(Object... args) {
+                List<T> rv = new ArrayList<T>();
+                Object[] row = new Object[1];
+                for (Object value : (Iterable<?>) args[0]) {
+                    row[0] = value;
+                    if (test(node, row)) {
+                        rv.add((T) value);
+                    }
+                }
+                return rv;
+            }
+        };
+    }
+
+    /**
+     * Create an Evaluator for the given joins and the given optional filter
+     *
+     * @see DefaultEvaluatorFactory#createEvaluator(QueryMetadata, List, Predicate)
+     */
+    static Evaluator<List<Object[]>> createEvaluator(CollQueryTemplates templates, QueryMetadata metadata,
+            List<JoinExpression> joins, @Nullable Predicate filter) {
+        List<Expression<?>> targets = new ArrayList<Expression<?>>(joins.size());
+        for (JoinExpression join : joins) {
+            if (join.getType() == JoinType.DEFAULT) {
+                targets.add(join.getTarget());
+            } else if (join.getType() == JoinType.INNERJOIN || join.getType() == JoinType.LEFTJOIN) {
+                if (join.getCondition() != null && join.getCondition().toString().equals("any")) {
+                    throw new UnsupportedOperationException("Unsupported join " + join);
+                }
+                targets.add(((Operation<?>) join.getTarget()).getArg(1));
+            } else {
+                throw new IllegalArgumentException("Illegal join expression " + join);
+            }
+        }
+        Interpreter interpreter = new Interpreter(templates, metadata, targets);
+        final Node[] collections = new Node[joins.size()];
+        final boolean[] leftJoins = new boolean[joins.size()];
+        for (int i = 0; i < joins.size(); i++) {
+            JoinExpression join = joins.get(i);
+            if (join.getType() != JoinType.DEFAULT) {
+                collections[i] = interpreter.convert(((Operation<?>) join.getTarget()).getArg(0));
+                leftJoins[i] = join.getType() == JoinType.LEFTJOIN;
+            }
+        }
+        final Node node = filter != null ? interpreter.convert(filter) : null;
+        return new ListEvaluator<Object[]>() {
+            @Override
+            public List<Object[]> evaluate(Object... args) {
+                List<Object[]> rv = new ArrayList<Object[]>();
+                join(args, 0, 0, new Object[collections.length], rv);
+                return rv;
+            }
+
+            @SuppressWarnings("unchecked")
+            private void join(Object[] args, int arg, int i, Object[] row, List<Object[]> rv) {
+                if (i == collections.length) {
+                    if (node == null || test(node, row)) {
+                        rv.add(row.clone());
+                    }
+                    return;
+                }
+                Iterable<?> values;
+                if (collections[i] == null) {
+                    values = (Iterable<?>) args[arg++];
+                } else {
+                    Object collection = collections[i].evaluate(row);
+                    if (collection instanceof Map) {
+                        collection = ((Map<?, ?>) collection).values();
+                    }
+                    values = leftJoins[i] ? CollQueryFunctions.leftJoin((Collection<Object>) collection)
+                            : (Iterable<?>) collection;
+                }
+                for (Object value : values) {
+                    row[i] = value;
+                    join(args, arg, i + 1, row, rv);
+                }
+            }
+        };
+    }
+
+    /**
+     * Create an Evaluator for the given sources and filter, which filters tuples of source values
+     *
+     * @see DefaultEvaluatorFactory#createTupleEvaluator(QueryMetadata, List, Predicate)
+     */
+    static Evaluator<List<Object[]>> createTupleEvaluator(CollQueryTemplates templates, QueryMetadata metadata,
+            List<? extends Expression<?>> sources, Predicate filter) {
+        final Node node = new Interpreter(templates, metadata, sources).convert(filter);
+        return new ListEvaluator<Object[]>() {
+            @Override
+            public List<Object[]> evaluate(Object... args) {
+                List<Object[]> rv = new ArrayList<Object[]>();
+                for (Object[] row : (Iterable<Object[]>) args[0]) {
+                    if (test(node, row)) {
+                        rv.add(row);
+                    }
+                }
+                return rv;
+            }
+        };
+    }
+
+    /**
+     * Create an Evaluator for the given sources and keys, which evaluates the keys for tuples of
+     * source values
+     *
+     * @see DefaultEvaluatorFactory#createKeyEvaluator(QueryMetadata, List, List)
+     */
+    static Evaluator<List<Object[]>> createKeyEvaluator(CollQueryTemplates templates, QueryMetadata metadata,
+            List<? extends Expression<?>> sources, List<? extends Expression<?>> keys) {
+        Interpreter interpreter = new Interpreter(templates, metadata, sources);
+        final Node[] nodes = new Node[keys.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = interpreter.convert(keys.get(i));
+        }
+        return new ListEvaluator<Object[]>() {
+            @Override
+            public List<Object[]> evaluate(Object... args) {
+                List<Object[]> rv = new ArrayList<Object[]>();
+                for (Object[] row : (Iterable<Object[]>) args[0]) {
+                    try {
+                        Object[] key = new Object[nodes.length];
+                        for (int i = 0; i < nodes.length; i++) {
+                            key[i] = nodes[i].evaluate(row);
+                        }
+                        rv.add(key);
+                    } catch (NullPointerException npe) {
+                        rv.add(null);
+                    }
+                }
+                return rv;
+            }
+        };
+    }
+
+    private static boolean test(Node node, Object[] row) {
+        try {
+            return (Boolean) node.evaluate(row);
+        } catch (NullPointerException npe) {
+            return false;
+        }
+    }
+
+    /**
+     * Convert the given expression into an evaluation node
+     *
+     * @param expr expression
+     * @return node
+     * @throws UnsupportedOperationException if the expression can't be interpreted
+     */
+    Node convert(Expression<?> expr) {
+        return expr.accept(this, null);
+    }
+
+    @Override
+    public Node visit(final Constant<?> expr, Void context) {
+        final Object value = expr.getConstant();
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public Node visit(FactoryExpression<?> expr, Void context) {
+        final FactoryExpression<?> factory = expr;
+        final Node[] args = convert(expr.getArgs());
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                return factory.newInstance(Interpreter.evaluate(args, row));
+            }
+        };
+    }
+
+    @Override
+    public Node visit(ParamExpression<?> expr, Void context) {
+        final Object value = metadata.getParams().get(expr);
+        if (value == null) {
+            throw new ParamNotSetException(expr);
+        }
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public Node visit(Path<?> expr, Void context) {
+        final int index = sources.indexOf(expr);
+        if (index > -1) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return row[index];
+                }
+            };
+        }
+        PathMetadata pathMetadata = expr.getMetadata();
+        PathType pathType = pathMetadata.getPathType();
+        if (pathMetadata.getParent() == null) {
+            throw new UnsupportedOperationException("Unknown source " + expr);
+        }
+        final Node parent = convert(pathMetadata.getParent());
+        if (pathType == PathType.PROPERTY) {
+            return property(parent, pathMetadata.getParent().getType(), pathMetadata.getName());
+        } else if (pathType == PathType.DELEGATE) {
+            return parent;
+        }
+        checkTemplate(pathType);
+        final Node element = pathMetadata.getElement() instanceof Expression
+                ? convert((Expression<?>) pathMetadata.getElement())
+                : visit(ConstantImpl.create(pathMetadata.getElement()), null);
+        if (pathType == PathType.LISTVALUE || pathType == PathType.LISTVALUE_CONSTANT) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return ((List<?>) parent.evaluate(row)).get((Integer) element.evaluate(row));
+                }
+            };
+        } else if (pathType == PathType.MAPVALUE || pathType == PathType.MAPVALUE_CONSTANT) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return ((Map<?, ?>) parent.evaluate(row)).get(element.evaluate(row));
+                }
+            };
+        } else if (pathType == PathType.ARRAYVALUE || pathType == PathType.ARRAYVALUE_CONSTANT) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return Array.get(parent.evaluate(row), (Integer) element.evaluate(row));
+                }
+            };
+        } else {
+            throw new UnsupportedOperationException("Unsupported path type " + pathType);
+        }
+    }
+
+    private static Node property(final Node parent, Class<?> parentType, final String property) {
+        // getter
+        final Method getter = getAccessor(parentType, property);
+        if (getter != null && Modifier.isPublic(getter.getModifiers())) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    Object value = parent.evaluate(row);
+                    if (value == null) {
+                        throw new NullPointerException();
+                    }
+                    try {
+                        return getter.invoke(value);
+                    } catch (IllegalAccessException e) {
+                        throw new QueryException(e);
+                    } catch (InvocationTargetException e) {
+                        if (e.getCause() instanceof RuntimeException) {
+                            throw (RuntimeException) e.getCause();
+                        }
+                        throw new QueryException(e.getCause());
+                    }
+                }
+            };
+        }
+        // field
+        final Field field = getField(parentType, property);
+        if (field != null && Modifier.isPublic(field.getModifiers())) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    Object value = parent.evaluate(row);
+                    if (value == null) {
+                        throw new NullPointerException();
+                    }
+                    try {
+                        return field.get(value);
+                    } catch (IllegalAccessException e) {
+                        throw new QueryException(e);
+                    }
+                }
+            };
+        }
+        // field access by reflection
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                return CollQueryFunctions.get(parent.evaluate(row), property);
+            }
+        };
+    }
+
+    @Nullable
+    private static Method getAccessor(Class<?> owner, String property) {
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(owner);
+            for (PropertyDescriptor pd : beanInfo.getPropertyDescriptors()) {
+                if (pd.getName().equals(property)) {
+                    return pd.getReadMethod();
+                }
+            }
+            return null;
+        } catch (IntrospectionException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Field getField(Class<?> owner, String field) {
+        try {
+            return owner.getField(field);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Node visit(SubQueryExpression<?> expr, Void context) {
+        throw new UnsupportedOperationException("Unsupported expression " + expr);
+    }
+
+    @Override
+    public Node visit(TemplateExpression<?> expr, Void context) {
+        throw new UnsupportedOperationException("Unsupported expression " + expr);
+    }
+
+    @Override
+    public Node visit(Operation<?> expr, Void context) {
+        Operator op = expr.getOperator();
+        List<Expression<?>> args = expr.getArgs();
+        if (args.size() == 2 && NUMERIC_OPERATORS.contains(op)
+                && isPrimitive(args.get(0).getType()) && isPrimitive(args.get(1).getType())) {
+            return numeric(op, args.get(0).getType(), args.get(1).getType(), convert(args.get(0)),
+                    convert(args.get(1)));
+        }
+        checkTemplate(op);
+        if (op == Ops.STRING_CAST) {
+            final Node arg = convert(args.get(0));
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return arg.evaluate(row).toString();
+                }
+            };
+        }
+        Node[] nodes = convert(args);
+        if (op == Ops.AND || op == Ops.OR || op == Ops.NOT || op == Ops.XOR || op == Ops.XNOR) {
+            return logical(op, nodes);
+        } else if (op == Ops.NEGATE || op == Ops.MOD) {
+            Class<?> type = nodes.length == 1 ? args.get(0).getType()
+                    : promote(args.get(0).getType(), args.get(1).getType());
+            if (!isPrimitive(type)) {
+                throw new UnsupportedOperationException("Unsupported operand type " + type.getName());
+            }
+            return nodes.length == 1 ? numeric(op, type, type, nodes[0], null)
+                    : numeric(op, type, type, nodes[0], nodes[1]);
+        }
+        Node node = comparison(op, nodes);
+        if (node == null) {
+            node = arithmetic(op, nodes);
+        }
+        if (node == null) {
+            node = string(op, nodes);
+        }
+        if (node == null) {
+            node = collection(op, nodes);
+        }
+        if (node == null) {
+            node = dateTime(op, nodes);
+        }
+        if (node == null) {
+            throw new UnsupportedOperationException("Unsupported operator " + op);
+        }
+        return node;
+    }
+
+    private void checkTemplate(Operator op) {
+        // customized templates are only supported by compilation
+        Template template = templates.getTemplate(op);
+        if (template == null || !template.equals(CollQueryTemplates.DEFAULT.getTemplate(op))) {
+            throw new UnsupportedOperationException("Unsupported template for " + op);
+        }
+    }
+
+    private Node[] convert(List<Expression<?>> args) {
+        Node[] nodes = new Node[args.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = convert(args.get(i));
+        }
+        return nodes;
+    }
+
+    private static Object[] evaluate(Node[] nodes, Object[] row) {
+        Object[] values = new Object[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            values[i] = nodes[i].evaluate(row);
+        }
+        return values;
+    }
+
+    private static boolean isPrimitive(Class<?> type) {
+        return type.isPrimitive() || WRAPPER_TYPES.contains(type);
+    }
+
+    /**
+     * Binary numeric promotion of the given primitive or wrapper types
+     */
+    private static Class<?> promote(Class<?> left, Class<?> right) {
+        Class<?> l = Primitives.wrap(left);
+        Class<?> r = Primitives.wrap(right);
+        if (l == Boolean.class && r == Boolean.class) {
+            return Boolean.class;
+        } else if (l == Double.class || r == Double.class) {
+            return Double.class;
+        } else if (l == Float.class || r == Float.class) {
+            return Float.class;
+        } else if (l == Long.class || r == Long.class) {
+            return Long.class;
+        } else {
+            return Integer.class;
+        }
+    }
+
+    private static Number toNumber(Object value) {
+        return value instanceof Character ? Integer.valueOf((Character) value) : (Number) value;
+    }
+
+    private static Node numeric(final Operator op, Class<?> left, Class<?> right,
+            final Node leftNode, @Nullable final Node rightNode) {
+        final Class<?> type = promote(left, right);
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                Object l = leftNode.evaluate(row);
+                Object r = rightNode != null ? rightNode.evaluate(row) : null;
+                if (type == Boolean.class) {
+                    boolean rv = ((Boolean) l).booleanValue() == ((Boolean) r).booleanValue();
+                    return op == Ops.EQ ? rv : !rv;
+                } else if (type == Double.class || type == Float.class) {
+                    double x = toNumber(l).doubleValue();
+                    double y = rightNode != null ? toNumber(r).doubleValue() : 0.0;
+                    Object rv = evaluate(op, x, y);
+                    if (type == Float.class && rv instanceof Double) {
+                        return ((Double) rv).floatValue();
+                    }
+                    return rv;
+                } else if (type == Long.class) {
+                    long x = toNumber(l).longValue();
+                    long y = rightNode != null ? toNumber(r).longValue() : 0L;
+                    return evaluate(op, x, y);
+                } else {
+                    int x = toNumber(l).intValue();
+                    int y = rightNode != null ? toNumber(r).intValue() : 0;
+                    Object rv = evaluate(op, x, y);
+                    return rv instanceof Long ? Integer.valueOf(((Long) rv).intValue()) : rv;
+                }
+            }
+
+            private Object evaluate(Operator op, double x, double y) {
+                if (op == Ops.EQ) {
+                    return x == y;
+                } else if (op == Ops.NE) {
+                    return x != y;
+                } else if (op == Ops.GT) {
+                    return x > y;
+                } else if (op == Ops.LT) {
+                    return x < y;
+                } else if (op == Ops.GOE) {
+                    return x >= y;
+                } else if (op == Ops.LOE) {
+                    return x <= y;
+                } else if (op == Ops.ADD) {
+                    return x + y;
+                } else if (op == Ops.SUB) {
+                    return x - y;
+                } else if (op == Ops.MULT) {
+                    return x * y;
+                } else if (op == Ops.DIV) {
+                    return x / y;
+                } else if (op == Ops.MOD) {
+                    return x % y;
+                } else {
+                    return -x;
+                }
+            }
+
+            private Object evaluate(Operator op, long x, long y) {
+                if (op == Ops.EQ) {
+                    return x == y;
+                } else if (op == Ops.NE) {
+                    return x != y;
+                } else if (op == Ops.GT) {
+                    return x > y;
+                } else if (op == Ops.LT) {
+                    return x < y;
+                } else if (op == Ops.GOE) {
+                    return x >= y;
+                } else if (op == Ops.LOE) {
+                    return x <= y;
+                } else if (op == Ops.ADD) {
+                    return x + y;
+                } else if (op == Ops.SUB) {
+                    return x - y;
+                } else if (op == Ops.MULT) {
+                    return x * y;
+                } else if (op == Ops.DIV) {
+                    return x / y;
+                } else if (op == Ops.MOD) {
+                    return x % y;
+                } else {
+                    return -x;
+                }
+            }
+
+            private Object evaluate(Operator op, int x, int y) {
+                if (op == Ops.DIV) {
+                    return x / y;
+                } else if (op == Ops.MOD) {
+                    return x % y;
+                } else {
+                    // int overflow is handled by the caller
+                    return evaluate(op, (long) x, (long) y);
+                }
+            }
+        };
+    }
+
+    private static Node logical(final Operator op, final Node[] args) {
+        if (op == Ops.NOT) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return !(Boolean) args[0].evaluate(row);
+                }
+            };
+        }
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                boolean left = (Boolean) args[0].evaluate(row);
+                if (op == Ops.AND && !left) {
+                    return false;
+                } else if (op == Ops.OR && left) {
+                    return true;
+                }
+                boolean right = (Boolean) args[1].evaluate(row);
+                if (op == Ops.XOR) {
+                    return left ^ right;
+                } else if (op == Ops.XNOR) {
+                    return left == right;
+                } else {
+                    return right;
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static Node comparison(final Operator op, final Node[] args) {
+        if (op == Ops.EQ || op == Ops.NE) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    boolean rv = CollQueryFunctions.equals(args[0].evaluate(row), args[1].evaluate(row));
+                    return op == Ops.EQ ? rv : !rv;
+                }
+            };
+        } else if (op == Ops.GT || op == Ops.LT || op == Ops.GOE || op == Ops.LOE) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    int rv = CollQueryFunctions.compareTo((Comparable) args[0].evaluate(row),
+                            (Comparable) args[1].evaluate(row));
+                    if (op == Ops.GT) {
+                        return rv > 0;
+                    } else if (op == Ops.LT) {
+                        return rv < 0;
+                    } else if (op == Ops.GOE) {
+                        return rv >= 0;
+                    } else {
+                        return rv <= 0;
+                    }
+                }
+            };
+        } else if (op == Ops.BETWEEN) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return CollQueryFunctions.between((Comparable) args[0].evaluate(row),
+                            (Comparable) args[1].evaluate(row), (Comparable) args[2].evaluate(row));
+                }
+            };
+        } else if (op == Ops.IS_NULL || op == Ops.IS_NOT_NULL) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return (args[0].evaluate(row) == null) == (op == Ops.IS_NULL);
+                }
+            };
+        } else if (op == Ops.IN || op == Ops.NOT_IN) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    Object value = args[0].evaluate(row);
+                    boolean rv = ((Collection<?>) args[1].evaluate(row)).contains(value);
+                    return op == Ops.IN ? rv : !rv;
+                }
+            };
+        } else if (op == Ops.INSTANCE_OF) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return ((Class<?>) args[1].evaluate(row)).isInstance(args[0].evaluate(row));
+                }
+            };
+        } else if (op == Ops.NULLIF) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return CollQueryFunctions.nullif(args[0].evaluate(row), args[1].evaluate(row));
+                }
+            };
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Node arithmetic(final Operator op, final Node[] args) {
+        if (op != Ops.ADD && op != Ops.SUB && op != Ops.MULT && op != Ops.DIV) {
+            return null;
+        }
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                Object left = args[0].evaluate(row);
+                Object right = args[1].evaluate(row);
+                if (left instanceof BigDecimal) {
+                    BigDecimal l = (BigDecimal) left;
+                    BigDecimal r = (BigDecimal) right;
+                    if (op == Ops.ADD) {
+                        return l.add(r);
+                    } else if (op == Ops.SUB) {
+                        return l.subtract(r);
+                    } else if (op == Ops.MULT) {
+                        return l.multiply(r);
+                    } else {
+                        return l.divide(r);
+                    }
+                } else if (left instanceof BigInteger) {
+                    BigInteger l = (BigInteger) left;
+                    BigInteger r = (BigInteger) right;
+                    if (op == Ops.ADD) {
+                        return l.add(r);
+                    } else if (op == Ops.SUB) {
+                        return l.subtract(r);
+                    } else if (op == Ops.MULT) {
+                        return l.multiply(r);
+                    } else {
+                        return l.divide(r);
+                    }
+                } else if (left == null) {
+                    throw new NullPointerException();
+                } else {
+                    throw new UnsupportedOperationException("Unsupported operand type "
+                            + left.getClass().getName());
+                }
+            }
+        };
+    }
+
+    @Nullable
+    private static Node string(final Operator op, final Node[] args) {
+        if (op == Ops.CONCAT) {
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    return String.valueOf(args[0].evaluate(row)) + args[1].evaluate(row);
+                }
+            };
+        } else if (op == Ops.LIKE || op == Ops.LIKE_IC || op == Ops.LIKE_ESCAPE || op == Ops.LIKE_ESCAPE_IC) {
+            final boolean ignoreCase = op == Ops.LIKE_IC || op == Ops.LIKE_ESCAPE_IC;
+            return new Node() {
+                @Override
+                public Object evaluate(Object[] row) {
+                    String str = (String) args[0].evaluate(row);
+                    String like = (String) args[1].evaluate(row);
+                    if (args.length == 3) {
+                        char escape = (Character) args[2].evaluate(row);
+                        return ignoreCase ? CollQueryFunctions.likeIgnoreCase(str, like, escape)
+                                : CollQueryFunctions.like(str, like, escape);
+                    }
+                    return ignoreCase ? CollQueryFunctions.likeIgnoreCase(str, like)
+                            : CollQueryFunctions.like(str, like);
+                }
+            };
+        }
+        final boolean ignoreCase = op == Ops.STARTS_WITH_IC || op == Ops.ENDS_WITH_IC
+                || op == Ops.STRING_CONTAINS_IC || op == Ops.MATCHES_IC;
+        if (!ignoreCase && op != Ops.LOWER && op != Ops.UPPER && op != Ops.TRIM && op != Ops.STRING_LENGTH
+                && op != Ops.STRING_IS_EMPTY && op != Ops.STARTS_WITH && op != Ops.ENDS_WITH
+                && op != Ops.STRING_CONTAINS && op != Ops.MATCHES && op != Ops.EQ_IGNORE_CASE
+                && op != Ops.CHAR_AT && op != Ops.SUBSTR_1ARG && op != Ops.SUBSTR_2ARGS
+                && op != Ops.INDEX_OF && op != Ops.INDEX_OF_2ARGS) {
+            return null;
+        }
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                String str = (String) args[0].evaluate(row);
+                Object arg = args.length > 1 ? args[1].evaluate(row) : null;
+                if (ignoreCase) {
+                    str = str.toLowerCase();
+                    arg = ((String) arg).toLowerCase();
+                }
+                if (op == Ops.LOWER) {
+                    return str.toLowerCase();
+                } else if (op == Ops.UPPER) {
+                    return str.toUpperCase();
+                } else if (op == Ops.TRIM) {
+                    return str.trim();
+                } else if (op == Ops.STRING_LENGTH) {
+                    return str.length();
+                } else if (op == Ops.STRING_IS_EMPTY) {
+                    return str.isEmpty();
+                } else if (op == Ops.STARTS_WITH || op == Ops.STARTS_WITH_IC) {
+                    return str.startsWith((String) arg);
+                } else if (op == Ops.ENDS_WITH || op == Ops.ENDS_WITH_IC) {
+                    return str.endsWith((String) arg);
+                } else if (op == Ops.STRING_CONTAINS || op == Ops.STRING_CONTAINS_IC) {
+                    return str.contains((String) arg);
+                } else if (op == Ops.MATCHES || op == Ops.MATCHES_IC) {
+                    return str.matches((String) arg);
+                } else if (op == Ops.EQ_IGNORE_CASE) {
+                    return str.equalsIgnoreCase((String) arg);
+                } else if (op == Ops.CHAR_AT) {
+                    return str.charAt((Integer) arg);
+                } else if (op == Ops.SUBSTR_1ARG) {
+                    return str.substring((Integer) arg);
+                } else if (op == Ops.SUBSTR_2ARGS) {
+                    return str.substring((Integer) arg, (Integer) args[2].evaluate(row));
+                } else if (op == Ops.INDEX_OF) {
+                    return str.indexOf((String) arg);
+                } else {
+                    return str.indexOf((String) arg, (Integer) args[2].evaluate(row));
+                }
+            }
+        };
+    }
+
+    @Nullable
+    private static Node collection(final Operator op, final Node[] args) {
+        if (op != Ops.COL_SIZE && op != Ops.COL_IS_EMPTY && op != Ops.MAP_SIZE && op != Ops.MAP_IS_EMPTY
+                && op != Ops.CONTAINS_KEY && op != Ops.CONTAINS_VALUE && op != Ops.ARRAY_SIZE
+                && op != Ops.ORDINAL) {
+            return null;
+        }
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                Object value = args[0].evaluate(row);
+                if (op == Ops.COL_SIZE) {
+                    return ((Collection<?>) value).size();
+                } else if (op == Ops.COL_IS_EMPTY) {
+                    return ((Collection<?>) value).isEmpty();
+                } else if (op == Ops.MAP_SIZE) {
+                    return ((Map<?, ?>) value).size();
+                } else if (op == Ops.MAP_IS_EMPTY) {
+                    return ((Map<?, ?>) value).isEmpty();
+                } else if (op == Ops.CONTAINS_KEY) {
+                    return ((Map<?, ?>) value).containsKey(args[1].evaluate(row));
+                } else if (op == Ops.CONTAINS_VALUE) {
+                    return ((Map<?, ?>) value).containsValue(args[1].evaluate(row));
+                } else if (op == Ops.ARRAY_SIZE) {
+                    return Array.getLength(value);
+                } else {
+                    return ((Enum<?>) value).ordinal();
+                }
+            }
+        };
+    }
+
+    @Nullable
+    private static Node dateTime(final Operator op, final Node[] args) {
+        if (!(op instanceof Ops.DateTimeOps)) {
+            return null;
+        }
+        final Ops.DateTimeOps dateTimeOp = (Ops.DateTimeOps) op;
+        switch (dateTimeOp) {
+        case YEAR: case MONTH: case WEEK: case DAY_OF_WEEK: case DAY_OF_MONTH: case DAY_OF_YEAR:
+        case HOUR: case MINUTE: case SECOND: case MILLISECOND: case YEAR_MONTH: case YEAR_WEEK:
+            break;
+        default:
+            return null;
+        }
+        return new Node() {
+            @Override
+            public Object evaluate(Object[] row) {
+                Date date = (Date) args[0].evaluate(row);
+                switch (dateTimeOp) {
+                case YEAR: return CollQueryFunctions.getYear(date);
+                case MONTH: return CollQueryFunctions.getMonth(date);
+                case WEEK: return CollQueryFunctions.getWeek(date);
+                case DAY_OF_WEEK: return CollQueryFunctions.getDayOfWeek(date);
+                case DAY_OF_MONTH: return CollQueryFunctions.getDayOfMonth(date);
+                case DAY_OF_YEAR: return CollQueryFunctions.getDayOfYear(date);
+                case HOUR: return CollQueryFunctions.getHour(date);
+                case MINUTE: return CollQueryFunctions.getMinute(date);
+                case SECOND: return CollQueryFunctions.getSecond(date);
+                case MILLISECOND: return CollQueryFunctions.getMilliSecond(date);
+                case YEAR_MONTH: return CollQueryFunctions.getYearMonth(date);
+                default: return CollQueryFunctions.getYearWeek(date);
+                }
+            }
+        };
+    }
+
+    /**
+     * Base class for evaluators with list results
+     */
+    private abstract static class ListEvaluator<T> implements Evaluator<List<T>> {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Class<? extends List<T>> getType() {
+            return (Class) List.class;
+        }
+
+    }
+
+}
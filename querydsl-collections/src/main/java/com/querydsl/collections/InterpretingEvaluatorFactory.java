@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.mysema.codegen.Evaluator;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+
+/**
+ * {@code InterpretingEvaluatorFactory} is a {@link DefaultEvaluatorFactory} which evaluates expressions
+ * without compilation
+ *
+ * <p>In the adaptive mode the evaluators of a query shape are interpreted until the shape has been
+ * used the given amount of times, after that compiled evaluators are used. Expressions which can't be
+ * interpreted, e.g. sub queries or custom templates, are always compiled.</p>
+ *
+ * @see InterpretingQueryEngine
+ */
+public class InterpretingEvaluatorFactory extends DefaultEvaluatorFactory {
+
+    private final CollQueryTemplates templates;
+
+    private final int compileThreshold;
+
+    private final LoadingCache<String, AtomicInteger> shapes;
+
+    /**
+     * Create a new instance which never compiles supported expressions
+     *
+     * @param templates templates
+     */
+    public InterpretingEvaluatorFactory(CollQueryTemplates templates) {
+        this(templates, 0);
+    }
+
+    /**
+     * Create a new instance
+     *
+     * @param templates templates
+     * @param compileThreshold amount of interpreted evaluations of a query shape before it is compiled,
+     *                         or zero to never compile supported expressions
+     */
+    public InterpretingEvaluatorFactory(CollQueryTemplates templates, int compileThreshold) {
+        super(templates);
+        if (compileThreshold < 0) {
+            throw new IllegalArgumentException("Negative compile threshold " + compileThreshold);
+        }
+        this.templates = templates;
+        this.compileThreshold = compileThreshold;
+        this.shapes = CacheBuilder.newBuilder()
+                .maximumSize(getEvaluatorCache().getMaximumSize())
+                .build(new CacheLoader<String, AtomicInteger>() {
+                    @Override
+                    public AtomicInteger load(String key) {
+                        return new AtomicInteger();
+                    }
+                });
+    }
+
+    /**
+     * Get the amount of interpreted evaluations of a query shape before it is compiled
+     *
+     * @return compile threshold or zero, if supported expressions are never compiled
+     */
+    public int getCompileThreshold() {
+        return compileThreshold;
+    }
+
+    @Override
+    public <T> Evaluator<T> create(QueryMetadata metadata, List<? extends Expression<?>> sources,
+            Expression<T> projection) {
+        if (!isCompiled("create", sources, projection)) {
+            try {
+                return Interpreter.create(templates, metadata, sources, projection);
+            } catch (UnsupportedOperationException e) {
+                // compile instead
+            }
+        }
+        return super.create(metadata, sources, projection);
+    }
+
+    @Override
+    public <T> Evaluator<List<T>> createEvaluator(QueryMetadata metadata,
+            Expression<? extends T> source, Predicate filter) {
+        if (!isCompiled("filter", null, source, filter)) {
+            try {
+                return Interpreter.createEvaluator(templates, metadata, source, filter);
+            } catch (UnsupportedOperationException e) {
+                // compile instead
+            }
+        }
+        return super.createEvaluator(metadata, source, filter);
+    }
+
+    @Override
+    public Evaluator<List<Object[]>> createEvaluator(QueryMetadata metadata,
+            List<JoinExpression> joins, @Nullable Predicate filter) {
+        StringBuilder kind = new StringBuilder("join");
+        for (JoinExpression join : joins) {
+            kind.append(" ").append(join.getType()).append(" ").append(serialize(join.getTarget()));
+        }
+        if (!isCompiled(kind.toString(), null, filter)) {
+            try {
+                return Interpreter.createEvaluator(templates, metadata, joins, filter);
+            } catch (UnsupportedOperationException e) {
+                // compile instead
+            }
+        }
+        return super.createEvaluator(metadata, joins, filter);
+    }
+
+    @Override
+    public Evaluator<List<Object[]>> createTupleEvaluator(QueryMetadata metadata,
+            List<? extends Expression<?>> sources, Predicate filter) {
+        if (!isCompiled("tuple", sources, filter)) {
+            try {
+                return Interpreter.createTupleEvaluator(templates, metadata, sources, filter);
+            } catch (UnsupportedOperationException e) {
+                // compile instead
+            }
+        }
+        return super.createTupleEvaluator(metadata, sources, filter);
+    }
+
+    @Override
+    public Evaluator<List<Object[]>> createKeyEvaluator(QueryMetadata metadata,
+            List<? extends Expression<?>> sources, List<? extends Expression<?>> keys) {
+        if (!isCompiled("key", sources, keys.toArray(new Expression<?>[keys.size()]))) {
+            try {
+                return Interpreter.createKeyEvaluator(templates, metadata, sources, keys);
+            } catch (UnsupportedOperationException e) {
+                // compile instead
+            }
+        }
+        return super.createKeyEvaluator(metadata, sources, keys);
+    }
+
+    private boolean isCompiled(String kind, @Nullable List<? extends Expression<?>> sources,
+            Expression<?>... exprs) {
+        if (compileThreshold == 0) {
+            return false;
+        }
+        // the shape of the evaluator, constants are replaced by labels
+        StringBuilder key = new StringBuilder(kind);
+        if (sources != null) {
+            for (Expression<?> source : sources) {
+                key.append(" ").append(source).append(" ").append(source.getType().getName());
+            }
+        }
+        for (Expression<?> expr : exprs) {
+            key.append("\n");
+            if (expr != null) {
+                key.append(serialize(expr)).append(" ").append(expr.getType().getName());
+            }
+        }
+        return shapes.getUnchecked(key.toString()).incrementAndGet() > compileThreshold;
+    }
+
+    private String serialize(Expression<?> expr) {
+        try {
+            return new CollQuerySerializer(templates).handle(expr).toString();
+        } catch (IllegalArgumentException e) {
+            // not serializable, e.g. sub queries
+            return expr.toString();
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+/**
+ * {@code InterpretingQueryEngine} is a {@link QueryEngine} implementation which interprets queries
+ * instead of compiling them
+ *
+ * <p>Interpretation avoids the compilation latency of new query shapes, which makes it suitable for
+ * one-off queries on small collections. In the adaptive mode frequently used query shapes are compiled.</p>
+ *
+ * <pre>
+ * QueryEngine engine = new InterpretingQueryEngine(CollQueryTemplates.DEFAULT, 10);
+ * List&lt;Cat&gt; cats = new CollQuery&lt;Void&gt;(engine).from(cat, source).where(cat.name.eq("Bob")).select(cat).fetch();
+ * </pre>
+ *
+ * @see InterpretingEvaluatorFactory
+ */
+public class InterpretingQueryEngine extends DefaultQueryEngine {
+
+    public InterpretingQueryEngine() {
+        this(CollQueryTemplates.DEFAULT);
+    }
+
+    public InterpretingQueryEngine(CollQueryTemplates templates) {
+        super(new InterpretingEvaluatorFactory(templates));
+    }
+
+    /**
+     * Create a new adaptive instance
+     *
+     * @param templates templates
+     * @param compileThreshold amount of interpreted evaluations of a query shape before it is compiled
+     */
+    public InterpretingQueryEngine(CollQueryTemplates templates, int compileThreshold) {
+        super(new InterpretingEvaluatorFactory(templates, compileThreshold));
+    }
+
+    public InterpretingQueryEngine(InterpretingEvaluatorFactory evaluatorFactory) {
+        super(evaluatorFactory);
+    }
+
+}
@@ -22,11 +22,14 @@ import org.junit.Test;
 
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
 
 public class DistinctTest extends AbstractQueryTest {
 
     private NumberPath<Integer> intVar1 = Expressions.numberPath(Integer.class, "var1");
     private NumberPath<Integer> intVar2 = Expressions.numberPath(Integer.class, "var2");
+    private StringPath strVar1 = Expressions.stringPath("strVar1");
+    private StringPath strVar2 = Expressions.stringPath("strVar2");
     private List<Integer> list1 = Arrays.asList(1, 2, 2, 3, 3, 3, 4, 4, 4, 4);
     private List<Integer> list2 = Arrays.asList(2, 2, 3, 3, 3, 4, 4, 4, 4, 4);
 
@@ -56,6 +59,22 @@ public class DistinctTest extends AbstractQueryTest {
         assertEquals(3, CollQueryFactory.from(intVar2, list2).distinct().fetchCount());
     }
 
+    @Test
+    public void limit_and_offset() {
+        assertEquals(Arrays.asList(1, 2), CollQueryFactory.from(intVar1, list1).distinct().limit(2).fetch());
+        assertEquals(Arrays.asList(2, 3), CollQueryFactory.from(intVar1, list1).distinct().offset(1).limit(2).fetch());
+        assertEquals(Arrays.asList(3, 4), CollQueryFactory.from(intVar1, list1).distinct().select(intVar1.add(1))
+                .offset(1).limit(2).fetch());
+    }
+
+    @Test
+    public void null_rows() {
+        List<String> list = Arrays.asList(null, "a", null, "a");
+        assertEquals(4, CollQueryFactory.from(strVar1, list).from(strVar2, list).distinct().fetchCount());
+        assertEquals(4, CollQueryFactory.from(strVar1, list).from(strVar2, list).distinct()
+                .select(strVar1, strVar2).fetch().size());
+    }
+
     @Test
     public void null_() {
         assertEquals(Arrays.asList(null, 1),
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.querydsl.core.QueryMetadata;
+
+public class EvaluatorCacheTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final List<Cat> cats = Arrays.asList(new Cat("Bob", 1), new Cat("Kate", 2), new Cat("Alex", 3));
+
+    private final EvaluatorCache cache = new EvaluatorCache(2);
+
+    private final DefaultQueryEngine queryEngine = new DefaultQueryEngine(
+            new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT, cache));
+
+    private CollQuery<?> query() {
+        return new CollQuery<Void>(queryEngine);
+    }
+
+    @Test
+    public void same_shape() {
+        assertEquals(Arrays.asList(1), query().from(cat, cats).where(cat.name.eq("Bob")).select(cat.id).fetch());
+        long misses = cache.getMissCount();
+        assertEquals(Arrays.asList(2), query().from(cat, cats).where(cat.name.eq("Kate")).select(cat.id).fetch());
+        assertEquals(Arrays.asList(3), query().from(cat, cats).where(cat.name.eq("Alex")).select(cat.id).fetch());
+        assertEquals(misses, cache.getMissCount());
+        assertEquals(4, cache.getHitCount());
+        assertTrue(cache.getCompileTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void collection_constants() {
+        assertEquals(Arrays.asList(1, 2), query().from(cat, cats)
+                .where(cat.name.in(Arrays.asList("Bob", "Kate"))).select(cat.id).fetch());
+        assertEquals(Arrays.asList(3), query().from(cat, cats)
+                .where(cat.name.in(Collections.singleton("Alex"))).select(cat.id).fetch());
+    }
+
+    @Test
+    public void eviction() {
+        query().from(cat, cats).where(cat.name.eq("Bob")).fetch();
+        query().from(cat, cats).where(cat.id.eq(1)).fetch();
+        query().from(cat, cats).where(cat.name.startsWith("B")).fetch();
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void warmup() {
+        QueryMetadata shape = query().from(cat, cats).where(cat.name.eq(""))
+                .select(cat.name).getMetadata();
+        queryEngine.warmup(Collections.singletonList(shape));
+        assertEquals(2, cache.getMissCount());
+
+        assertEquals(Arrays.asList("Bob"), query().from(cat, cats).where(cat.name.eq("Bob"))
+                .select(cat.name).fetch());
+        assertEquals(2, cache.getMissCount());
+    }
+
+}
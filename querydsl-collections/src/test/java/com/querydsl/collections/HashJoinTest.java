@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.Tuple;
+
+public class HashJoinTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat otherCat = new QCat("otherCat");
+
+    private final QCat mate = new QCat("mate");
+
+    private final DefaultEvaluatorFactory evaluatorFactory = new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT);
+
+    private List<Cat> cats;
+
+    @Before
+    public void setUp() {
+        Cat bob = new Cat("Bob", 1);
+        Cat kate = new Cat("Kate", 2);
+        Cat bob2 = new Cat("Bob", 3);
+        Cat unnamed = new Cat(null, 4);
+        Cat unnamed2 = new Cat(null, 5);
+        bob.setMate(kate);
+        kate.setMate(bob2);
+        cats = Arrays.asList(bob, kate, bob2, unnamed, unnamed2);
+    }
+
+    @Test
+    public void equi_join() {
+        List<Tuple> results = CollQueryFactory.from(cat, cats).from(otherCat, cats)
+                .where(cat.name.eq(otherCat.name), cat.id.ne(otherCat.id))
+                .select(cat.id, otherCat.id)
+                .fetch();
+        List<String> rv = new ArrayList<String>();
+        for (Tuple row : results) {
+            rv.add(row.get(cat.id) + "-" + row.get(otherCat.id));
+        }
+        assertEquals(Arrays.asList("1-3", "3-1", "4-5", "5-4"), rv);
+    }
+
+    @Test
+    public void equi_join_with_filters() {
+        List<Integer> results = CollQueryFactory.from(cat, cats).from(otherCat, cats)
+                .where(cat.mate.id.eq(otherCat.id), otherCat.name.eq("Bob"))
+                .select(cat.id)
+                .fetch();
+        assertEquals(Arrays.asList(2), results);
+    }
+
+    @Test
+    public void three_sources() {
+        List<Tuple> results = CollQueryFactory.from(cat, cats).from(mate, cats).from(otherCat, cats)
+                .where(cat.mate.eq(mate), mate.mate.eq(otherCat))
+                .select(cat.name, otherCat.id)
+                .fetch();
+        assertEquals(1, results.size());
+        assertEquals("Bob", results.get(0).get(cat.name));
+        assertEquals(Integer.valueOf(3), results.get(0).get(otherCat.id));
+    }
+
+    @Test
+    public void cross_join_step() {
+        List<Tuple> results = CollQueryFactory.from(cat, cats).from(mate, cats).from(otherCat, cats)
+                .where(cat.id.eq(otherCat.id), mate.id.lt(3))
+                .orderBy(cat.id.asc(), mate.id.asc())
+                .select(cat.id, mate.id)
+                .fetch();
+        assertEquals(10, results.size());
+        assertEquals(Integer.valueOf(1), results.get(0).get(cat.id));
+        assertEquals(Integer.valueOf(2), results.get(1).get(mate.id));
+    }
+
+    @Test
+    public void count() {
+        assertEquals(5, CollQueryFactory.from(cat, cats).from(otherCat, cats)
+                .where(cat.id.eq(otherCat.id)).fetchCount());
+    }
+
+    @Test
+    public void not_applicable() {
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addJoin(JoinType.DEFAULT, cat);
+        metadata.addJoin(JoinType.DEFAULT, otherCat);
+        assertNull(HashJoin.create(evaluatorFactory, metadata));
+        metadata.addWhere(cat.id.lt(otherCat.id));
+        assertNull(HashJoin.create(evaluatorFactory, metadata));
+        metadata.addWhere(cat.name.eq(otherCat.name));
+        assertNotNull(HashJoin.create(evaluatorFactory, metadata));
+    }
+
+    @Test
+    public void not_applicable_for_inner_joins() {
+        QueryMetadata metadata = CollQueryFactory.from(cat, cats)
+                .innerJoin(cat.kittens, otherCat)
+                .where(cat.name.eq(otherCat.name))
+                .getMetadata();
+        assertNull(HashJoin.create(evaluatorFactory, metadata));
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.types.Projections;
+
+public class InterpretingQueryEngineTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat otherCat = new QCat("otherCat");
+
+    private final QCat kitten = new QCat("kitten");
+
+    private final InterpretingEvaluatorFactory evaluatorFactory = new InterpretingEvaluatorFactory(
+            CollQueryTemplates.DEFAULT);
+
+    private final QueryEngine interpreting = new InterpretingQueryEngine(evaluatorFactory);
+
+    private List<Cat> cats;
+
+    @Before
+    public void setUp() {
+        Cat bob = new Cat("Bob", 1);
+        Cat kate = new Cat("Kate", 2);
+        Cat alex = new Cat("Alex", 3);
+        Cat unnamed = new Cat(null, 4);
+        bob.setMate(kate);
+        kate.setKittens(Arrays.asList(alex, unnamed));
+        cats = Arrays.asList(bob, kate, alex, unnamed);
+    }
+
+    private CollQuery<?> interpreted() {
+        return new CollQuery<Void>(interpreting);
+    }
+
+    private CollQuery<?> compiled() {
+        return new CollQuery<Void>(DefaultQueryEngine.getDefault());
+    }
+
+    @Test
+    public void filter() {
+        assertEquals(
+                compiled().from(cat, cats).where(cat.name.startsWith("B").or(cat.id.gt(2))).select(cat).fetch(),
+                interpreted().from(cat, cats).where(cat.name.startsWith("B").or(cat.id.gt(2))).select(cat).fetch());
+        assertEquals(
+                compiled().from(cat, cats).where(cat.mate.name.eq("Kate")).select(cat).fetch(),
+                interpreted().from(cat, cats).where(cat.mate.name.eq("Kate")).select(cat).fetch());
+        assertEquals(
+                compiled().from(cat, cats).where(cat.name.in("Alex", "Bob"), cat.id.between(1, 3)).select(cat).fetch(),
+                interpreted().from(cat, cats).where(cat.name.in("Alex", "Bob"), cat.id.between(1, 3)).select(cat).fetch());
+        assertEquals(
+                compiled().from(cat, cats).where(cat.name.likeIgnoreCase("%A%"), cat.kittens.isEmpty()).select(cat).fetch(),
+                interpreted().from(cat, cats).where(cat.name.likeIgnoreCase("%A%"), cat.kittens.isEmpty()).select(cat).fetch());
+    }
+
+    @Test
+    public void projection() {
+        assertEquals(
+                compiled().from(cat, cats).orderBy(cat.name.desc()).select(cat.id.multiply(2).add(1)).fetch(),
+                interpreted().from(cat, cats).orderBy(cat.name.desc()).select(cat.id.multiply(2).add(1)).fetch());
+        assertEquals(
+                compiled().from(cat, cats).where(cat.name.isNotNull())
+                        .select(cat.name.toUpperCase().concat("-").concat(cat.name.length().stringValue())).fetch(),
+                interpreted().from(cat, cats).where(cat.name.isNotNull())
+                        .select(cat.name.toUpperCase().concat("-").concat(cat.name.length().stringValue())).fetch());
+        assertEquals(
+                compiled().from(cat, cats).select(cat.id.divide(2), cat.id.mod(3)).fetch().toString(),
+                interpreted().from(cat, cats).select(cat.id.divide(2), cat.id.mod(3)).fetch().toString());
+        assertEquals(
+                compiled().from(cat, cats).select(cat.id.sum()).fetchOne(),
+                interpreted().from(cat, cats).select(cat.id.sum()).fetchOne());
+    }
+
+    @Test
+    public void factory_expression() {
+        List<Cat> compiledCats = compiled().from(cat, cats)
+                .select(Projections.constructor(Cat.class, cat.name, cat.id)).fetch();
+        List<Cat> interpretedCats = interpreted().from(cat, cats)
+                .select(Projections.constructor(Cat.class, cat.name, cat.id)).fetch();
+        assertEquals(compiledCats.size(), interpretedCats.size());
+        for (int i = 0; i < compiledCats.size(); i++) {
+            assertEquals(compiledCats.get(i).getName(), interpretedCats.get(i).getName());
+            assertEquals(compiledCats.get(i).getId(), interpretedCats.get(i).getId());
+        }
+    }
+
+    @Test
+    public void joins() {
+        assertEquals(
+                compiled().from(cat, cats).from(otherCat, cats).where(cat.mate.eq(otherCat))
+                        .select(cat.name, otherCat.name).fetch().toString(),
+                interpreted().from(cat, cats).from(otherCat, cats).where(cat.mate.eq(otherCat))
+                        .select(cat.name, otherCat.name).fetch().toString());
+        assertEquals(
+                compiled().from(cat, cats).from(otherCat, cats).where(cat.id.lt(otherCat.id))
+                        .select(cat.id, otherCat.id).fetch().toString(),
+                interpreted().from(cat, cats).from(otherCat, cats).where(cat.id.lt(otherCat.id))
+                        .select(cat.id, otherCat.id).fetch().toString());
+        assertEquals(
+                compiled().from(cat, cats).innerJoin(cat.kittens, kitten)
+                        .select(cat.name, kitten.name).fetch().toString(),
+                interpreted().from(cat, cats).innerJoin(cat.kittens, kitten)
+                        .select(cat.name, kitten.name).fetch().toString());
+        assertEquals(
+                compiled().from(cat, cats).leftJoin(cat.kittens, kitten)
+                        .select(cat.name, kitten.id).fetch().toString(),
+                interpreted().from(cat, cats).leftJoin(cat.kittens, kitten)
+                        .select(cat.name, kitten.id).fetch().toString());
+    }
+
+    @Test
+    public void not_compiled() {
+        interpreted().from(cat, cats).where(cat.name.eq("Bob")).orderBy(cat.id.asc()).select(cat.name).fetch();
+        interpreted().from(cat, cats).from(otherCat, cats).where(cat.name.eq(otherCat.name))
+                .select(cat.id).fetch();
+        assertEquals(0, evaluatorFactory.getEvaluatorCache().getMissCount());
+    }
+
+    @Test
+    public void adaptive() {
+        InterpretingEvaluatorFactory adaptive = new InterpretingEvaluatorFactory(CollQueryTemplates.DEFAULT, 2);
+        QueryEngine queryEngine = new InterpretingQueryEngine(adaptive);
+        for (String name : Arrays.asList("Bob", "Kate")) {
+            assertEquals(Arrays.asList(name), new CollQuery<Void>(queryEngine).from(cat, cats)
+                    .where(cat.name.eq(name)).select(cat.name).fetch());
+        }
+        assertEquals(0, adaptive.getEvaluatorCache().getMissCount());
+
+        assertEquals(Arrays.asList("Alex"), new CollQuery<Void>(queryEngine).from(cat, cats)
+                .where(cat.name.eq("Alex")).select(cat.name).fetch());
+        assertEquals(2, adaptive.getEvaluatorCache().getMissCount());
+    }
+
+}
@@ -13,11 +13,13 @@
  */
 package com.querydsl.core.group;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.querydsl.core.ResultTransformer;
-import com.querydsl.core.Tuple;
+import javax.annotation.Nullable;
+
+import com.querydsl.core.*;
 import com.querydsl.core.types.*;
 
 /**
@@ -43,7 +45,7 @@ abstract class AbstractGroupByTransformer<K, T> implements ResultTransformer<T>
 
         @Override
         public <R, C> R accept(Visitor<R, C> v, C context) {
-            return expr.accept(v, context);
+            return v.visit(this, context);
         }
 
         @Override
@@ -103,4 +105,126 @@ abstract class AbstractGroupByTransformer<K, T> implements ResultTransformer<T>
         return new FactoryExpressionAdapter<Tuple>(expr, args);
     }
 
+    /**
+     * Select the given projection from the query, moving the aggregation into a copy of the query,
+     * if all group expressions are sums, minimums or maximums of the projected columns
+     *
+     * <p>The key and the other plain columns are added to the group by clause of the copy and
+     * the aggregated columns are replaced by their aggregates, so only one row per group is
+     * returned, if the plain columns are functionally dependent on the key. The rows are still
+     * aggregated in the client, so additional rows per group are combined correctly.</p>
+     *
+     * <p>The given query is not grouped itself. Queries which are grouped, distinct or limited
+     * already, or which can't be copied via a public {@code clone()} method, are not pushed
+     * down.</p>
+     *
+     * @param query query
+     * @param expr projection without group expressions
+     * @return query with the projection
+     */
+    protected FetchableQuery<Tuple, ?> select(FetchableQuery<?,?> query, FactoryExpression<Tuple> expr) {
+        List<Expression<?>> groupBy = new ArrayList<Expression<?>>();
+        FactoryExpression<Tuple> aggregated = pushDown(query, expr, groupBy);
+        if (aggregated != null) {
+            FetchableQuery<?,?> copy = copy(query);
+            if (copy instanceof Query) {
+                ((Query<?>) copy).groupBy(groupBy.toArray(new Expression<?>[groupBy.size()]));
+                return copy.select(aggregated);
+            }
+        }
+        return query.select(expr);
+    }
+
+    @Nullable
+    private FactoryExpression<Tuple> pushDown(FetchableQuery<?,?> query, FactoryExpression<Tuple> expr,
+            List<Expression<?>> groupBy) {
+        if (!(query instanceof Query) || !(query instanceof SubQueryExpression)
+                || expr.getArgs().size() != groupExpressions.size()) {
+            return null;
+        }
+        QueryMetadata metadata = ((SubQueryExpression<?>) query).getMetadata();
+        QueryModifiers modifiers = metadata.getModifiers();
+        if (!metadata.getGroupBy().isEmpty() || metadata.getHaving() != null || metadata.isDistinct()
+                || modifiers.getLimit() != null || modifiers.getOffset() != null) {
+            return null;
+        }
+
+        List<Expression<?>> args = new ArrayList<Expression<?>>(expr.getArgs().size());
+        boolean aggregated = false;
+        for (int i = 0; i < groupExpressions.size(); i++) {
+            GroupExpression<?, ?> groupExpr = groupExpressions.get(i);
+            Expression<?> arg = expr.getArgs().get(i);
+            if (groupExpr instanceof GOne) {
+                if (!isColumn(arg)) {
+                    return null;
+                }
+                if (!groupBy.contains(arg)) {
+                    groupBy.add(arg);
+                }
+                args.add(arg);
+            } else if (!(arg instanceof Path || arg instanceof Operation || arg instanceof TemplateExpression)
+                    || arg instanceof EntityPath) {
+                return null;
+            } else if (groupExpr instanceof GSum) {
+                args.add(ExpressionUtils.operation(sumType(arg.getType()), Ops.AggOps.SUM_AGG, arg));
+                aggregated = true;
+            } else if (groupExpr instanceof GMin || groupExpr instanceof GMax) {
+                Operator operator = groupExpr instanceof GMin ? Ops.AggOps.MIN_AGG : Ops.AggOps.MAX_AGG;
+                args.add(ExpressionUtils.operation(arg.getType(), operator, arg));
+                aggregated = true;
+            } else {
+                // averages, collections and maps are aggregated in the client
+                return null;
+            }
+        }
+        for (OrderSpecifier<?> order : metadata.getOrderBy()) {
+            if (!groupBy.contains(order.getTarget())) {
+                return null;
+            }
+        }
+        return aggregated ? new FactoryExpressionAdapter<Tuple>(expr, args) : null;
+    }
+
+    /**
+     * Only scalar properties of entities are grouped by, entities, embedded objects and
+     * collections would be expanded into several columns
+     */
+    private static boolean isColumn(Expression<?> expr) {
+        if (!(expr instanceof Path) || expr instanceof EntityPath || expr instanceof CollectionExpression
+                || expr instanceof MapExpression) {
+            return false;
+        }
+        PathMetadata metadata = ((Path<?>) expr).getMetadata();
+        return metadata.getPathType() == PathType.PROPERTY && metadata.getParent() instanceof EntityPath;
+    }
+
+    /**
+     * Databases widen sums of integral and floating point columns, like {@code SUM} in JPQL
+     */
+    private static Class<?> sumType(Class<?> type) {
+        switch (NumberKind.of(type)) {
+        case INT:
+        case LONG:
+            return Long.class;
+        case DOUBLE:
+            return Double.class;
+        default:
+            return type;
+        }
+    }
+
+    @Nullable
+    private static FetchableQuery<?,?> copy(FetchableQuery<?,?> query) {
+        try {
+            Object copy = query.getClass().getMethod("clone").invoke(query);
+            return copy != query && copy instanceof FetchableQuery ? (FetchableQuery<?,?>) copy : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+/**
+ * A group collector whose state can be combined with the state of another collector of the
+ * same group expression, which allows groups to be aggregated from several partial results.
+ *
+ * @param <T> Element type
+ * @param <R> Target type (e.g. List, Set)
+ */
+public interface CombinableGroupCollector<T, R> extends GroupCollector<T, R> {
+
+    /**
+     * Combine the values of the given collector into this group. The given collector has been
+     * created by the same group expression and has collected the values of rows following
+     * the rows of this collector.
+     *
+     * @param other collector to combine
+     */
+    void combine(GroupCollector<T, R> other);
+
+}
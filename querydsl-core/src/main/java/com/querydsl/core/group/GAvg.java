@@ -14,6 +14,8 @@
 package com.querydsl.core.group;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.util.MathUtils;
@@ -23,31 +25,159 @@ class GAvg<T extends Number> extends AbstractGroupExpression<T, T> {
 
     private static final long serialVersionUID = 3518868612387641383L;
 
-    public GAvg(Expression<T> expr) {
-        super((Class) expr.getType(), expr);
+    // int values can't overflow the long sum within Integer.MAX_VALUE rows
+    private class IntAvg implements CombinableGroupCollector<T, T> {
+
+        private int count = 0;
+
+        private long sum;
+
+        @Override
+        public void add(T t) {
+            count++;
+            if (t != null) {
+                sum += t.intValue();
+            }
+        }
+
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            IntAvg avg = (IntAvg) other;
+            count += avg.count;
+            sum += avg.sum;
+        }
+
+        @Override
+        public T get() {
+            return MathUtils.cast(sum / count, getType());
+        }
+
     }
 
-    @Override
-    public GroupCollector<T, T> createGroupCollector() {
-        return new GroupCollector<T, T>() {
-            private int count = 0;
-            private BigDecimal sum = BigDecimal.ZERO;
-
-            @Override
-            public void add(T t) {
-                count++;
-                if (t != null) {
-                    sum = sum.add(new BigDecimal(t.toString()));
-                }
+    private class LongAvg implements CombinableGroupCollector<T, T> {
+
+        private int count = 0;
+
+        private long sum;
+
+        private BigDecimal overflow;
+
+        @Override
+        public void add(T t) {
+            count++;
+            if (t != null) {
+                add(t.longValue());
+            }
+        }
+
+        private void add(long value) {
+            long result = sum + value;
+            if (((sum ^ result) & (value ^ result)) < 0) {
+                overflow = overflow != null
+                        ? overflow.add(BigDecimal.valueOf(sum)) : BigDecimal.valueOf(sum);
+                result = value;
+            }
+            sum = result;
+        }
+
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            LongAvg avg = (LongAvg) other;
+            count += avg.count;
+            add(avg.sum);
+            if (avg.overflow != null) {
+                overflow = overflow != null ? overflow.add(avg.overflow) : avg.overflow;
+            }
+        }
+
+        @Override
+        public T get() {
+            if (overflow == null) {
+                return MathUtils.cast(sum / count, getType());
+            } else {
+                BigDecimal total = overflow.add(BigDecimal.valueOf(sum));
+                return MathUtils.cast(total.divide(BigDecimal.valueOf(count), 0, RoundingMode.DOWN), getType());
+            }
+        }
+
+    }
+
+    private class DoubleAvg implements CombinableGroupCollector<T, T> {
+
+        private int count = 0;
+
+        private double sum;
+
+        @Override
+        public void add(T t) {
+            count++;
+            if (t != null) {
+                sum += t.doubleValue();
             }
+        }
+
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            DoubleAvg avg = (DoubleAvg) other;
+            count += avg.count;
+            sum += avg.sum;
+        }
+
+        @Override
+        public T get() {
+            return MathUtils.cast(sum / count, getType());
+        }
+
+    }
+
+    private class DecimalAvg implements CombinableGroupCollector<T, T> {
+
+        private int count = 0;
+
+        private BigDecimal sum = BigDecimal.ZERO;
 
-            @Override
-            public T get() {
-                BigDecimal avg = sum.divide(BigDecimal.valueOf(count));
-                return MathUtils.cast(avg, getType());
+        @Override
+        public void add(T t) {
+            count++;
+            if (t != null) {
+                sum = sum.add(NumberKind.toBigDecimal(t));
             }
+        }
 
-        };
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            DecimalAvg avg = (DecimalAvg) other;
+            count += avg.count;
+            sum = sum.add(avg.sum);
+        }
+
+        @Override
+        public T get() {
+            BigDecimal avg = sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL128);
+            return MathUtils.cast(avg, getType());
+        }
+
+    }
+
+    private final NumberKind kind;
+
+    public GAvg(Expression<T> expr) {
+        super((Class) expr.getType(), expr);
+        this.kind = NumberKind.of(expr.getType());
+    }
+
+    @Override
+    public GroupCollector<T, T> createGroupCollector() {
+        switch (kind) {
+        case INT:
+            return new IntAvg();
+        case LONG:
+            return new LongAvg();
+        case DOUBLE:
+            return new DoubleAvg();
+        default:
+            return new DecimalAvg();
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -28,7 +28,7 @@ class GList<T> extends AbstractGroupExpression<T, List<T>> {
 
     @Override
     public GroupCollector<T, List<T>> createGroupCollector() {
-        return new GroupCollector<T, List<T>>() {
+        return new CombinableGroupCollector<T, List<T>>() {
 
             private final List<T> list = new ArrayList<T>();
 
@@ -39,6 +39,11 @@ class GList<T> extends AbstractGroupExpression<T, List<T>> {
                 }
             }
 
+            @Override
+            public void combine(GroupCollector<T, List<T>> other) {
+                list.addAll(other.get());
+            }
+
             @Override
             public List<T> get() {
                 return list;
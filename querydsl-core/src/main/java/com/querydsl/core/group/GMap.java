@@ -56,7 +56,7 @@ abstract class GMap<K, V, M extends Map<K,V>> extends AbstractGroupExpression<Pa
 
     @Override
     public GroupCollector<Pair<K,V>, M> createGroupCollector() {
-        return new GroupCollector<Pair<K,V>, M>() {
+        return new CombinableGroupCollector<Pair<K,V>, M>() {
 
             private final M map = createMap();
 
@@ -65,6 +65,11 @@ abstract class GMap<K, V, M extends Map<K,V>> extends AbstractGroupExpression<Pa
                 map.put(pair.getFirst(), pair.getSecond());
             }
 
+            @Override
+            public void combine(GroupCollector<Pair<K,V>, M> other) {
+                map.putAll(other.get());
+            }
+
             @Override
             public M get() {
                 return map;
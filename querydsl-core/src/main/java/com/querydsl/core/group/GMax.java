@@ -26,17 +26,20 @@ class GMax<T extends Comparable<? super T>> extends AbstractGroupExpression<T, T
 
     @Override
     public GroupCollector<T,T> createGroupCollector() {
-        return new GroupCollector<T,T>() {
+        return new CombinableGroupCollector<T,T>() {
             private T max;
 
             @Override
             public void add(T o) {
-                if (max != null) {
-                    max = o.compareTo(max) > 0 ? o : max;
-                } else {
+                if (o != null && (max == null || o.compareTo(max) > 0)) {
                     max = o;
                 }
             }
+            @Override
+            public void combine(GroupCollector<T,T> other) {
+                add(other.get());
+            }
+
             @Override
             public T get() {
                 return max;
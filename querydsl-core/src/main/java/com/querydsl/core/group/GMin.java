@@ -26,17 +26,20 @@ class GMin<T extends Comparable<? super T>> extends AbstractGroupExpression<T, T
 
     @Override
     public GroupCollector<T,T> createGroupCollector() {
-        return new GroupCollector<T,T>() {
+        return new CombinableGroupCollector<T,T>() {
             private T min;
 
             @Override
             public void add(T o) {
-                if (min != null) {
-                    min = o.compareTo(min) < 0 ? o : min;
-                } else {
+                if (o != null && (min == null || o.compareTo(min) < 0)) {
                     min = o;
                 }
             }
+            @Override
+            public void combine(GroupCollector<T,T> other) {
+                add(other.get());
+            }
+
             @Override
             public T get() {
                 return min;
@@ -26,7 +26,7 @@ class GOne<T> extends AbstractGroupExpression<T, T> {
 
     @Override
     public GroupCollector<T,T> createGroupCollector() {
-        return new GroupCollector<T,T>() {
+        return new CombinableGroupCollector<T,T>() {
             private boolean first = true;
 
             private T val;
@@ -39,6 +39,11 @@ class GOne<T> extends AbstractGroupExpression<T, T> {
                 }
             }
 
+            @Override
+            public void combine(GroupCollector<T,T> other) {
+                add(other.get());
+            }
+
             @Override
             public T get() {
                 return val;
@@ -56,7 +56,7 @@ abstract class GSet<T, S extends Set<T>> extends AbstractGroupExpression<T, S> {
 
     @Override
     public GroupCollector<T, S> createGroupCollector() {
-        return new GroupCollector<T, S>() {
+        return new CombinableGroupCollector<T, S>() {
 
             private final S set = createSet();
 
@@ -67,6 +67,11 @@ abstract class GSet<T, S extends Set<T>> extends AbstractGroupExpression<T, S> {
                 }
             }
 
+            @Override
+            public void combine(GroupCollector<T, S> other) {
+                set.addAll(other.get());
+            }
+
             @Override
             public S get() {
                 return set;
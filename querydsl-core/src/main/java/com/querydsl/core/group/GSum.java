@@ -22,29 +22,95 @@ class GSum<T extends Number> extends AbstractGroupExpression<T, T> {
 
     private static final long serialVersionUID = 3518868612387641383L;
 
+    // overflows wrap around like the narrowing of the BigDecimal sum did
+    private class LongSum implements CombinableGroupCollector<T, T> {
+
+        private long sum;
+
+        @Override
+        public void add(T t) {
+            if (t != null) {
+                sum += t.longValue();
+            }
+        }
+
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            sum += ((LongSum) other).sum;
+        }
+
+        @Override
+        public T get() {
+            return MathUtils.cast(sum, getType());
+        }
+
+    }
+
+    private class DoubleSum implements CombinableGroupCollector<T, T> {
+
+        private double sum;
+
+        @Override
+        public void add(T t) {
+            if (t != null) {
+                sum += t.doubleValue();
+            }
+        }
+
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            sum += ((DoubleSum) other).sum;
+        }
+
+        @Override
+        public T get() {
+            return MathUtils.cast(sum, getType());
+        }
+
+    }
+
+    private class DecimalSum implements CombinableGroupCollector<T, T> {
+
+        private BigDecimal sum = BigDecimal.ZERO;
+
+        @Override
+        public void add(T t) {
+            if (t != null) {
+                sum = sum.add(NumberKind.toBigDecimal(t));
+            }
+        }
+
+        @Override
+        public void combine(GroupCollector<T, T> other) {
+            sum = sum.add(((DecimalSum) other).sum);
+        }
+
+        @Override
+        public T get() {
+            return MathUtils.cast(sum, getType());
+        }
+
+    }
+
+    private final NumberKind kind;
+
     @SuppressWarnings("unchecked")
     public GSum(Expression<T> expr) {
         super((Class) expr.getType(), expr);
+        this.kind = NumberKind.of(expr.getType());
     }
 
     @Override
     public GroupCollector<T, T> createGroupCollector() {
-        return new GroupCollector<T, T>() {
-            private BigDecimal sum = BigDecimal.ZERO;
-
-            @Override
-            public void add(T t) {
-                if (t != null) {
-                    sum = sum.add(new BigDecimal(t.toString()));
-                }
-            }
-
-            @Override
-            public T get() {
-                return MathUtils.cast(sum, getType());
-            }
-
-        };
+        switch (kind) {
+        case INT:
+        case LONG:
+            return new LongSum();
+        case DOUBLE:
+            return new DoubleSum();
+        default:
+            return new DecimalSum();
+        }
     }
 
-}
\ No newline at end of file
+}
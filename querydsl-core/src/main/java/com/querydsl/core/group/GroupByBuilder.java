@@ -52,6 +52,18 @@ public class GroupByBuilder<K> {
      * @return new result transformer
      */
     public ResultTransformer<Map<K, Group>> as(Expression<?>... expressions) {
+        return asMap(expressions);
+    }
+
+    /**
+     * Get the results as a map, the returned transformer can also aggregate several queries
+     * in parallel
+     *
+     * @param expressions projection
+     * @return new result transformer
+     * @see GroupByMap#transform(List, java.util.concurrent.Executor)
+     */
+    public GroupByMap<K, Group> asMap(Expression<?>... expressions) {
         return new GroupByMap<K, Group>(key, expressions);
     }
 
@@ -75,14 +87,38 @@ public class GroupByBuilder<K> {
         return new GroupByList<K, Group>(key, expressions);
     }
 
+    /**
+     * Get the results of unsorted rows as a closeable iterator
+     *
+     * @param maxGroups maximum number of groups to aggregate in memory
+     * @param expressions projection
+     * @return new result transformer
+     * @see GroupByHash
+     */
+    public ResultTransformer<CloseableIterator<Group>> iterateUnsorted(int maxGroups, Expression<?>... expressions) {
+        return new GroupByHash<K, Group>(maxGroups, key, expressions);
+    }
+
     /**
      * Get the results as a map
      *
      * @param expression projection
      * @return new result transformer
      */
-    @SuppressWarnings("unchecked")
     public <V> ResultTransformer<Map<K, V>> as(Expression<V> expression) {
+        return asMap(expression);
+    }
+
+    /**
+     * Get the results as a map, the returned transformer can also aggregate several queries
+     * in parallel
+     *
+     * @param expression projection
+     * @return new result transformer
+     * @see GroupByMap#transform(List, java.util.concurrent.Executor)
+     */
+    @SuppressWarnings("unchecked")
+    public <V> GroupByMap<K, V> asMap(Expression<V> expression) {
         final Expression<V> lookup = getLookup(expression);
         return new GroupByMap<K, V>(key, expression) {
             @Override
@@ -128,6 +164,24 @@ public class GroupByBuilder<K> {
         };
     }
 
+    /**
+     * Get the results of unsorted rows as a closeable iterator
+     *
+     * @param maxGroups maximum number of groups to aggregate in memory
+     * @param expression projection
+     * @return new result transformer
+     * @see GroupByHash
+     */
+    public <V> ResultTransformer<CloseableIterator<V>> iterateUnsorted(int maxGroups, Expression<V> expression) {
+        final Expression<V> lookup = getLookup(expression);
+        return new GroupByHash<K, V>(maxGroups, key, expression) {
+            @Override
+            protected V transform(Group group) {
+                return group.getOne(lookup);
+            }
+        };
+    }
+
     private <V> Expression<V> getLookup(Expression<V> expression) {
         if (expression instanceof GroupExpression) {
             @SuppressWarnings("unchecked") // This is the underlying type
@@ -145,6 +199,18 @@ public class GroupByBuilder<K> {
      * @return new result transformer
      */
     public <V> ResultTransformer<Map<K, V>> as(FactoryExpression<V> expression) {
+        return asMap(expression);
+    }
+
+    /**
+     * Get the results as a map, the returned transformer can also aggregate several queries
+     * in parallel
+     *
+     * @param expression projection
+     * @return new result transformer
+     * @see GroupByMap#transform(List, java.util.concurrent.Executor)
+     */
+    public <V> GroupByMap<K, V> asMap(FactoryExpression<V> expression) {
         final FactoryExpression<?> transformation = FactoryExpressionUtils.wrap(expression);
         List<Expression<?>> args = transformation.getArgs();
         return new GroupByMap<K, V>(key, args.toArray(new Expression<?>[args.size()])) {
@@ -215,5 +281,28 @@ public class GroupByBuilder<K> {
         };
     }
 
+    /**
+     * Get the results of unsorted rows as a closeable iterator
+     *
+     * @param maxGroups maximum number of groups to aggregate in memory
+     * @param expression projection
+     * @return new result transformer
+     * @see GroupByHash
+     */
+    public <V> ResultTransformer<CloseableIterator<V>> iterateUnsorted(int maxGroups, FactoryExpression<V> expression) {
+        final FactoryExpression<V> transformation = FactoryExpressionUtils.wrap(expression);
+        List<Expression<?>> args = transformation.getArgs();
+        return new GroupByHash<K, V>(maxGroups, key, args.toArray(new Expression<?>[args.size()])) {
+            @Override
+            protected V transform(Group group) {
+                List<Object> args = new ArrayList<Object>(groupExpressions.size() - 1);
+                for (int i = 1; i < groupExpressions.size(); i++) {
+                    args.add(group.getGroup(groupExpressions.get(i)));
+                }
+                return transformation.newInstance(args.toArray());
+            }
+        };
+    }
+
 
 }
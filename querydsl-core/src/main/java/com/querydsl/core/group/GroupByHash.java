@@ -0,0 +1,480 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.google.common.primitives.Ints;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.FactoryExpressionUtils;
+import com.querydsl.core.types.Projections;
+
+/**
+ * Provides aggregated results of unsorted rows as an iterator
+ *
+ * <p>Unlike {@link GroupByIterate} and {@link GroupByList} the rows don't need to be ordered by
+ * the group key. The rows are grouped by hashing the key. At most {@code maxGroups} groups are
+ * aggregated in memory, the rows of further groups are spilled in runs of a fixed number of rows,
+ * sorted by the hash code of the key, to temporary files, which are merged after the groups in
+ * memory have been returned. If there are more runs than can be merged at once, they are merged
+ * into fewer, larger runs first, so that the number of open files stays bounded. The files are
+ * written to a temporary directory of their own, which is deleted when the iterator is closed or
+ * exhausted.</p>
+ *
+ * <p>The whole query result is read before the first group is returned. The groups in memory
+ * are returned in the order of their first row, the spilled groups in the order of the hash codes
+ * of their keys. Spilled rows are serialized, so the projected values need to be serializable and
+ * the keys need to have value based {@code equals} and {@code hashCode} methods.</p>
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class GroupByHash<K, V> extends AbstractGroupByTransformer<K, CloseableIterator<V>> {
+
+    private static final int RESET_INTERVAL = 1000;
+
+    private static final int RUN_SIZE = 10000;
+
+    private static final int MAX_FAN_IN = 64;
+
+    private static final Comparator<Object[]> ROW_ORDER = new Comparator<Object[]>() {
+        @Override
+        public int compare(Object[] o1, Object[] o2) {
+            return Ints.compare(hash(o1[0]), hash(o2[0]));
+        }
+    };
+
+    private static final Comparator<Run> RUN_ORDER = new Comparator<Run>() {
+        @Override
+        public int compare(Run o1, Run o2) {
+            int rv = Ints.compare(o1.hash, o2.hash);
+            return rv != 0 ? rv : Ints.compare(o1.index, o2.index);
+        }
+    };
+
+    private final int maxGroups;
+
+    private final int runSize;
+
+    private final int maxFanIn;
+
+    @Nullable
+    private final File directory;
+
+    GroupByHash(int maxGroups, Expression<K> key, Expression<?>... expressions) {
+        this(maxGroups, RUN_SIZE, MAX_FAN_IN, null, key, expressions);
+    }
+
+    /**
+     * Create a new GroupByHash instance
+     *
+     * @param maxGroups maximum number of groups to aggregate in memory
+     * @param runSize number of rows per spilled run
+     * @param maxFanIn maximum number of runs to merge at once
+     * @param directory parent directory of the spill directories, or null for the default
+     *                  temporary-file directory
+     * @param key group key
+     * @param expressions projection
+     */
+    GroupByHash(int maxGroups, int runSize, int maxFanIn, @Nullable File directory, Expression<K> key,
+            Expression<?>... expressions) {
+        super(key, expressions);
+        if (maxGroups < 1) {
+            throw new IllegalArgumentException("maxGroups needs to be positive, was " + maxGroups);
+        } else if (runSize < 1) {
+            throw new IllegalArgumentException("runSize needs to be positive, was " + runSize);
+        } else if (maxFanIn < 2) {
+            throw new IllegalArgumentException("maxFanIn needs to be at least 2, was " + maxFanIn);
+        }
+        this.maxGroups = maxGroups;
+        this.runSize = runSize;
+        this.maxFanIn = maxFanIn;
+        this.directory = directory;
+    }
+
+    @Override
+    public CloseableIterator<V> transform(FetchableQuery<?,?> query) {
+        // create groups
+        FactoryExpression<Tuple> expr = FactoryExpressionUtils.wrap(Projections.tuple(expressions));
+        boolean hasGroups = false;
+        for (Expression<?> e : expr.getArgs()) {
+            hasGroups |= e instanceof GroupExpression;
+        }
+        if (hasGroups) {
+            expr = withoutGroupExpressions(expr);
+        }
+
+        Map<Object, GroupImpl> groups = new LinkedHashMap<Object, GroupImpl>();
+        List<Object[]> spilled = new ArrayList<Object[]>();
+        List<FileRun> runs = new ArrayList<FileRun>();
+        File spillDirectory = null;
+        boolean success = false;
+        CloseableIterator<Tuple> iter = select(query, expr).iterate();
+        try {
+            while (iter.hasNext()) {
+                Tuple row = iter.next();
+                Object groupId = row.get(0, Object.class);
+                GroupImpl group = groups.get(groupId);
+                if (group == null && groups.size() < maxGroups) {
+                    group = new GroupImpl(groupExpressions, maps);
+                    groups.put(groupId, group);
+                }
+                if (group != null) {
+                    group.add(row);
+                } else {
+                    // the groups in memory are fixed once the limit is reached
+                    spilled.add(row.toArray());
+                    if (spilled.size() == runSize) {
+                        if (spillDirectory == null) {
+                            spillDirectory = createDirectory(directory);
+                        }
+                        Collections.sort(spilled, ROW_ORDER);
+                        runs.add(write(spillDirectory, new BufferRun(spilled, 0), spilled.size(), runs.size()));
+                        spilled.clear();
+                    }
+                }
+            }
+            if (runs.size() > maxFanIn) {
+                runs = merge(spillDirectory, runs);
+            }
+            List<Run> allRuns = new ArrayList<Run>(runs);
+            if (!spilled.isEmpty()) {
+                Collections.sort(spilled, ROW_ORDER);
+                allRuns.add(new BufferRun(spilled, allRuns.size()));
+            }
+            HashIterator rv = new HashIterator(groups.values().iterator(), allRuns, spillDirectory);
+            success = true;
+            return rv;
+        } finally {
+            iter.close();
+            if (!success) {
+                delete(runs, spillDirectory);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected V transform(Group group) {
+        return (V) group;
+    }
+
+    private static int hash(Object key) {
+        return key != null ? key.hashCode() : 0;
+    }
+
+    private static File createDirectory(@Nullable File parent) {
+        try {
+            File dir = File.createTempFile("querydsl-groupby", "", parent);
+            if (!dir.delete() || !dir.mkdir()) {
+                throw new IOException("Failed to create directory " + dir);
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new QueryException("Spilling of groups failed", e);
+        }
+    }
+
+    private static void delete(List<? extends Run> runs, @Nullable File spillDirectory) {
+        for (Run run : runs) {
+            run.close();
+        }
+        if (spillDirectory != null) {
+            spillDirectory.delete();
+        }
+    }
+
+    /**
+     * Merge the given runs in passes of at most {@code maxFanIn} consecutive runs until there are
+     * at most {@code maxFanIn} runs left
+     */
+    private List<FileRun> merge(File dir, List<FileRun> runs) {
+        while (runs.size() > maxFanIn) {
+            List<FileRun> merged = new ArrayList<FileRun>();
+            try {
+                for (int i = 0; i < runs.size(); i += maxFanIn) {
+                    List<FileRun> sources = runs.subList(i, Math.min(i + maxFanIn, runs.size()));
+                    int size = 0;
+                    for (FileRun run : sources) {
+                        size += run.size;
+                    }
+                    merged.add(write(dir, new MergedRun(sources), size, merged.size()));
+                    delete(sources, null);
+                }
+            } catch (RuntimeException e) {
+                delete(merged, null);
+                delete(runs, null);
+                throw e;
+            }
+            runs = merged;
+        }
+        return runs;
+    }
+
+    private static FileRun write(File dir, Run source, int size, int index) {
+        File file = null;
+        try {
+            file = File.createTempFile("run", ".tmp", dir);
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            try {
+                out.writeInt(size);
+                for (int i = 0; source.advance(); i++) {
+                    out.writeInt(source.hash);
+                    out.writeObject(source.row);
+                    if (i % RESET_INTERVAL == RESET_INTERVAL - 1) {
+                        out.reset();
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            return new FileRun(file, size, index);
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
+            }
+            throw new QueryException("Spilling of groups failed", e);
+        }
+    }
+
+    /**
+     * Sorted run of spilled rows
+     */
+    private abstract static class Run {
+
+        final int index;
+
+        int hash;
+
+        Object[] row;
+
+        Run(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Read the next row
+         *
+         * @return false, if the run is exhausted
+         */
+        abstract boolean advance();
+
+        void close() { }
+
+    }
+
+    private static final class BufferRun extends Run {
+
+        private final Iterator<Object[]> rows;
+
+        BufferRun(List<Object[]> rows, int index) {
+            super(index);
+            this.rows = rows.iterator();
+        }
+
+        @Override
+        boolean advance() {
+            if (rows.hasNext()) {
+                row = rows.next();
+                hash = hash(row[0]);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+    }
+
+    private static final class FileRun extends Run {
+
+        private final File file;
+
+        private final int size;
+
+        private ObjectInputStream in;
+
+        private int remaining;
+
+        FileRun(File file, int size, int index) {
+            super(index);
+            this.file = file;
+            this.size = size;
+        }
+
+        @Override
+        boolean advance() {
+            try {
+                if (in == null) {
+                    in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+                    remaining = in.readInt();
+                }
+                if (remaining > 0) {
+                    remaining--;
+                    hash = in.readInt();
+                    row = (Object[]) in.readObject();
+                    return true;
+                } else {
+                    close();
+                    return false;
+                }
+            } catch (IOException e) {
+                close();
+                throw new QueryException("Reading of spilled groups failed", e);
+            } catch (ClassNotFoundException e) {
+                close();
+                throw new QueryException("Reading of spilled groups failed", e);
+            }
+        }
+
+        @Override
+        void close() {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            file.delete();
+        }
+
+    }
+
+    /**
+     * Merge of sorted runs, rows of the same hash code are read in the order of the runs
+     */
+    private static final class MergedRun extends Run {
+
+        private final PriorityQueue<Run> queue;
+
+        MergedRun(List<? extends Run> runs) {
+            super(0);
+            this.queue = new PriorityQueue<Run>(Math.max(runs.size(), 1), RUN_ORDER);
+            for (Run run : runs) {
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+        }
+
+        @Override
+        boolean advance() {
+            Run run = queue.poll();
+            if (run != null) {
+                hash = run.hash;
+                row = run.row;
+                if (run.advance()) {
+                    queue.add(run);
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+    }
+
+    private final class HashIterator implements CloseableIterator<V> {
+
+        private final Iterator<GroupImpl> groups;
+
+        private final List<Run> runs;
+
+        @Nullable
+        private final File spillDirectory;
+
+        private final PriorityQueue<Run> queue;
+
+        private Iterator<GroupImpl> bucket = Collections.<GroupImpl>emptyList().iterator();
+
+        HashIterator(Iterator<GroupImpl> groups, List<Run> runs, @Nullable File spillDirectory) {
+            this.groups = groups;
+            this.runs = runs;
+            this.spillDirectory = spillDirectory;
+            this.queue = new PriorityQueue<Run>(Math.max(runs.size(), 1), RUN_ORDER);
+            for (Run run : runs) {
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (groups.hasNext() || bucket.hasNext()) {
+                return true;
+            } else if (!queue.isEmpty()) {
+                bucket = nextBucket();
+                return true;
+            } else {
+                close();
+                return false;
+            }
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return transform(groups.hasNext() ? groups.next() : bucket.next());
+        }
+
+        /**
+         * Aggregate the spilled rows of the next hash code, the runs are drained in the order
+         * they have been written to retain the order of the rows within the groups
+         */
+        private Iterator<GroupImpl> nextBucket() {
+            Map<Object, GroupImpl> bucket = new LinkedHashMap<Object, GroupImpl>();
+            int hash = queue.peek().hash;
+            while (!queue.isEmpty() && queue.peek().hash == hash) {
+                Run run = queue.poll();
+                boolean more;
+                do {
+                    GroupImpl group = bucket.get(run.row[0]);
+                    if (group == null) {
+                        group = new GroupImpl(groupExpressions, maps);
+                        bucket.put(run.row[0], group);
+                    }
+                    group.add(run.row);
+                    more = run.advance();
+                } while (more && run.hash == hash);
+                if (more) {
+                    queue.add(run);
+                }
+            }
+            return bucket.values().iterator();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            queue.clear();
+            delete(runs, spillDirectory);
+        }
+
+    }
+
+}
@@ -49,7 +49,7 @@ public class GroupByIterate<K, V> extends AbstractGroupByTransformer<K, Closeabl
         if (hasGroups) {
             expr = withoutGroupExpressions(expr);
         }
-        final CloseableIterator<Tuple> iter = query.select(expr).iterate();
+        final CloseableIterator<Tuple> iter = select(query, expr).iterate();
 
         return new CloseableIterator<V>() {
 
@@ -75,18 +75,19 @@ public class GroupByIterate<K, V> extends AbstractGroupByTransformer<K, Closeabl
                 }
 
                 while (iter.hasNext()) {
+                    Tuple row = iter.next();
                     @SuppressWarnings("unchecked") //This type is mandated by the key type
-                    K[] row = (K[]) iter.next().toArray();
+                    K key = (K) row.get(0, Object.class);
                     if (group == null) {
                         group = new GroupImpl(groupExpressions, maps);
-                        groupId = row[0];
+                        groupId = key;
                         group.add(row);
-                    } else if (Objects.equal(groupId, row[0])) {
+                    } else if (Objects.equal(groupId, key)) {
                         group.add(row);
                     } else {
                         Group current = group;
                         group = new GroupImpl(groupExpressions, maps);
-                        groupId = row[0];
+                        groupId = key;
                         group.add(row);
                         return transform(current);
                     }
@@ -50,21 +50,22 @@ public class GroupByList<K, V> extends AbstractGroupByTransformer<K, List<V>> {
         if (hasGroups) {
             expr = withoutGroupExpressions(expr);
         }
-        final CloseableIterator<Tuple> iter = query.select(expr).iterate();
+        final CloseableIterator<Tuple> iter = select(query, expr).iterate();
 
         List<V> list = Lists.newArrayList();
         GroupImpl group = null;
         K groupId = null;
         while (iter.hasNext()) {
+            Tuple row = iter.next();
             @SuppressWarnings("unchecked") //This type is mandated by the key type
-            K[] row = (K[]) iter.next().toArray();
+            K key = (K) row.get(0, Object.class);
             if (group == null) {
                 group = new GroupImpl(groupExpressions, maps);
-                groupId = row[0];
-            } else if (!Objects.equal(groupId, row[0])) {
+                groupId = key;
+            } else if (!Objects.equal(groupId, key)) {
                 list.add(transform(group));
                 group = new GroupImpl(groupExpressions, maps);
-                groupId = row[0];
+                groupId = key;
             }
             group.add(row);
         }
@@ -13,11 +13,15 @@
  */
 package com.querydsl.core.group;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
 
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.QueryException;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.FactoryExpression;
@@ -41,7 +45,79 @@ public class GroupByMap<K,V> extends AbstractGroupByTransformer<K, Map<K,V>> {
     @Override
     public Map<K, V> transform(FetchableQuery<?,?> query) {
         Map<K, Group> groups = new LinkedHashMap<K, Group>();
+        aggregate(query, groups);
 
+        // transform groups
+        return transform(groups);
+    }
+
+    /**
+     * Aggregate the results of the given queries in parallel
+     *
+     * <p>The results of each query are aggregated into partial groups by a task of the given
+     * executor. The partial groups are combined in the order of the queries, so the result
+     * is the same as for the concatenated results of the queries. If a group expression doesn't
+     * provide a {@link CombinableGroupCollector}, the queries are aggregated one after the other.</p>
+     *
+     * @param queries queries for the partitions of the results
+     * @param executor executor for the aggregation of the partitions
+     * @return aggregated results
+     */
+    public Map<K, V> transform(List<? extends FetchableQuery<?,?>> queries, Executor executor) {
+        Map<K, Group> groups = new LinkedHashMap<K, Group>();
+        if (!new GroupImpl(groupExpressions, maps).isCombinable()) {
+            for (FetchableQuery<?,?> query : queries) {
+                aggregate(query, groups);
+            }
+            return transform(groups);
+        }
+
+        List<FutureTask<Map<K, Group>>> tasks = new ArrayList<FutureTask<Map<K, Group>>>(queries.size());
+        try {
+            for (final FetchableQuery<?,?> query : queries) {
+                FutureTask<Map<K, Group>> task = new FutureTask<Map<K, Group>>(new Callable<Map<K, Group>>() {
+                    @Override
+                    public Map<K, Group> call() {
+                        Map<K, Group> partial = new LinkedHashMap<K, Group>();
+                        aggregate(query, partial);
+                        return partial;
+                    }
+                });
+                tasks.add(task);
+                executor.execute(task);
+            }
+            for (FutureTask<Map<K, Group>> task : tasks) {
+                for (Map.Entry<K, Group> entry : task.get().entrySet()) {
+                    GroupImpl group = (GroupImpl) groups.get(entry.getKey());
+                    if (group == null) {
+                        groups.put(entry.getKey(), entry.getValue());
+                    } else {
+                        group.combine((GroupImpl) entry.getValue());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            } else {
+                throw new QueryException(e.getCause());
+            }
+        } finally {
+            for (FutureTask<Map<K, Group>> task : tasks) {
+                task.cancel(true);
+            }
+        }
+
+        // transform groups
+        return transform(groups);
+    }
+
+    private void aggregate(FetchableQuery<?,?> query, Map<K, Group> groups) {
         // create groups
         FactoryExpression<Tuple> expr = FactoryExpressionUtils.wrap(Projections.tuple(expressions));
         boolean hasGroups = false;
@@ -51,12 +127,12 @@ public class GroupByMap<K,V> extends AbstractGroupByTransformer<K, Map<K,V>> {
         if (hasGroups) {
             expr = withoutGroupExpressions(expr);
         }
-        CloseableIterator<Tuple> iter = query.select(expr).iterate();
+        CloseableIterator<Tuple> iter = select(query, expr).iterate();
         try {
             while (iter.hasNext()) {
+                Tuple row = iter.next();
                 @SuppressWarnings("unchecked") //This type is mandated by the key type
-                K[] row = (K[]) iter.next().toArray();
-                K groupId = row[0];
+                K groupId = (K) row.get(0, Object.class);
                 GroupImpl group = (GroupImpl) groups.get(groupId);
                 if (group == null) {
                     group = new GroupImpl(groupExpressions, maps);
@@ -67,10 +143,6 @@ public class GroupByMap<K,V> extends AbstractGroupByTransformer<K, Map<K,V>> {
         } finally {
             iter.close();
         }
-
-        // transform groups
-        return transform(groups);
-
     }
 
     @SuppressWarnings("unchecked")
@@ -15,6 +15,8 @@ package com.querydsl.core.group;
 
 import java.util.*;
 
+import com.google.common.collect.Sets;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Ops;
@@ -56,10 +58,53 @@ class GroupImpl implements Group {
 
     @SuppressWarnings("unchecked")
     void add(Object[] row) {
-        int i = 0;
-        for (GroupCollector groupCollector : groupCollectors) {
-            groupCollector.add(row[i]);
-            i++;
+        for (int i = 0; i < groupCollectors.size(); i++) {
+            ((GroupCollector) groupCollectors.get(i)).add(row[i]);
+        }
+    }
+
+    /**
+     * Add the given row to the collectors, the values are read by index to avoid copying the row
+     *
+     * @param row row with the values of the group expressions
+     */
+    @SuppressWarnings("unchecked")
+    void add(Tuple row) {
+        for (int i = 0; i < groupCollectors.size(); i++) {
+            ((GroupCollector) groupCollectors.get(i)).add(row.get(i, Object.class));
+        }
+    }
+
+    /**
+     * Get whether the collectors of this group can be combined with the collectors of
+     * another group of the same group expressions
+     *
+     * @return true, if all collectors are combinable
+     */
+    boolean isCombinable() {
+        for (GroupCollector<?,?> collector : groupCollectors) {
+            if (!(collector instanceof CombinableGroupCollector)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Combine the given group, which collected the values of rows following the rows of
+     * this group, into this group
+     *
+     * @param other group of the same group expressions
+     */
+    @SuppressWarnings("unchecked")
+    void combine(GroupImpl other) {
+        // collectors are shared by group expressions of the same expression
+        Set<GroupCollector<?,?>> combined = Sets.newIdentityHashSet();
+        for (int i = 0; i < groupCollectors.size(); i++) {
+            GroupCollector<?,?> collector = groupCollectors.get(i);
+            if (combined.add(collector)) {
+                ((CombinableGroupCollector) collector).combine(other.groupCollectors.get(i));
+            }
         }
     }
 
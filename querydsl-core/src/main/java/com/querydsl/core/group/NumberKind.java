@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import java.math.BigDecimal;
+
+import com.google.common.primitives.Primitives;
+
+/**
+ * NumberKind selects the accumulator of the numeric group collectors from the type of the
+ * aggregated expression, so that values can be added without converting them to {@link BigDecimal}
+ */
+enum NumberKind {
+
+    /**
+     * {@code Integer}, {@code Short} and {@code Byte}, accumulated as long
+     */
+    INT,
+
+    /**
+     * {@code Long}, accumulated as long
+     */
+    LONG,
+
+    /**
+     * {@code Double} and {@code Float}, accumulated as double
+     */
+    DOUBLE,
+
+    /**
+     * {@code BigDecimal}, accumulated exactly
+     */
+    BIG_DECIMAL,
+
+    /**
+     * other types, accumulated via their string representation
+     */
+    OTHER;
+
+    static NumberKind of(Class<?> type) {
+        Class<?> wrapped = Primitives.wrap(type);
+        if (wrapped.equals(Integer.class) || wrapped.equals(Short.class) || wrapped.equals(Byte.class)) {
+            return INT;
+        } else if (wrapped.equals(Long.class)) {
+            return LONG;
+        } else if (wrapped.equals(Double.class) || wrapped.equals(Float.class)) {
+            return DOUBLE;
+        } else if (wrapped.equals(BigDecimal.class)) {
+            return BIG_DECIMAL;
+        } else {
+            return OTHER;
+        }
+    }
+
+    static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else {
+            return new BigDecimal(number.toString());
+        }
+    }
+
+}
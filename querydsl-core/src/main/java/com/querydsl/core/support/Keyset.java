@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.support;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.querydsl.core.types.*;
+
+/**
+ * {@code Keyset} provides the predicates for keyset (seek) pagination
+ *
+ * <p>Instead of skipping the rows of the previous pages via an offset, the next page is defined
+ * as the rows which come after the last row of the previous page in the order of the query.
+ * The predicate for the order {@code a asc, b desc} and the key {@code (x, y)} is</p>
+ *
+ * <pre>
+ * a &gt;= x and (a &gt; x or a = x and b &lt; y)
+ * </pre>
+ *
+ * <p>The order needs to be unique, e.g. by ending with the primary key, otherwise rows with
+ * equal keys are skipped. Order specifiers with the {@link OrderSpecifier.NullHandling#Default}
+ * null handling are expected to have non null values, use
+ * {@link OrderSpecifier#nullsFirst()} or {@link OrderSpecifier#nullsLast()} for nullable keys.</p>
+ */
+public final class Keyset {
+
+    /**
+     * Create a predicate for the rows after the given key in the given order
+     *
+     * @param order order of the query
+     * @param keyValues values of the order targets of the last row
+     * @return predicate
+     */
+    public static Predicate after(List<OrderSpecifier<?>> order, Object... keyValues) {
+        validate(order, keyValues);
+        Predicate rv = null;
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Predicate greater = greater(order.get(i), keyValues[i]);
+            Predicate rest = rv != null ? ExpressionUtils.and(equal(order.get(i), keyValues[i]), rv) : null;
+            if (greater == null) {
+                rv = rest;
+            } else if (rest == null) {
+                rv = greater;
+            } else {
+                rv = ExpressionUtils.or(greater, rest);
+            }
+        }
+        if (rv == null) {
+            // nothing comes after the key
+            return ExpressionUtils.predicate(Ops.EQ, ConstantImpl.create(1), ConstantImpl.create(2));
+        }
+        OrderSpecifier<?> first = order.get(0);
+        if (order.size() > 1 && keyValues[0] != null
+                && first.getNullHandling() != OrderSpecifier.NullHandling.NullsLast) {
+            // redundant range condition for the leading key, which enables index range scans
+            Operator op = first.isAscending() ? Ops.GOE : Ops.LOE;
+            rv = ExpressionUtils.and(
+                    ExpressionUtils.predicate(op, first.getTarget(), ConstantImpl.create(keyValues[0])), rv);
+        }
+        return rv;
+    }
+
+    /**
+     * Validate the given key against the given order
+     *
+     * @param order order of the query
+     * @param keyValues values of the order targets of the last row
+     * @throws IllegalArgumentException if the key doesn't match the order
+     */
+    public static void validate(List<OrderSpecifier<?>> order, Object... keyValues) {
+        if (order.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires an order");
+        } else if (order.size() != keyValues.length) {
+            throw new IllegalArgumentException("Expected " + order.size() + " key values, got "
+                    + keyValues.length);
+        }
+        for (int i = 0; i < keyValues.length; i++) {
+            if (keyValues[i] == null
+                    && order.get(i).getNullHandling() == OrderSpecifier.NullHandling.Default) {
+                throw new IllegalArgumentException("Null key value for " + order.get(i)
+                        + ", use nullsFirst() or nullsLast() for nullable keys");
+            }
+        }
+    }
+
+    @Nullable
+    private static Predicate greater(OrderSpecifier<?> order, @Nullable Object value) {
+        Expression<?> target = order.getTarget();
+        if (value == null) {
+            // null key value
+            if (order.getNullHandling() == OrderSpecifier.NullHandling.NullsFirst) {
+                return ExpressionUtils.predicate(Ops.IS_NOT_NULL, target);
+            } else {
+                return null;
+            }
+        }
+        Predicate rv = ExpressionUtils.predicate(order.isAscending() ? Ops.GT : Ops.LT,
+                target, ConstantImpl.create(value));
+        if (order.getNullHandling() == OrderSpecifier.NullHandling.NullsLast) {
+            rv = ExpressionUtils.or(rv, ExpressionUtils.predicate(Ops.IS_NULL, target));
+        }
+        return rv;
+    }
+
+    private static Predicate equal(OrderSpecifier<?> order, @Nullable Object value) {
+        Expression<?> target = order.getTarget();
+        if (value == null) {
+            return ExpressionUtils.predicate(Ops.IS_NULL, target);
+        } else {
+            return ExpressionUtils.predicate(Ops.EQ, target, ConstantImpl.create(value));
+        }
+    }
+
+    private Keyset() { }
+
+}
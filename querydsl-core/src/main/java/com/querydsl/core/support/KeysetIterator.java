@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.support;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
+
+/**
+ * {@code KeysetIterator} iterates over the results of a query page by page using keyset (seek)
+ * pagination
+ *
+ * <p>Each page is fetched with a separate query which selects the projection together with the
+ * order targets and continues after the key of the last row of the previous page, so the cost of
+ * a page doesn't depend on its position.</p>
+ *
+ * @param <T> result type
+ * @see Keyset
+ */
+public abstract class KeysetIterator<T> implements CloseableIterator<T> {
+
+    private final List<OrderSpecifier<?>> order;
+
+    private final Expression<T> projection;
+
+    private final Expression<Tuple> pageProjection;
+
+    private final int pageSize;
+
+    @Nullable
+    private Object[] keyValues;
+
+    private Iterator<Tuple> page;
+
+    private boolean lastPage;
+
+    /**
+     * Create a new iterator
+     *
+     * @param order order of the query, needs to be unique
+     * @param projection projection of the query
+     * @param pageSize amount of rows per page
+     */
+    public KeysetIterator(List<OrderSpecifier<?>> order, Expression<T> projection, int pageSize) {
+        if (order.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires an order");
+        } else if (projection == null) {
+            throw new IllegalArgumentException("Keyset pagination requires a projection");
+        } else if (pageSize < 1) {
+            throw new IllegalArgumentException("Illegal page size " + pageSize);
+        }
+        this.order = ImmutableList.copyOf(order);
+        this.projection = projection;
+        this.pageSize = pageSize;
+        ImmutableList.Builder<Expression<?>> exprs = ImmutableList.builder();
+        exprs.add(projection);
+        for (OrderSpecifier<?> os : order) {
+            exprs.add(os.getTarget());
+        }
+        this.pageProjection = Projections.tuple(exprs.build());
+    }
+
+    /**
+     * Fetch a page
+     *
+     * @param keyValues values of the order targets of the last row of the previous page or null
+     *                  for the first page
+     * @param projection projection of the page
+     * @param limit maximum amount of rows
+     * @return rows
+     */
+    protected abstract List<Tuple> fetch(@Nullable Object[] keyValues, Expression<Tuple> projection,
+            int limit);
+
+    @Override
+    public boolean hasNext() {
+        if ((page == null || !page.hasNext()) && !lastPage) {
+            List<Tuple> rows = fetch(keyValues, pageProjection, pageSize);
+            lastPage = rows.size() < pageSize;
+            page = rows.iterator();
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Tuple row = page.next();
+        Object[] key = new Object[order.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = row.get(i + 1, Object.class);
+        }
+        keyValues = key;
+        return row.get(projection);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        // pages are fetched eagerly
+    }
+
+}
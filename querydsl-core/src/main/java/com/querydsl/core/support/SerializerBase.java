@@ -122,7 +122,21 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
     }
 
     protected void handleTemplate(final Template template, final List<?> args) {
-        for (final Template.Element element : template.getElements()) {
+        final List<Template.Element> elements = template.getElements();
+        if (template.isPlain()) {
+            // static text and arguments are rendered without converting the elements
+            for (int i = 0; i < elements.size(); i++) {
+                final Template.Element element = elements.get(i);
+                if (element instanceof Template.StaticText) {
+                    builder.append(((Template.StaticText) element).getText());
+                } else {
+                    handleArgument(args.get(((Template.ByIndex) element).getIndex()));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            final Template.Element element = elements.get(i);
             final Object rv = element.convert(args);
             if (rv instanceof Expression) {
                 ((Expression<?>) rv).accept(this, null);
@@ -134,6 +148,14 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
         }
     }
 
+    private void handleArgument(final Object arg) {
+        if (arg instanceof Expression) {
+            ExpressionUtils.extract((Expression<?>) arg).accept(this, null);
+        } else {
+            visitConstant(arg);
+        }
+    }
+
     public final boolean serialize(final QueryFlag.Position position, final Set<QueryFlag> flags) {
         boolean handled = false;
         for (final QueryFlag flag : flags) {
@@ -186,7 +208,7 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
     }
 
     @Override
-    public final Void visit(Constant<?> expr, Void context) {
+    public Void visit(Constant<?> expr, Void context) {
         visitConstant(expr.getConstant());
         return null;
     }
@@ -252,7 +274,13 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
         if (template != null) {
             final int precedence = templates.getPrecedence(operator);
             boolean first = true;
-            for (final Template.Element element : template.getElements()) {
+            final List<Template.Element> elements = template.getElements();
+            for (int i = 0; i < elements.size(); i++) {
+                final Template.Element element = elements.get(i);
+                if (element instanceof Template.StaticText) {
+                    append(((Template.StaticText) element).getText());
+                    continue;
+                }
                 final Object rv = element.convert(args);
                 if (rv instanceof Expression) {
                     final Expression<?> expr = (Expression<?>) rv;
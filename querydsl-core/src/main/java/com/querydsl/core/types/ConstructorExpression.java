@@ -66,6 +66,8 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
 
     private final transient Constructor<?> constructor;
 
+    private final transient Invokers.ConstructorInvoker invoker;
+
     private final transient Iterable<Function<Object[], Object[]>> transformers;
 
     protected ConstructorExpression(Class<? extends T> type, Expression<?>... args) {
@@ -82,6 +84,7 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
             this.parameterTypes = getConstructorParameters(type, paramTypes).clone();
             this.args = args;
             this.constructor = getConstructor(getType(), parameterTypes);
+            this.invoker = Invokers.create(constructor);
             this.transformers = getTransformers(constructor);
         } catch (NoSuchMethodException e) {
             throw new IllegalArgumentException(e);
@@ -138,7 +141,7 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
             for (Function<Object[], Object[]> transformer : transformers) {
                 args = transformer.apply(args);
             }
-            return (T) constructor.newInstance(args);
+            return (T) invoker.newInstance(args);
         } catch (SecurityException e) {
             throw new ExpressionException(e.getMessage(), e);
         } catch (InstantiationException e) {
@@ -157,6 +160,9 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
             Field constructor = ConstructorExpression.class.getDeclaredField("constructor");
             constructor.setAccessible(true);
             constructor.set(this, getConstructor(getType(), parameterTypes));
+            Field invoker = ConstructorExpression.class.getDeclaredField("invoker");
+            invoker.setAccessible(true);
+            invoker.set(this, Invokers.create(this.constructor));
             Field transformers = ConstructorExpression.class.getDeclaredField("transformers");
             transformers.setAccessible(true);
             transformers.set(this, getTransformers(this.constructor));
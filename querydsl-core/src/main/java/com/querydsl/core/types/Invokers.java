@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.types;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastConstructor;
+import net.sf.cglib.reflect.FastMethod;
+
+/**
+ * {@code Invokers} provides invokers for bean setters and constructors
+ *
+ * <p>If cglib is available the invokers are backed by generated {@link FastClass} accessors,
+ * otherwise or when the code generation fails reflection is used. Code generation can be
+ * disabled via the system property {@code querydsl.fastInvocation=false}.</p>
+ */
+final class Invokers {
+
+    /**
+     * Invoker for a single argument method
+     */
+    interface MethodInvoker {
+
+        void invoke(Object obj, Object arg) throws IllegalAccessException, InvocationTargetException;
+
+    }
+
+    /**
+     * Invoker for a constructor
+     */
+    interface ConstructorInvoker {
+
+        Object newInstance(Object[] args) throws InstantiationException, IllegalAccessException,
+                InvocationTargetException;
+
+    }
+
+    private static final boolean FAST_INVOCATION = isFastInvocationAvailable();
+
+    private static boolean isFastInvocationAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty("querydsl.fastInvocation", "true"))) {
+            return false;
+        }
+        try {
+            Class.forName("net.sf.cglib.reflect.FastClass", false, Invokers.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean isPublic(Class<?> declaringClass, int modifiers) {
+        return Modifier.isPublic(declaringClass.getModifiers()) && Modifier.isPublic(modifiers);
+    }
+
+    static MethodInvoker create(final Method method) {
+        if (FAST_INVOCATION && isPublic(method.getDeclaringClass(), method.getModifiers())) {
+            try {
+                return Cglib.create(method);
+            } catch (RuntimeException e) {
+                // code generation not allowed, fall back to reflection
+            } catch (LinkageError e) {
+                // code generation not allowed, fall back to reflection
+            }
+        }
+        return new MethodInvoker() {
+            @Override
+            public void invoke(Object obj, Object arg) throws IllegalAccessException, InvocationTargetException {
+                method.invoke(obj, arg);
+            }
+        };
+    }
+
+    static ConstructorInvoker create(final Constructor<?> constructor) {
+        if (FAST_INVOCATION && isPublic(constructor.getDeclaringClass(), constructor.getModifiers())) {
+            try {
+                return Cglib.create(constructor);
+            } catch (RuntimeException e) {
+                // code generation not allowed, fall back to reflection
+            } catch (LinkageError e) {
+                // code generation not allowed, fall back to reflection
+            }
+        }
+        return new ConstructorInvoker() {
+            @Override
+            public Object newInstance(Object[] args) throws InstantiationException, IllegalAccessException,
+                    InvocationTargetException {
+                return constructor.newInstance(args);
+            }
+        };
+    }
+
+    /**
+     * cglib based invokers, only loaded if cglib is available
+     */
+    private static final class Cglib {
+
+        static MethodInvoker create(Method method) {
+            final FastMethod fastMethod = FastClass.create(method.getDeclaringClass()).getMethod(method);
+            return new MethodInvoker() {
+                @Override
+                public void invoke(Object obj, Object arg) throws InvocationTargetException {
+                    fastMethod.invoke(obj, new Object[]{arg});
+                }
+            };
+        }
+
+        static ConstructorInvoker create(Constructor<?> constructor) {
+            final FastConstructor fastConstructor = FastClass.create(constructor.getDeclaringClass())
+                    .getConstructor(constructor);
+            return new ConstructorInvoker() {
+                @Override
+                public Object newInstance(Object[] args) throws InvocationTargetException {
+                    return fastConstructor.newInstance(args);
+                }
+            };
+        }
+
+        private Cglib() { }
+
+    }
+
+    private Invokers() { }
+
+}
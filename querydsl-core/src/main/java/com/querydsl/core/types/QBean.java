@@ -96,6 +96,8 @@ public class QBean<T> extends FactoryExpressionBase<T> {
 
     private final List<Method> setters;
 
+    private final List<Invokers.MethodInvoker> invokers;
+
     private final boolean fieldAccess;
 
     /**
@@ -143,9 +145,11 @@ public class QBean<T> extends FactoryExpressionBase<T> {
         if (fieldAccess) {
             this.fields = initFields(bindings);
             this.setters = ImmutableList.of();
+            this.invokers = ImmutableList.of();
         } else {
             this.fields = ImmutableList.of();
             this.setters = initMethods(bindings);
+            this.invokers = initInvokers(setters);
         }
     }
 
@@ -207,6 +211,14 @@ public class QBean<T> extends FactoryExpressionBase<T> {
         }
     }
 
+    private static List<Invokers.MethodInvoker> initInvokers(List<Method> setters) {
+        List<Invokers.MethodInvoker> invokers = new ArrayList<Invokers.MethodInvoker>(setters.size());
+        for (Method setter : setters) {
+            invokers.add(setter != null ? Invokers.create(setter) : null);
+        }
+        return invokers;
+    }
+
     protected void propertyNotFound(Expression<?> expr, String property) {
         // do nothing
     }
@@ -234,7 +246,7 @@ public class QBean<T> extends FactoryExpressionBase<T> {
                 for (int i = 0; i < a.length; i++) {
                     Object value = a[i];
                     if (value != null) {
-                        Method setter = setters.get(i);
+                        Invokers.MethodInvoker setter = invokers.get(i);
                         if (setter != null) {
                             setter.invoke(rv, value);
                         }
@@ -349,15 +349,32 @@ public final class Template implements Serializable {
 
     private final String template;
 
+    private final boolean plain;
+
     Template(String template, ImmutableList<Element> elements) {
         this.template = template;
         this.elements = elements;
+        boolean plain = true;
+        for (Element element : elements) {
+            plain &= element instanceof StaticText || element instanceof ByIndex;
+        }
+        this.plain = plain;
     }
 
     public List<Element> getElements() {
         return elements;
     }
 
+    /**
+     * Get whether this template consists only of {@link StaticText} and {@link ByIndex} elements,
+     * which can be rendered without converting the elements
+     *
+     * @return true, if this template is plain
+     */
+    public boolean isPlain() {
+        return plain;
+    }
+
     @Override
     public String toString() {
         return template;
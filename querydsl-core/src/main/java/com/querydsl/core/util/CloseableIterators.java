@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.util;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterators;
+import com.mysema.commons.lang.CloseableIterator;
+
+/**
+ * CloseableIterators provides lazy operations on the results of {@code Fetchable#iterate()}
+ *
+ * <p>The returned iterators read the given iterator on demand and close it when they are
+ * closed, so the results don't need to be materialized as a list to be transformed, filtered
+ * or processed in batches.</p>
+ */
+public final class CloseableIterators {
+
+    /**
+     * Create an iterator which applies the given function to the elements of the given iterator
+     *
+     * @param iterator iterator
+     * @param function function
+     * @return transformed iterator
+     */
+    public static <F, T> CloseableIterator<T> transform(CloseableIterator<F> iterator,
+            Function<? super F, ? extends T> function) {
+        return new Adapter<T>(Iterators.transform(iterator, function), iterator);
+    }
+
+    /**
+     * Create an iterator which returns the elements of the given iterator which satisfy the
+     * given predicate
+     *
+     * @param iterator iterator
+     * @param predicate predicate
+     * @return filtered iterator
+     */
+    public static <T> CloseableIterator<T> filter(CloseableIterator<T> iterator,
+            Predicate<? super T> predicate) {
+        return new Adapter<T>(Iterators.filter(iterator, predicate), iterator);
+    }
+
+    /**
+     * Create an iterator which returns the elements of the given iterator in consecutive chunks
+     * of the given size, the last chunk may be smaller
+     *
+     * <p>The chunks are independent lists, which can be handed over to other threads, while the
+     * next chunk is read.</p>
+     *
+     * @param iterator iterator
+     * @param size size of the chunks
+     * @return iterator of chunks
+     */
+    public static <T> CloseableIterator<List<T>> partition(CloseableIterator<T> iterator, int size) {
+        return new Adapter<List<T>>(Iterators.partition(iterator, size), iterator);
+    }
+
+    private static final class Adapter<T> implements CloseableIterator<T> {
+
+        private final Iterator<T> iterator;
+
+        private final CloseableIterator<?> closeable;
+
+        private boolean closed;
+
+        Adapter(Iterator<T> iterator, CloseableIterator<?> closeable) {
+            this.iterator = iterator;
+            this.closeable = closeable;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                closeable.close();
+            }
+        }
+
+    }
+
+    private CloseableIterators() { }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.GroupBy.*;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+
+public class AggregationTest {
+
+    private static <T> T collect(GroupExpression<T, T> expr, T... values) {
+        GroupCollector<T, T> collector = expr.createGroupCollector();
+        for (T value : values) {
+            collector.add(value);
+        }
+        return collector.get();
+    }
+
+    private static <T, R> R combine(GroupExpression<T, R> expr, List<T> first, List<T> second) {
+        CombinableGroupCollector<T, R> collector = (CombinableGroupCollector<T, R>) expr.createGroupCollector();
+        GroupCollector<T, R> other = expr.createGroupCollector();
+        for (T value : first) {
+            collector.add(value);
+        }
+        for (T value : second) {
+            other.add(value);
+        }
+        collector.combine(other);
+        return collector.get();
+    }
+
+    @Test
+    public void number_kind() {
+        assertEquals(NumberKind.INT, NumberKind.of(Integer.class));
+        assertEquals(NumberKind.INT, NumberKind.of(short.class));
+        assertEquals(NumberKind.LONG, NumberKind.of(Long.class));
+        assertEquals(NumberKind.DOUBLE, NumberKind.of(Float.class));
+        assertEquals(NumberKind.BIG_DECIMAL, NumberKind.of(BigDecimal.class));
+        assertEquals(NumberKind.OTHER, NumberKind.of(BigInteger.class));
+        assertEquals(NumberKind.OTHER, NumberKind.of(Number.class));
+    }
+
+    @Test
+    public void sum_by_type() {
+        assertEquals(Integer.valueOf(6), collect(sum(Expressions.numberPath(Integer.class, "i")), 1, null, 2, 3));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), collect(sum(Expressions.numberPath(Long.class, "l")), Long.MAX_VALUE - 1, 1L));
+        assertEquals(Double.valueOf(0.75), collect(sum(Expressions.numberPath(Double.class, "d")), 0.5, 0.25));
+        assertEquals(new BigDecimal("0.30"), collect(sum(Expressions.numberPath(BigDecimal.class, "b")),
+                new BigDecimal("0.10"), new BigDecimal("0.20")));
+        assertEquals(BigInteger.valueOf(3), collect(sum(Expressions.numberPath(BigInteger.class, "b")),
+                BigInteger.ONE, BigInteger.valueOf(2)));
+    }
+
+    @Test
+    public void sum_wraps_like_narrowing() {
+        assertEquals(Integer.valueOf(Integer.MIN_VALUE),
+                collect(sum(Expressions.numberPath(Integer.class, "i")), Integer.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void avg_by_type() {
+        assertEquals(Integer.valueOf(3), collect(avg(Expressions.numberPath(Integer.class, "i")), 3, 4, 3));
+        assertEquals(Integer.valueOf(-2), collect(avg(Expressions.numberPath(Integer.class, "i")), -2, -3));
+        assertEquals(Double.valueOf(2.5), collect(avg(Expressions.numberPath(Double.class, "d")), 2.0, 3.0));
+        assertEquals(new BigDecimal("1.50"), collect(avg(Expressions.numberPath(BigDecimal.class, "b")),
+                new BigDecimal("1.00"), new BigDecimal("2.00")));
+        assertEquals(new BigDecimal("0.3333333333333333333333333333333333"),
+                collect(avg(Expressions.numberPath(BigDecimal.class, "b")), BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    @Test
+    public void avg_long_overflow() {
+        assertEquals(Long.valueOf(Long.MAX_VALUE - 1), collect(avg(Expressions.numberPath(Long.class, "l")),
+                Long.MAX_VALUE, Long.MAX_VALUE - 2, Long.MAX_VALUE - 1));
+        assertEquals(Long.valueOf(Long.MIN_VALUE + 1), collect(avg(Expressions.numberPath(Long.class, "l")),
+                Long.MIN_VALUE, Long.MIN_VALUE + 2));
+    }
+
+    @Test
+    public void min_and_max_skip_nulls() {
+        NumberPath<Integer> i = Expressions.numberPath(Integer.class, "i");
+        assertEquals(Integer.valueOf(2), collect(min(i), null, 5, null, 2, 7));
+        assertEquals(Integer.valueOf(7), collect(max(i), null, 5, null, 2, 7));
+        assertNull(collect(max(i), (Integer) null));
+    }
+
+    @Test
+    public void combine() {
+        NumberPath<Integer> i = Expressions.numberPath(Integer.class, "i");
+        NumberPath<Long> l = Expressions.numberPath(Long.class, "l");
+        NumberPath<Float> f = Expressions.numberPath(Float.class, "f");
+        assertEquals(Integer.valueOf(10), combine(sum(i), asList(1, 2), asList(3, 4)));
+        assertEquals(Float.valueOf(0.6f), combine(sum(f), asList(0.1f, 0.2f), asList(0.3f)));
+        assertEquals(Integer.valueOf(3), combine(avg(i), asList(1, 2, 3), asList(6)));
+        assertEquals(Long.valueOf(Long.MAX_VALUE - 1), combine(avg(l),
+                asList(Long.MAX_VALUE, Long.MAX_VALUE - 2), asList(Long.MAX_VALUE - 1)));
+        assertEquals(Integer.valueOf(1), combine(min(i), asList(3, 2), asList(1, (Integer) null)));
+        assertEquals(Integer.valueOf(5), combine(GroupBy.<Integer>max(i), asList(5), Collections.<Integer>emptyList()));
+        assertEquals(asList(2, 1, 3), combine(list(i), asList(2, 1), asList(3)));
+        assertEquals(Integer.valueOf(2), combine(new GOne<Integer>(i), asList(2, 1), asList(3)));
+    }
+
+    @Test
+    public void group_by() {
+        NumberPath<Integer> key = Expressions.numberPath(Integer.class, "key");
+        NumberPath<Long> value = Expressions.numberPath(Long.class, "value");
+        NumberPath<Double> amount = Expressions.numberPath(Double.class, "amount");
+        Map<Integer, Group> results = AbstractGroupByTest.projectable(
+                AbstractGroupByTest.row(1, 1L, 1.5),
+                AbstractGroupByTest.row(1, 3L, null),
+                AbstractGroupByTest.row(2, null, 2.0))
+                .transform(groupBy(key).as(sum(value), avg(amount)));
+
+        assertEquals(Long.valueOf(4), results.get(1).getOne(value));
+        assertEquals(Double.valueOf(0.75), results.get(1).getOne(amount));
+        assertEquals(Long.valueOf(0), results.get(2).getGroup(sum(value)));
+        assertEquals(Double.valueOf(2.0), results.get(2).getGroup(avg(amount)));
+    }
+
+}
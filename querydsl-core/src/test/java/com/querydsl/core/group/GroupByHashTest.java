@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.AbstractGroupByTest.*;
+import static com.querydsl.core.group.GroupBy.*;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+public class GroupByHashTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Map<Integer, List<Integer>> toMap(List<Group> groups) {
+        Map<Integer, List<Integer>> rv = new HashMap<Integer, List<Integer>>();
+        for (Group group : groups) {
+            assertNull(rv.put(group.getOne(postId), group.getList(commentId)));
+        }
+        return rv;
+    }
+
+    private GroupByHash<Integer, Group> spilling(Expression<?>... expressions) {
+        return new GroupByHash<Integer, Group>(1, 1, 2, folder.getRoot(), postId, expressions);
+    }
+
+    private int spillFiles() {
+        int files = 0;
+        for (File dir : folder.getRoot().listFiles()) {
+            assertTrue(dir.getName().startsWith("querydsl-groupby"));
+            files += dir.list().length;
+        }
+        return files;
+    }
+
+    @Test
+    public void in_memory() {
+        List<Group> groups = IteratorAdapter.asList(BASIC_RESULTS_UNORDERED.transform(
+                groupBy(postId).iterateUnsorted(10, postName, list(commentId))));
+
+        assertEquals(4, groups.size());
+        // in the order of the first row
+        assertNull(groups.get(0).getOne(postId));
+        assertEquals(Integer.valueOf(1), groups.get(1).getOne(postId));
+        assertEquals("post 1", groups.get(1).getOne(postName));
+        assertEquals(asList(2, 1, 3), groups.get(1).getList(commentId));
+    }
+
+    @Test
+    public void spilled() {
+        CloseableIterator<Group> iterator = BASIC_RESULTS_UNORDERED.transform(
+                spilling(postName, list(commentId)));
+        assertTrue(spillFiles() > 0);
+        List<Group> groups = IteratorAdapter.asList(iterator);
+        // deleted once exhausted
+        assertEquals(0, folder.getRoot().list().length);
+        iterator.close();
+
+        Map<Integer, List<Integer>> results = toMap(groups);
+        assertEquals(4, results.size());
+        assertEquals(asList(8, 7), results.get(null));
+        assertEquals(asList(2, 1, 3), results.get(1));
+        assertEquals(asList(4, 5), results.get(2));
+        assertEquals(asList(6), results.get(3));
+    }
+
+    @Test
+    public void merge_passes() {
+        NumberPath<Integer> key = Expressions.numberPath(Integer.class, "key");
+        NumberPath<Integer> value = Expressions.numberPath(Integer.class, "value");
+        Object[][] rows = new Object[300][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = row(i % 30, i);
+        }
+        CloseableIterator<Group> iterator = projectable(rows).transform(
+                new GroupByHash<Integer, Group>(5, 7, 3, folder.getRoot(), key, list(value)));
+        // the runs have been merged down to the maximum fan-in
+        assertTrue(spillFiles() > 0);
+        assertTrue(spillFiles() <= 3);
+        List<Group> groups = IteratorAdapter.asList(iterator);
+        assertEquals(0, folder.getRoot().list().length);
+
+        assertEquals(30, groups.size());
+        for (Group group : groups) {
+            int k = group.getOne(key);
+            List<Integer> values = group.getList(value);
+            assertEquals(10, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(Integer.valueOf(k + i * 30), values.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void spilled_close() {
+        CloseableIterator<Group> iterator = BASIC_RESULTS_UNORDERED.transform(
+                spilling(postName, list(commentId)));
+        iterator.next();
+        assertTrue(spillFiles() > 0);
+        iterator.close();
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void spilled_default_directory() {
+        List<Group> groups = IteratorAdapter.asList(BASIC_RESULTS_UNORDERED.transform(
+                groupBy(postId).iterateUnsorted(1, postName, list(commentId))));
+        assertEquals(4, groups.size());
+    }
+
+    @Test
+    public void hash_collisions() {
+        StringPath key = Expressions.stringPath("key");
+        NumberPath<Integer> value = Expressions.numberPath(Integer.class, "value");
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        CloseableIterator<Integer> iterator = projectable(
+                row("x", 1), row("Aa", 2), row("BB", 3), row("Aa", 4), row("BB", 5), row("y", 6))
+                .transform(groupBy(key).iterateUnsorted(1, sum(value)));
+        List<Integer> sums = IteratorAdapter.asList(iterator);
+        Collections.sort(sums);
+        assertEquals(asList(1, 6, 6, 8), sums);
+    }
+
+    @Test
+    public void constructor() {
+        List<Post> posts = IteratorAdapter.asList(POST_W_COMMENTS.transform(
+                groupBy(postId).iterateUnsorted(10, Projections.constructor(Post.class, postId, postName,
+                        set(qComment)))));
+
+        assertEquals(4, posts.size());
+        for (Post post : posts) {
+            if (post.getId() != null && post.getId() == 1) {
+                assertEquals(3, post.getComments().size());
+            }
+        }
+    }
+
+    @Test(expected = QueryException.class)
+    public void not_serializable() {
+        try {
+            POST_W_COMMENTS2.transform(spilling(postName, set(qComment)));
+        } finally {
+            assertEquals(0, folder.getRoot().list().length);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void max_groups() {
+        groupBy(postId).iterateUnsorted(0, postName);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void max_fan_in() {
+        new GroupByHash<Integer, Group>(1, 1, 1, null, postId, postName);
+    }
+
+}
@@ -18,6 +18,9 @@ import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
@@ -25,6 +28,7 @@ import com.google.common.collect.Ordering;
 import com.mysema.commons.lang.Pair;
 import com.querydsl.core.ResultTransformer;
 import com.querydsl.core.Tuple;
+import com.querydsl.core.support.DummyFetchableQuery;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberPath;
@@ -335,4 +339,53 @@ public class GroupByMapTest extends AbstractGroupByTest {
         assertNotNull(resultTransformer);
     }
 
+    private static final DummyFetchableQuery<Tuple> FIRST_PARTITION = projectable(
+            row(1, "post 1", 2, "comment 2"),
+            row(2, "post 2", 4, "comment 4"),
+            row(1, "post 1", 1, "comment 1"));
+
+    private static final DummyFetchableQuery<Tuple> SECOND_PARTITION = projectable(
+            row(3, "post 3", 6, "comment 6"),
+            row(1, "post 1", 3, "comment 3"),
+            row(2, "post 2", 5, "comment 5"));
+
+    @Test
+    public void parallel() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Map<Integer, Group> results = groupBy(postId).asMap(postName, list(commentId), max(commentText))
+                    .transform(Arrays.asList(FIRST_PARTITION, SECOND_PARTITION), executor);
+
+            assertEquals(Arrays.asList(1, 2, 3), new ArrayList<Integer>(results.keySet()));
+            assertEquals("post 1", results.get(1).getOne(postName));
+            assertEquals(Arrays.asList(2, 1, 3), results.get(1).getList(commentId));
+            assertEquals("comment 5", results.get(2).getGroup(max(commentText)));
+            assertEquals(Arrays.asList(6), results.get(3).getList(commentId));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallel_not_combinable() {
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                fail();
+            }
+        };
+        DummyFetchableQuery<Tuple> first = projectable(
+                row(1, pair("post 1", "comment 2")),
+                row(2, pair("post 2", "comment 4")),
+                row(1, pair("post 1", "comment 1")));
+        DummyFetchableQuery<Tuple> second = projectable(
+                row(1, pair("post 1", "comment 3")),
+                row(2, pair("post 2", "comment 5")));
+        Map<Integer, Map<String, Set<String>>> results = groupBy(postId).asMap(map(postName, set(commentText)))
+                .transform(Arrays.asList(first, second), executor);
+
+        assertEquals(toSet("comment 2", "comment 1", "comment 3"), results.get(1).get("post 1"));
+        assertEquals(toSet("comment 4", "comment 5"), results.get(2).get("post 2"));
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.GroupBy.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+
+public class GroupByPushDownTest {
+
+    private static final PathBuilder<Object> post = new PathBuilder<Object>(Object.class, "post");
+
+    private static final NumberPath<Integer> id = post.getNumber("id", Integer.class);
+
+    private static final StringPath name = post.getString("name");
+
+    private static final NumberPath<Integer> score = post.getNumber("score", Integer.class);
+
+    private static final NumberPath<Integer> rank = post.getNumber("rank", Integer.class);
+
+    private final InMemoryQuery<?> query = new InMemoryQuery<Void>(ImmutableList.<Map<Path<?>, ?>>of(
+            row(1, "post 1", 3, 2),
+            row(2, "post 2", 4, 7),
+            row(1, "post 1", 5, 1),
+            row(2, "post 2", 6, 9),
+            row(3, "post 3", 7, 5)));
+
+    private static Map<Path<?>, ?> row(int id, String name, int score, int rank) {
+        return ImmutableMap.<Path<?>, Object>of(GroupByPushDownTest.id, id, GroupByPushDownTest.name, name,
+                GroupByPushDownTest.score, score, GroupByPushDownTest.rank, rank);
+    }
+
+    private QueryMetadata executed() {
+        List<QueryMetadata> executed = query.getExecuted();
+        return executed.get(executed.size() - 1);
+    }
+
+    private void assertGroups(Collection<Group> groups) {
+        assertEquals(3, groups.size());
+        Iterator<Group> iterator = groups.iterator();
+        Group group = iterator.next();
+        assertEquals("post 1", group.getOne(name));
+        assertEquals(Integer.valueOf(8), group.getGroup(sum(score)));
+        assertEquals(Integer.valueOf(1), group.getGroup(min(rank)));
+        group = iterator.next();
+        assertEquals(Integer.valueOf(10), group.getGroup(sum(score)));
+        assertEquals(Integer.valueOf(7), group.getGroup(min(rank)));
+    }
+
+    private void assertPushedDown() {
+        assertEquals(ImmutableList.of(id, name), executed().getGroupBy());
+        // the query of the caller is not modified
+        assertTrue(query.getMetadata().getGroupBy().isEmpty());
+        assertEquals(5, query.fetchCount());
+    }
+
+    @Test
+    public void map() {
+        Map<Integer, Group> results = query.transform(groupBy(id).as(name, sum(score), min(rank)));
+        assertGroups(results.values());
+        assertPushedDown();
+    }
+
+    @Test
+    public void map_twice() {
+        query.transform(groupBy(id).as(name, sum(score), min(rank)));
+        Map<Integer, Group> results = query.transform(groupBy(id).as(name, sum(score), min(rank)));
+        assertGroups(results.values());
+        assertPushedDown();
+    }
+
+    @Test
+    public void list() {
+        assertGroups(query.transform(groupBy(id).list(name, sum(score), min(rank))));
+        assertPushedDown();
+    }
+
+    @Test
+    public void iterate() {
+        CloseableIterator<Group> iterator = query.transform(groupBy(id).iterate(name, sum(score), min(rank)));
+        assertGroups(IteratorAdapter.asList(iterator));
+        assertPushedDown();
+    }
+
+    @Test
+    public void iterate_unsorted() {
+        CloseableIterator<Group> iterator = query.transform(groupBy(id).iterateUnsorted(10, name, sum(score), min(rank)));
+        assertGroups(IteratorAdapter.asList(iterator));
+        assertPushedDown();
+    }
+
+    @Test
+    public void sum_is_widened() {
+        query.transform(groupBy(id).as(sum(score), max(rank)));
+        List<Expression<?>> args = ((FactoryExpression<?>) executed().getProjection()).getArgs();
+        assertEquals(Long.class, args.get(1).getType());
+        assertEquals(Integer.class, args.get(2).getType());
+    }
+
+    @Test
+    public void entity_key() {
+        query.transform(groupBy(post).as(sum(score)));
+        assertTrue(executed().getGroupBy().isEmpty());
+    }
+
+    @Test
+    public void average() {
+        Map<Integer, Group> results = query.transform(groupBy(id).as(sum(score), avg(rank)));
+        assertTrue(executed().getGroupBy().isEmpty());
+        assertEquals(Integer.valueOf(8), results.get(1).getGroup(sum(score)));
+    }
+
+    @Test
+    public void without_aggregates() {
+        query.transform(groupBy(id).as(name));
+        assertTrue(executed().getGroupBy().isEmpty());
+    }
+
+    @Test
+    public void limited() {
+        query.limit(10).transform(groupBy(id).as(sum(score)));
+        assertTrue(executed().getGroupBy().isEmpty());
+    }
+
+}
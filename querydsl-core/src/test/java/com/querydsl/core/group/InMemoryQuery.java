@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import com.google.common.collect.ImmutableList;
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.*;
+import com.querydsl.core.support.FetchableSubQueryBase;
+import com.querydsl.core.support.QueryMixin;
+import com.querydsl.core.types.*;
+import com.querydsl.core.util.MathUtils;
+
+/**
+ * Query over rows of path values, which evaluates projections of paths and sum, min and max
+ * aggregates of paths with an optional group by clause
+ */
+public class InMemoryQuery<T> extends FetchableSubQueryBase<T, InMemoryQuery<T>>
+        implements FetchableQuery<T, InMemoryQuery<T>>, Query<InMemoryQuery<T>> {
+
+    private final List<Map<Path<?>, ?>> rows;
+
+    private final List<QueryMetadata> executed;
+
+    public InMemoryQuery(List<Map<Path<?>, ?>> rows) {
+        this(rows, new DefaultQueryMetadata(), new ArrayList<QueryMetadata>());
+    }
+
+    private InMemoryQuery(List<Map<Path<?>, ?>> rows, QueryMetadata metadata, List<QueryMetadata> executed) {
+        super(new QueryMixin<InMemoryQuery<T>>(metadata));
+        this.queryMixin.setSelf(this);
+        this.rows = rows;
+        this.executed = executed;
+    }
+
+    /**
+     * Get the metadata of the executed queries, including the executed clones
+     *
+     * @return metadata
+     */
+    public List<QueryMetadata> getExecuted() {
+        return executed;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <U> InMemoryQuery<U> select(Expression<U> expr) {
+        queryMixin.setProjection(expr);
+        return (InMemoryQuery<U>) this;
+    }
+
+    @Override
+    public InMemoryQuery<Tuple> select(Expression<?>... exprs) {
+        return select(Projections.tuple(exprs));
+    }
+
+    @Override
+    public InMemoryQuery<T> clone() {
+        return new InMemoryQuery<T>(rows, getMetadata().clone(), executed);
+    }
+
+    private Collection<List<Map<Path<?>, ?>>> groups() {
+        QueryMetadata metadata = getMetadata();
+        if (metadata.getGroupBy().isEmpty()) {
+            List<List<Map<Path<?>, ?>>> groups = new ArrayList<List<Map<Path<?>, ?>>>();
+            for (Map<Path<?>, ?> row : rows) {
+                groups.add(ImmutableList.<Map<Path<?>, ?>>of(row));
+            }
+            return groups;
+        }
+        Map<List<Object>, List<Map<Path<?>, ?>>> groups = new LinkedHashMap<List<Object>, List<Map<Path<?>, ?>>>();
+        for (Map<Path<?>, ?> row : rows) {
+            List<Object> key = new ArrayList<Object>();
+            for (Expression<?> expr : metadata.getGroupBy()) {
+                key.add(row.get(expr));
+            }
+            if (!groups.containsKey(key)) {
+                groups.put(key, new ArrayList<Map<Path<?>, ?>>());
+            }
+            groups.get(key).add(row);
+        }
+        return groups.values();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CloseableIterator<T> iterate() {
+        QueryMetadata metadata = getMetadata();
+        executed.add(metadata.clone());
+        Collection<List<Map<Path<?>, ?>>> groups = groups();
+        FactoryExpression<T> projection = (FactoryExpression<T>) metadata.getProjection();
+        List<T> results = new ArrayList<T>();
+        for (List<Map<Path<?>, ?>> group : groups) {
+            Object[] values = new Object[projection.getArgs().size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = evaluate(projection.getArgs().get(i), group);
+            }
+            results.add(projection.newInstance(values));
+        }
+        return new IteratorAdapter<T>(results.iterator());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object evaluate(Expression<?> expr, List<Map<Path<?>, ?>> group) {
+        if (expr instanceof Path) {
+            return group.get(0).get(expr);
+        }
+        Operation<?> operation = (Operation<?>) expr;
+        Operator operator = operation.getOperator();
+        if (operator == Ops.AggOps.SUM_AGG) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (Map<Path<?>, ?> row : group) {
+                sum = sum.add(new BigDecimal(row.get(operation.getArg(0)).toString()));
+            }
+            return MathUtils.cast(sum, (Class<BigDecimal>) operation.getType());
+        }
+        Comparable<Object> result = null;
+        for (Map<Path<?>, ?> row : group) {
+            Comparable<Object> value = (Comparable<Object>) row.get(operation.getArg(0));
+            if (result == null || (operator == Ops.AggOps.MIN_AGG ? value.compareTo(result) < 0
+                    : value.compareTo(result) > 0)) {
+                result = value;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public T fetchOne() {
+        return uniqueResult(iterate());
+    }
+
+    @Override
+    public QueryResults<T> fetchResults() {
+        List<T> results = fetch();
+        return new QueryResults<T>(results, null, null, results.size());
+    }
+
+    @Override
+    public long fetchCount() {
+        return groups().size();
+    }
+
+}
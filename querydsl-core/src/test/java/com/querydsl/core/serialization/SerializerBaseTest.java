@@ -15,11 +15,14 @@ package com.querydsl.core.serialization;
 
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+
 import org.junit.Test;
 
 import com.querydsl.core.types.ConstantImpl;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.JavaTemplates;
+import com.querydsl.core.types.Templates;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.StringPath;
@@ -42,4 +45,24 @@ public class SerializerBaseTest {
         serializer.handle(ExpressionUtils.template(Object.class, "xxx", ConstantImpl.create("")));
     }
 
+    @Test
+    public void templates() {
+        StringPath strPath = Expressions.stringPath("str");
+        // plain
+        assertEquals("str = a1", serialize(ExpressionUtils.template(Object.class, "{0} = {1}", strPath, "abc")));
+        assertEquals("str = a1", serialize(ExpressionUtils.template(Object.class, "{0} = {1}",
+                strPath, ConstantImpl.create("abc"))));
+        // string and transformed elements
+        assertEquals("str.abc", serialize(ExpressionUtils.template(Object.class, "{0}.{1s}", strPath, "abc")));
+        assertEquals("str like a1", serialize(ExpressionUtils.template(Object.class, "{0} like {1%}", strPath, "abc")));
+        // operation
+        assertEquals("lower(str) = a1", serialize(strPath.lower().eq("abc")));
+    }
+
+    private String serialize(com.querydsl.core.types.Expression<?> expr) {
+        DummySerializer serializer = new DummySerializer(Templates.DEFAULT);
+        serializer.handle(expr);
+        return serializer.toString();
+    }
+
 }
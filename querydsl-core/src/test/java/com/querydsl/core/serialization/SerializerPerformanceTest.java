@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.serialization;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.Benchmark;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.testutil.Runner;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Templates;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+@Ignore
+@Category(Performance.class)
+public class SerializerPerformanceTest {
+
+    private static final StringPath name = Expressions.stringPath("name");
+
+    private static final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+    private static void serialize(final Predicate predicate) throws Exception {
+        Runner.run(predicate.toString(), new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times; i++) {
+                    DummySerializer serializer = new DummySerializer(Templates.DEFAULT);
+                    serializer.handle(predicate);
+                    serializer.toString();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void comparisons() throws Exception {
+        serialize(id.gt(1).and(id.lt(10)).or(name.eq("abc")));
+    }
+
+    @Test
+    public void arithmetic() throws Exception {
+        serialize(id.add(1).multiply(id.subtract(2)).gt(id.divide(3)));
+    }
+
+    @Test
+    public void transformed() throws Exception {
+        serialize(name.startsWithIgnoreCase("abc").or(name.containsIgnoreCase(name)));
+    }
+
+}
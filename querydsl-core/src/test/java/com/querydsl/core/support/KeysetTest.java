@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.support;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+public class KeysetTest {
+
+    private final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+    private final StringPath name = Expressions.stringPath("name");
+
+    private static List<OrderSpecifier<?>> order(OrderSpecifier<?>... order) {
+        return ImmutableList.copyOf(order);
+    }
+
+    @Test
+    public void single_key() {
+        assertEquals("id > 5", Keyset.after(order(id.asc()), 5).toString());
+        assertEquals("id < 5", Keyset.after(order(id.desc()), 5).toString());
+    }
+
+    @Test
+    public void mixed_order() {
+        assertEquals("name >= a && (name > a || name = a && id < 5)",
+                Keyset.after(order(name.asc(), id.desc()), "a", 5).toString());
+        assertEquals("name <= a && (name < a || name = a && id > 5)",
+                Keyset.after(order(name.desc(), id.asc()), "a", 5).toString());
+    }
+
+    @Test
+    public void nulls_first() {
+        assertEquals("name >= a && (name > a || name = a && id > 5)",
+                Keyset.after(order(name.asc().nullsFirst(), id.asc()), "a", 5).toString());
+        assertEquals("name is not null || name is null && id > 5",
+                Keyset.after(order(name.asc().nullsFirst(), id.asc()), null, 5).toString());
+    }
+
+    @Test
+    public void nulls_last() {
+        assertEquals("name > a || name is null || name = a && id > 5",
+                Keyset.after(order(name.asc().nullsLast(), id.asc()), "a", 5).toString());
+        assertEquals("name is null && id > 5",
+                Keyset.after(order(name.asc().nullsLast(), id.asc()), null, 5).toString());
+        assertEquals("1 = 2",
+                Keyset.after(order(name.asc().nullsLast()), new Object[]{null}).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void null_with_default_null_handling() {
+        Keyset.after(order(name.asc(), id.asc()), null, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void key_size_mismatch() {
+        Keyset.after(order(name.asc(), id.asc()), "a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void no_order() {
+        Keyset.after(order());
+    }
+
+    @Test
+    public void iterator() {
+        final List<Integer> ids = new ArrayList<Integer>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(i);
+        }
+        final List<Object> keys = new ArrayList<Object>();
+        CloseableIterator<Integer> iterator = new KeysetIterator<Integer>(order(id.asc()), id, 10) {
+            @Override
+            protected List<Tuple> fetch(Object[] keyValues, Expression<Tuple> projection, int limit) {
+                keys.add(keyValues != null ? keyValues[0] : null);
+                int from = keyValues != null ? (Integer) keyValues[0] + 1 : 0;
+                List<Tuple> rv = new ArrayList<Tuple>();
+                for (Integer i : ids.subList(from, Math.min(from + limit, ids.size()))) {
+                    rv.add(((FactoryExpression<Tuple>) projection).newInstance(i, i));
+                }
+                return rv;
+            }
+        };
+        List<Integer> results = new ArrayList<Integer>();
+        while (iterator.hasNext()) {
+            results.add(iterator.next());
+        }
+        iterator.close();
+        assertEquals(ids, results);
+        assertEquals(ImmutableList.<Object>of(9, 19), keys.subList(1, keys.size()));
+        assertEquals(3, keys.size());
+    }
+
+}
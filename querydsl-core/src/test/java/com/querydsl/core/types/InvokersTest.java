@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.types;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+public class InvokersTest {
+
+    public static class Entity {
+
+        private String name;
+
+        private int age;
+
+        public Entity() { }
+
+        public Entity(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public void setInvalid(String invalid) {
+            throw new IllegalArgumentException(invalid);
+        }
+
+    }
+
+    static class PackagePrivateEntity {
+
+        private String name;
+
+        PackagePrivateEntity(String name) {
+            this.name = name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+    }
+
+    @Test
+    public void method() throws Exception {
+        Entity entity = new Entity();
+        Invokers.create(Entity.class.getMethod("setName", String.class)).invoke(entity, "x");
+        Invokers.create(Entity.class.getMethod("setAge", int.class)).invoke(entity, 3);
+        assertEquals("x", entity.name);
+        assertEquals(3, entity.age);
+    }
+
+    @Test
+    public void constructor() throws Exception {
+        Entity entity = (Entity) Invokers.create(Entity.class.getConstructor(String.class, int.class))
+                .newInstance(new Object[]{"x", 3});
+        assertEquals("x", entity.name);
+        assertEquals(3, entity.age);
+    }
+
+    @Test
+    public void package_private() throws Exception {
+        PackagePrivateEntity entity = (PackagePrivateEntity) Invokers.create(
+                PackagePrivateEntity.class.getDeclaredConstructor(String.class)).newInstance(new Object[]{"x"});
+        Invokers.create(PackagePrivateEntity.class.getMethod("setName", String.class)).invoke(entity, "y");
+        assertEquals("y", entity.name);
+    }
+
+    @Test(expected = InvocationTargetException.class)
+    public void exception() throws Exception {
+        Invokers.create(Entity.class.getMethod("setInvalid", String.class)).invoke(new Entity(), "x");
+    }
+
+}
@@ -13,7 +13,7 @@
  */
 package com.querydsl.core.types;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.junit.Test;
 
@@ -58,6 +58,16 @@ public class TemplateTest {
         match("[0]",                     factory.create("{%%0%%}"));
     }
 
+    @Test
+    public void plain() {
+        TemplateFactory factory = new TemplateFactory('\\');
+        assertTrue(factory.create("{0} + {1}").isPlain());
+        assertTrue(factory.create("blah").isPlain());
+        assertFalse(factory.create("{0}.{1s}").isPlain());
+        assertFalse(factory.create("{0+1}").isPlain());
+        assertFalse(factory.create("{0%}").isPlain());
+    }
+
     private void match(String string, Template template) {
         assertEquals(string, template.getElements().toString());
     }
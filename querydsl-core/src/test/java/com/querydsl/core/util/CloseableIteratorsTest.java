@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.util;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+
+public class CloseableIteratorsTest {
+
+    private static class CountingIterator implements CloseableIterator<Integer> {
+
+        private final Iterator<Integer> iterator;
+
+        private int read, closed;
+
+        CountingIterator(Integer... values) {
+            this.iterator = asList(values).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            read++;
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            closed++;
+        }
+
+    }
+
+    @Test
+    public void transform() {
+        CountingIterator source = new CountingIterator(1, 2, 3);
+        CloseableIterator<String> iterator = CloseableIterators.transform(source, new Function<Integer, String>() {
+            @Override
+            public String apply(Integer input) {
+                return "x" + input;
+            }
+        });
+        assertEquals("x1", iterator.next());
+        assertEquals(1, source.read);
+        iterator.close();
+        assertEquals(1, source.closed);
+    }
+
+    @Test
+    public void filter() {
+        CountingIterator source = new CountingIterator(1, 2, 3, 4);
+        CloseableIterator<Integer> iterator = CloseableIterators.filter(source, new Predicate<Integer>() {
+            @Override
+            public boolean apply(Integer input) {
+                return input % 2 == 0;
+            }
+        });
+        assertEquals(asList(2, 4), IteratorAdapter.asList(iterator));
+        iterator.close();
+        assertEquals(1, source.closed);
+    }
+
+    @Test
+    public void partition() {
+        CountingIterator source = new CountingIterator(1, 2, 3, 4, 5);
+        CloseableIterator<List<Integer>> iterator = CloseableIterators.partition(source, 2);
+        assertEquals(asList(1, 2), iterator.next());
+        assertEquals(2, source.read);
+        assertEquals(asList(3, 4), iterator.next());
+        assertEquals(asList(5), iterator.next());
+        assertFalse(iterator.hasNext());
+        iterator.close();
+        assertEquals(1, source.closed);
+    }
+
+}
@@ -34,7 +34,7 @@ import com.querydsl.core.types.FactoryExpression;
  * @author tiwe
  *
  */
-class EclipseLinkHandler implements QueryHandler {
+class EclipseLinkHandler implements StreamingQueryHandler {
 
     @Override
     public void addEntity(Query query, String alias, Class<?> type) {
@@ -78,6 +78,11 @@ class EclipseLinkHandler implements QueryHandler {
         }
     }
 
+    @Override
+    public boolean supportsStreaming(Query query) {
+        return query instanceof JpaQuery;
+    }
+
     @Override
     public boolean transform(Query query, FactoryExpression<?> projection) {
         return false;
@@ -33,7 +33,7 @@ import com.querydsl.core.types.FactoryExpression;
  * @author tiwe
  *
  */
-class HibernateHandler implements QueryHandler {
+class HibernateHandler implements StreamingQueryHandler {
 
     @Override
     public void addEntity(Query query, String alias, Class<?> type) {
@@ -81,6 +81,11 @@ class HibernateHandler implements QueryHandler {
         }
     }
 
+    @Override
+    public boolean supportsStreaming(Query query) {
+        return query instanceof HibernateQuery;
+    }
+
     @Override
     public boolean transform(Query query, FactoryExpression<?> projection) {
         if (query instanceof HibernateQuery) {
@@ -13,8 +13,17 @@
  */
 package com.querydsl.jpa;
 
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.support.FetchableSubQueryBase;
+import com.querydsl.core.support.Keyset;
+import com.querydsl.core.support.KeysetIterator;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.Expressions;
 
@@ -217,6 +226,31 @@ public abstract class JPAQueryBase<T, Q extends JPAQueryBase<T, Q>> extends Fetc
         return queryMixin.on(conditions);
     }
 
+    @Override
+    public Q seekAfter(Object... keyValues) {
+        return queryMixin.where(Keyset.after(queryMixin.getMetadata().getOrderBy(), keyValues));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CloseableIterator<T> iterateSeek(int pageSize) {
+        QueryMetadata metadata = queryMixin.getMetadata();
+        Expression<T> projection = (Expression<T>) metadata.getProjection();
+        if (projection == null && metadata.getJoins().size() == 1) {
+            projection = (Expression<T>) metadata.getJoins().get(0).getTarget();
+        }
+        return new KeysetIterator<T>(metadata.getOrderBy(), projection, pageSize) {
+            @Override
+            protected List<Tuple> fetch(@Nullable Object[] keyValues, Expression<Tuple> projection, int limit) {
+                Q query = JPAQueryBase.this.clone();
+                if (keyValues != null) {
+                    query.seekAfter(keyValues);
+                }
+                query.restrict(QueryModifiers.limit(limit));
+                return query.select(projection).fetch();
+            }
+        };
+    }
 
     @Override
     public String toString() {
@@ -13,6 +13,7 @@
  */
 package com.querydsl.jpa;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.FetchableQuery;
 import com.querydsl.core.Query;
 import com.querydsl.core.Tuple;
@@ -312,6 +313,34 @@ public interface JPQLQuery<T> extends FetchableQuery<T, JPQLQuery<T>>, Query<JPQ
        */
     JPQLQuery<T> fetchAll();
 
+    /**
+     * Restrict the results to the rows after the given key in the current order (keyset pagination)
+     *
+     * <p>Usage</p>
+     * <pre>
+     * query.from(post)
+     *      .orderBy(post.created.desc(), post.id.desc())
+     *      .seekAfter(lastCreated, lastId)
+     *      .limit(20)
+     * </pre>
+     *
+     * @param keyValues values of the order targets of the last row of the previous page
+     * @return the current object
+     * @see com.querydsl.core.support.Keyset
+     */
+    JPQLQuery<T> seekAfter(Object... keyValues);
+
+    /**
+     * Iterate over the results page by page using keyset pagination
+     *
+     * <p>The order of the query needs to be unique, e.g. by ending with the id. Each page
+     * is fetched with a separate query, which continues after the last row of the previous page.</p>
+     *
+     * @param pageSize amount of rows per page
+     * @return results
+     */
+    CloseableIterator<T> iterateSeek(int pageSize);
+
     @Override
     <U> JPQLQuery<U> select(Expression<U> expr);
 
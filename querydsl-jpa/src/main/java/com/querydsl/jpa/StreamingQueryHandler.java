@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.jpa;
+
+import javax.persistence.Query;
+
+import com.querydsl.core.types.FactoryExpression;
+
+/**
+ * {@code StreamingQueryHandler} is implemented by {@link QueryHandler}s which can stream the
+ * results of queries in {@link #iterate(Query, FactoryExpression)}
+ *
+ * <p>Handlers which don't implement this interface are expected to load the results at once.</p>
+ */
+public interface StreamingQueryHandler extends QueryHandler {
+
+    /**
+     * Return whether the results of the given query are streamed by
+     * {@link #iterate(Query, FactoryExpression)} instead of being loaded at once
+     *
+     * @param query query
+     * @return whether the results are streamed
+     */
+    boolean supportsStreaming(Query query);
+
+}
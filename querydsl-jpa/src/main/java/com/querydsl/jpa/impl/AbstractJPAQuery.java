@@ -14,8 +14,11 @@
 package com.querydsl.jpa.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
@@ -37,6 +40,7 @@ import com.querydsl.jpa.JPAQueryBase;
 import com.querydsl.jpa.JPQLSerializer;
 import com.querydsl.jpa.JPQLTemplates;
 import com.querydsl.jpa.QueryHandler;
+import com.querydsl.jpa.StreamingQueryHandler;
 
 /**
  * Abstract base class for JPA API based implementations of the JPQLQuery interface
@@ -65,6 +69,8 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     @Nullable
     protected FactoryExpression<?> projection;
 
+    protected int iteratePageSize;
+
     public AbstractJPAQuery(EntityManager em) {
         this(em, JPAProvider.getTemplates(em), new DefaultQueryMetadata());
     }
@@ -188,12 +194,30 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     public CloseableIterator<T> iterate() {
         try {
             Query query = createQuery();
+            if (iteratePageSize > 0 && !isStreamed(query)) {
+                return new PagingIterator(getMetadata().getModifiers());
+            }
             return queryHandler.iterate(query, projection);
         } finally {
             reset();
         }
     }
 
+    private boolean isStreamed(Query query) {
+        return queryHandler instanceof StreamingQueryHandler
+            && ((StreamingQueryHandler) queryHandler).supportsStreaming(query);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> fetchPage(QueryModifiers modifiers) {
+        try {
+            Query query = createQuery(modifiers, false);
+            return (List<T>) getResultList(query);
+        } finally {
+            reset();
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<T> fetch() {
@@ -279,6 +303,28 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
         return (Q) this;
     }
 
+    /**
+     * Set the page size of {@link #iterate()} for queries which can't be streamed by the JPA
+     * provider (default: 0)
+     *
+     * <p>If the query handler doesn't stream the results of the query, they are fetched page by
+     * page with offset and limit, and the persistence context is cleared before the next page is
+     * fetched, so that the memory usage stays bounded. All managed entities of the entity manager
+     * are detached and pending changes are discarded by the clearing, so flush the entity manager
+     * before the iteration and don't rely on the entities of previous pages being managed. The
+     * order of the query needs to be unique to get each row exactly once. Use 0 to load all
+     * results at once.</p>
+     *
+     * @param pageSize page size
+     * @return the current object
+     * @see StreamingQueryHandler#supportsStreaming(Query)
+     */
+    @SuppressWarnings("unchecked")
+    public Q setIteratePageSize(int pageSize) {
+        this.iteratePageSize = pageSize;
+        return (Q) this;
+    }
+
     @Override
     protected JPQLSerializer createSerializer() {
         return new JPQLSerializer(getTemplates(), entityManager);
@@ -289,6 +335,7 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
         flushMode = query.flushMode;
         hints.putAll(query.hints);
         lockMode = query.lockMode;
+        iteratePageSize = query.iteratePageSize;
     }
 
     /**
@@ -319,4 +366,67 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
         return clone(entityManager, getTemplates());
     }
 
+    /**
+     * {@code PagingIterator} fetches the results page by page and clears the persistence context
+     * between the pages
+     */
+    private final class PagingIterator implements CloseableIterator<T> {
+
+        private final long offset;
+
+        @Nullable
+        private final Long limit;
+
+        private Iterator<T> page = Collections.<T>emptyList().iterator();
+
+        private long read;
+
+        private boolean lastPage;
+
+        PagingIterator(QueryModifiers modifiers) {
+            this.offset = modifiers.getOffset() != null ? modifiers.getOffset() : 0L;
+            this.limit = modifiers.getLimit();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !lastPage) {
+                long size = limit != null ? Math.min(iteratePageSize, limit - read) : iteratePageSize;
+                if (size <= 0) {
+                    lastPage = true;
+                } else {
+                    if (read > 0) {
+                        entityManager.clear();
+                    }
+                    List<T> rows = fetchPage(new QueryModifiers(size, offset + read));
+                    read += rows.size();
+                    lastPage = rows.size() < size;
+                    page = rows.iterator();
+                }
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (hasNext()) {
+                return page.next();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            lastPage = true;
+            page = Collections.<T>emptyList().iterator();
+        }
+
+    }
+
 }
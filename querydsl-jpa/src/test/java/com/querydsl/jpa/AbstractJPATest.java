@@ -1804,6 +1804,27 @@ public abstract class AbstractJPATest {
         }
     }
 
+    @Test
+    public void transform_groupBy_pushDown() {
+        QCat kitten = new QCat("kitten");
+        JPQLQuery<?> query = query().from(cat).innerJoin(cat.kittens, kitten);
+        Map<Integer, Group> result = query.transform(GroupBy.groupBy(cat.id)
+                .as(cat.name, GroupBy.sum(kitten.id), GroupBy.max(kitten.bodyWeight)));
+        // the aggregation is pushed down into a copy of the query
+        assertTrue(query.getMetadata().getGroupBy().isEmpty());
+
+        Map<Integer, Integer> sums = new HashMap<Integer, Integer>();
+        for (Tuple row : query().from(cat).innerJoin(cat.kittens, kitten).select(cat.id, kitten.id).fetch()) {
+            Integer sum = sums.get(row.get(cat.id));
+            sums.put(row.get(cat.id), (sum != null ? sum : 0) + row.get(kitten.id));
+        }
+        assertEquals(sums.keySet(), result.keySet());
+        for (Entry<Integer, Group> entry : result.entrySet()) {
+            assertEquals(sums.get(entry.getKey()), entry.getValue().getGroup(GroupBy.sum(kitten.id)));
+            assertNotNull(entry.getValue().getGroup(GroupBy.max(kitten.bodyWeight)));
+        }
+    }
+
     @Test
     @NoBatooJPA
     public void treat() {
@@ -18,6 +18,7 @@ import static com.querydsl.jpa.JPAExpressions.selectOne;
 import static org.junit.Assert.*;
 
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -207,6 +208,67 @@ public class JPABase extends AbstractJPATest implements JPATest {
         cats.close();
     }
 
+    @Test
+    public void iterate_paged() {
+        List<Integer> ids = query().from(cat).orderBy(cat.id.asc()).select(cat.id).fetch();
+        // full last pages are followed by an empty page
+        for (int pageSize : new int[]{1, 2, 3, ids.size() - 1, ids.size(), ids.size() + 1}) {
+            assertEquals(ids, iteratePaged(pagedQuery().from(cat), pageSize));
+        }
+    }
+
+    @Test
+    public void iterate_paged_clears_between_pages() {
+        CloseableIterator<Cat> iterator = pagedQuery().from(cat).orderBy(cat.id.asc()).select(cat)
+                .setIteratePageSize(1).iterate();
+        try {
+            Cat first = iterator.next();
+            assertTrue(entityManager.contains(first));
+            assertTrue(iterator.hasNext());
+            assertFalse(entityManager.contains(first));
+        } finally {
+            iterator.close();
+        }
+    }
+
+    @Test
+    public void iterate_paged_empty() {
+        assertEquals(new ArrayList<Integer>(), iteratePaged(pagedQuery().from(cat).where(cat.id.lt(0)), 2));
+    }
+
+    @Test
+    public void iterate_paged_offset_and_limit() {
+        List<Integer> ids = query().from(cat).orderBy(cat.id.asc()).select(cat.id).fetch();
+        List<Integer> expected = ids.subList(1, ids.size() - 1);
+        for (int pageSize : new int[]{1, 2, expected.size(), expected.size() + 1}) {
+            assertEquals(expected, iteratePaged(pagedQuery().from(cat)
+                    .offset(1).limit(expected.size()), pageSize));
+        }
+    }
+
+    /**
+     * Creates a query with the default query handler, which doesn't stream the results
+     */
+    private JPAQuery<?> pagedQuery() {
+        assertFalse(JPQLTemplates.DEFAULT.getQueryHandler() instanceof StreamingQueryHandler);
+        return new JPAQuery<Void>(entityManager, JPQLTemplates.DEFAULT);
+    }
+
+    private List<Integer> iteratePaged(JPAQuery<?> query, int pageSize) {
+        CloseableIterator<Integer> iterator = query.orderBy(cat.id.asc()).select(cat.id)
+                .setIteratePageSize(pageSize).iterate();
+        List<Integer> ids = new ArrayList<Integer>();
+        try {
+            while (iterator.hasNext()) {
+                ids.add(iterator.next());
+            }
+            assertFalse(iterator.hasNext());
+        } finally {
+            iterator.close();
+        }
+        return ids;
+    }
+
     @Test
     public void limit1_uniqueResult() {
         assertNotNull(query().from(cat).limit(1).select(cat).fetchOne());
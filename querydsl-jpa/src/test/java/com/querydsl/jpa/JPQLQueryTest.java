@@ -73,4 +73,12 @@ public class JPQLQueryTest {
         assertEquals("select cat\nfrom Cat cat", new JPAQuery<Void>().from(cat).toString());
     }
 
+    @Test
+    public void seekAfter() {
+        assertEquals("select cat\nfrom Cat cat\n" +
+                "where cat.name >= ?1 and (cat.name > ?1 or cat.name = ?1 and cat.id < ?2)\n" +
+                "order by cat.name asc, cat.id desc",
+                new JPAQuery<Void>().from(cat).orderBy(cat.name.asc(), cat.id.desc()).seekAfter("Bob", 5).toString());
+    }
+
 }
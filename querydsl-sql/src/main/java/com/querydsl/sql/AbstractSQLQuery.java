@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import javax.annotation.Nullable;
 import javax.inject.Provider;
@@ -30,7 +32,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.*;
 import com.querydsl.core.support.QueryMixin;
@@ -39,6 +47,7 @@ import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.core.util.ResultSetAdapter;
+import com.querydsl.sql.types.Type;
 
 /**
  * {@code AbstractSQLQuery} is the base type for SQL query implementations
@@ -52,8 +61,22 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
     protected static final String PARENT_CONTEXT = AbstractSQLQuery.class.getName() + "#PARENT_CONTEXT";
 
+    /**
+     * Key of the listener context data, which holds the context of the calling thread for queries
+     * which are executed asynchronously
+     */
+    public static final String ASYNC_CONTEXT = AbstractSQLQuery.class.getName() + "#ASYNC_CONTEXT";
+
+    /**
+     * Key of the listener context data, which holds the amount of rows read by a query as a
+     * {@code Long} at the end of the query
+     */
+    public static final String ROW_COUNT = AbstractSQLQuery.class.getName() + "#ROW_COUNT";
+
     private static final Logger logger = LoggerFactory.getLogger(AbstractSQLQuery.class);
 
+    private static final int PARTITION_CHUNK_SIZE = 1000;
+
     private static final QueryFlag rowCountFlag = new QueryFlag(QueryFlag.Position.AFTER_PROJECTION, ", count(*) over() ");
 
     @Nullable
@@ -72,8 +95,13 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
     private SQLListenerContext parentContext;
 
+    @Nullable
+    private SQLListenerContext asyncContext;
+
     private StatementOptions statementOptions = StatementOptions.DEFAULT;
 
+    private boolean recordConstantSources;
+
     public AbstractSQLQuery(@Nullable Connection conn, Configuration configuration) {
         this(conn, configuration, new DefaultQueryMetadata());
     }
@@ -198,12 +226,69 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
     protected SQLSerializer createSerializer() {
         SQLSerializer serializer = new SQLSerializer(configuration);
         serializer.setUseLiterals(useLiterals);
+        if (recordConstantSources) {
+            serializer.recordConstantSources();
+        }
         return serializer;
     }
 
-    @Nullable
-    private <U> U get(ResultSet rs, Expression<?> expr, int i, Class<U> type) throws SQLException {
-        return configuration.get(rs, expr instanceof Path ? (Path<?>) expr : null, i, type);
+    /**
+     * Serialize the query or bind the constants to the cached plan of the query shape
+     *
+     * @param context listener context
+     * @param forCountRow true, for count queries
+     * @return SQL string, constants and constant paths
+     */
+    private SerializedQuery serializeQuery(SQLListenerContext context, boolean forCountRow) {
+        SQLQueryPlanCache cache = configuration.getQueryPlanCache();
+        if (cache == null || useLiterals || union != null) {
+            return new SerializedQuery(serialize(forCountRow));
+        }
+        SQLQueryShape shape = SQLQueryShape.of(configuration.getTemplates(), getClass(),
+                queryMixin.getMetadata(), forCountRow);
+        SQLQueryPlan plan = cache.get(shape);
+        if (plan != null && plan != SQLQueryPlan.UNCACHEABLE) {
+            context.setData(SQLQueryPlanCache.CONTEXT_HIT, Boolean.TRUE);
+            return new SerializedQuery(plan.getSQL(), plan.bind(shape), plan.getConstantPaths());
+        }
+        context.setData(SQLQueryPlanCache.CONTEXT_HIT, Boolean.FALSE);
+        SQLSerializer serializer;
+        recordConstantSources = plan == null;
+        try {
+            serializer = serialize(forCountRow);
+        } finally {
+            recordConstantSources = false;
+        }
+        if (plan == null) {
+            plan = SQLQueryPlan.create(shape, serializer);
+            cache.put(shape, plan != null ? plan : SQLQueryPlan.UNCACHEABLE);
+        }
+        return new SerializedQuery(serializer);
+    }
+
+    /**
+     * Resolve the type used to read the values of the given expression
+     *
+     * @param expr projection element
+     * @return type
+     */
+    @SuppressWarnings("unchecked")
+    private <U> Type<U> getType(Expression<U> expr) {
+        return configuration.getType(expr instanceof Path ? (Path<?>) expr : null, (Class<U>) expr.getType());
+    }
+
+    /**
+     * Resolve the types used to read the values of the given projection elements once per query
+     *
+     * @param args projection elements, nested factory expressions are already expanded
+     * @return types in column order
+     */
+    private Type<?>[] getTypes(List<Expression<?>> args) {
+        Type<?>[] types = new Type<?>[args.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = getType(args.get(i));
+        }
+        return types;
     }
 
     private void set(PreparedStatement stmt, Path<?> path, int i, Object value) throws SQLException {
@@ -222,6 +307,9 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         if (parentContext != null) {
             context.setData(PARENT_CONTEXT, parentContext);
         }
+        if (asyncContext != null) {
+            context.setData(ASYNC_CONTEXT, asyncContext);
+        }
         listeners.start(context);
         return context;
     }
@@ -271,22 +359,26 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         final SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
         String queryString = null;
         List<Object> constants = ImmutableList.of();
+        List<InListTable> inListTables = ImmutableList.of();
 
         try {
             listeners.preRender(context);
-            SQLSerializer serializer = serialize(false);
-            queryString = serializer.toString();
-            logQuery(queryString, serializer.getConstants());
+            SerializedQuery serialized = serializeQuery(context, false);
+            queryString = serialized.sql;
+            logQuery(queryString, serialized.constants);
             context.addSQL(queryString);
             listeners.rendered(context);
 
             listeners.notifyQuery(queryMixin.getMetadata());
 
-            constants = serializer.getConstants();
+            constants = serialized.constants;
+            inListTables = serialized.inListTables;
+            final List<InListTable> tables = inListTables;
 
             listeners.prePrepare(context);
+            createInListTables(tables);
             final PreparedStatement stmt = getPreparedStatement(queryString);
-            setParameters(stmt, constants, serializer.getConstantPaths(), getMetadata().getParams());
+            setParameters(stmt, constants, serialized.constantPaths, getMetadata().getParams());
             context.addPreparedStatement(stmt);
             listeners.prepared(context);
 
@@ -301,6 +393,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                         super.close();
                     } finally {
                         stmt.close();
+                        dropInListTables(tables);
                         reset();
                         endContext(context);
                     }
@@ -308,12 +401,60 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
             };
         } catch (SQLException e) {
             onException(context, e);
+            dropInListTables(inListTables);
             reset();
             endContext(context);
             throw configuration.translate(queryString, constants, e);
         }
     }
 
+    private void createInListTables(List<InListTable> tables) throws SQLException {
+        for (InListTable table : tables) {
+            table.create(connection(), configuration);
+        }
+    }
+
+    private void dropInListTables(List<InListTable> tables) {
+        for (InListTable table : tables) {
+            try {
+                table.drop(connection(), configuration.getTemplates());
+            } catch (SQLException e) {
+                logger.error("Caught " + e.getClass().getName() + " when dropping " + table.getName(), e);
+            }
+        }
+    }
+
+    private CloseableIterator<T> dropOnClose(final CloseableIterator<T> iterator, final List<InListTable> tables) {
+        if (tables.isEmpty()) {
+            return iterator;
+        }
+        return new CloseableIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+
+            @Override
+            public void close() {
+                try {
+                    iterator.close();
+                } finally {
+                    dropInListTables(tables);
+                }
+            }
+        };
+    }
+
     private PreparedStatement getPreparedStatement(String queryString) throws SQLException {
         PreparedStatement statement = connection().prepareStatement(queryString);
         if (statementOptions.getFetchSize() != null) {
@@ -347,22 +488,25 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
         String queryString = null;
         List<Object> constants = ImmutableList.of();
+        List<InListTable> inListTables = ImmutableList.of();
 
         try {
             listeners.preRender(context);
-            SQLSerializer serializer = serialize(false);
-            queryString = serializer.toString();
-            logQuery(queryString, serializer.getConstants());
+            SerializedQuery serialized = serializeQuery(context, false);
+            queryString = serialized.sql;
+            logQuery(queryString, serialized.constants);
             context.addSQL(queryString);
             listeners.rendered(context);
 
 
             listeners.notifyQuery(queryMixin.getMetadata());
-            constants = serializer.getConstants();
+            constants = serialized.constants;
+            inListTables = serialized.inListTables;
 
             listeners.prePrepare(context);
+            createInListTables(inListTables);
             final PreparedStatement stmt = getPreparedStatement(queryString);
-            setParameters(stmt, constants, serializer.getConstantPaths(), metadata.getParams());
+            setParameters(stmt, constants, serialized.constantPaths, metadata.getParams());
             context.addPreparedStatement(stmt);
             listeners.prepared(context);
 
@@ -370,22 +514,24 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
             final ResultSet rs = stmt.executeQuery();
             listeners.executed(context);
 
+            CloseableIterator<T> iterator;
             if (expr == null) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                iterator = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
                         return (T) rs.getObject(1);
                     }
                 };
             } else if (expr instanceof FactoryExpression) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                final Type<?>[] types = getTypes(((FactoryExpression<T>) expr).getArgs());
+                iterator = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
-                        return newInstance((FactoryExpression<T>) expr, rs, 0);
+                        return newInstance((FactoryExpression<T>) expr, types, rs, 0);
                     }
                 };
             } else if (expr.equals(Wildcard.all)) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                iterator = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
                         Object[] rv = new Object[rs.getMetaData().getColumnCount()];
@@ -396,20 +542,24 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                     }
                 };
             } else {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                final Type<T> type = getType(expr);
+                iterator = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
-                        return get(rs, expr, 1, expr.getType());
+                        return type.getValue(rs, 1);
                     }
                 };
             }
+            return dropOnClose(iterator, inListTables);
 
         } catch (SQLException e) {
             onException(context, e);
+            dropInListTables(inListTables);
             endContext(context);
             throw configuration.translate(queryString, constants, e);
         } catch (RuntimeException e) {
             logger.error("Caught " + e.getClass().getName() + " for " + queryString);
+            dropInListTables(inListTables);
             throw e;
         } finally {
             reset();
@@ -423,22 +573,25 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
         String queryString = null;
         List<Object> constants = ImmutableList.of();
+        List<InListTable> inListTables = ImmutableList.of();
 
         try {
             listeners.preRender(context);
-            SQLSerializer serializer = serialize(false);
-            queryString = serializer.toString();
-            logQuery(queryString, serializer.getConstants());
+            SerializedQuery serialized = serializeQuery(context, false);
+            queryString = serialized.sql;
+            logQuery(queryString, serialized.constants);
             context.addSQL(queryString);
             listeners.rendered(context);
 
             listeners.notifyQuery(queryMixin.getMetadata());
-            constants = serializer.getConstants();
+            constants = serialized.constants;
+            inListTables = serialized.inListTables;
 
             listeners.prePrepare(context);
+            createInListTables(inListTables);
             final PreparedStatement stmt = getPreparedStatement(queryString);
             try {
-                setParameters(stmt, constants, serializer.getConstantPaths(), queryMixin.getMetadata().getParams());
+                setParameters(stmt, constants, serialized.constantPaths, queryMixin.getMetadata().getParams());
                 context.addPreparedStatement(stmt);
                 listeners.prepared(context);
 
@@ -450,12 +603,13 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                     final List<T> rv = new ArrayList<T>();
                     if (expr instanceof FactoryExpression) {
                         FactoryExpression<T> fe = (FactoryExpression<T>) expr;
+                        Type<?>[] types = getTypes(fe.getArgs());
                         while (rs.next()) {
                             if (getLastCell) {
-                                lastCell = rs.getObject(fe.getArgs().size() + 1);
+                                lastCell = rs.getObject(types.length + 1);
                                 getLastCell = false;
                             }
-                            rv.add(newInstance(fe, rs, 0));
+                            rv.add(newInstance(fe, types, rs, 0));
                         }
                     } else if (expr.equals(Wildcard.all)) {
                         while (rs.next()) {
@@ -470,14 +624,16 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                             rv.add((T) row);
                         }
                     } else {
+                        Type<T> type = getType(expr);
                         while (rs.next()) {
                             if (getLastCell) {
                                 lastCell = rs.getObject(2);
                                 getLastCell = false;
                             }
-                            rv.add(get(rs, expr, 1, expr.getType()));
+                            rv.add(type.getValue(rs, 1));
                         }
                     }
+                    context.setData(ROW_COUNT, (long) rv.size());
                     return rv;
                 } catch (IllegalAccessException e) {
                     onException(context, e);
@@ -501,6 +657,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
             onException(context, e);
             throw configuration.translate(queryString, constants, e);
         } finally {
+            dropInListTables(inListTables);
             endContext(context);
             reset();
         }
@@ -553,11 +710,308 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         }
     }
 
-    private <RT> RT newInstance(FactoryExpression<RT> c, ResultSet rs, int offset)
+    /**
+     * Get the projection as a list asynchronously
+     *
+     * <p>The query is executed on a clone of this query with a connection of the connection provider
+     * of this query, using the executor of the configuration. The listeners of this query and the
+     * MDC of the calling thread are propagated to the executing thread. A listener context without
+     * a connection is started in the calling thread and ended when the returned future completes,
+     * the contexts of the executing thread refer to it via {@link #ASYNC_CONTEXT}.</p>
+     *
+     * @return results
+     * @throws IllegalStateException if this query has no connection provider
+     * @see Configuration#setExecutor(java.util.concurrent.Executor)
+     */
+    public ListenableFuture<List<T>> fetchAsync() {
+        SQLListenerContextImpl context = startAsyncContext();
+        try {
+            return endContextOnCompletion(context, fetchAsync(context));
+        } catch (RuntimeException e) {
+            onException(context, e);
+            endContext(context);
+            throw e;
+        }
+    }
+
+    private ListenableFuture<List<T>> fetchAsync(SQLListenerContext context) {
+        final Q query = asyncClone(context);
+        return submit(new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return query.fetch();
+            }
+        });
+    }
+
+    /**
+     * Get the projection as a unique result asynchronously
+     *
+     * @return result
+     * @throws IllegalStateException if this query has no connection provider
+     * @see #fetchAsync()
+     */
+    public ListenableFuture<T> fetchOneAsync() {
+        SQLListenerContextImpl context = startAsyncContext();
+        try {
+            final Q query = asyncClone(context);
+            return endContextOnCompletion(context, submit(new Callable<T>() {
+                @Override
+                public T call() {
+                    return query.fetchOne();
+                }
+            }));
+        } catch (RuntimeException e) {
+            onException(context, e);
+            endContext(context);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the count of matched elements asynchronously
+     *
+     * @return row count
+     * @throws IllegalStateException if this query has no connection provider
+     * @see #fetchAsync()
+     */
+    public ListenableFuture<Long> fetchCountAsync() {
+        SQLListenerContextImpl context = startAsyncContext();
+        try {
+            return endContextOnCompletion(context, fetchCountAsync(context));
+        } catch (RuntimeException e) {
+            onException(context, e);
+            endContext(context);
+            throw e;
+        }
+    }
+
+    private ListenableFuture<Long> fetchCountAsync(SQLListenerContext context) {
+        final Q query = asyncClone(context);
+        return submit(new Callable<Long>() {
+            @Override
+            public Long call() {
+                return query.fetchCount();
+            }
+        });
+    }
+
+    /**
+     * Get the projection in {@link QueryResults} form asynchronously
+     *
+     * <p>Unlike {@link #fetchResults()}, the count and page queries are executed concurrently
+     * on separate connections.</p>
+     *
+     * @return results
+     * @throws IllegalStateException if this query has no connection provider
+     * @see #fetchAsync()
+     */
+    public ListenableFuture<QueryResults<T>> fetchResultsAsync() {
+        final QueryModifiers modifiers = queryMixin.getMetadata().getModifiers();
+        SQLListenerContextImpl context = startAsyncContext();
+        try {
+            ListenableFuture<List<T>> results = fetchAsync(context);
+            ListenableFuture<Long> total = fetchCountAsync(context);
+            List<ListenableFuture<?>> futures = ImmutableList.<ListenableFuture<?>>of(results, total);
+            return endContextOnCompletion(context, Futures.transform(Futures.<Object>allAsList(futures),
+                    new Function<List<Object>, QueryResults<T>>() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public QueryResults<T> apply(List<Object> input) {
+                    long total = (Long) input.get(1);
+                    if (total > 0) {
+                        return new QueryResults<T>((List<T>) input.get(0), modifiers, total);
+                    } else {
+                        return QueryResults.<T>emptyResults();
+                    }
+                }
+            }, MoreExecutors.directExecutor()));
+        } catch (RuntimeException e) {
+            onException(context, e);
+            endContext(context);
+            throw e;
+        }
+    }
+
+    /**
+     * Iterate over the results of this query in partitions, which are read concurrently
+     *
+     * @param path numeric or date path to partition by
+     * @param partitions maximum amount of partitions
+     * @return results
+     * @see #iteratePartitioned(Path, int, boolean)
+     */
+    public CloseableIterator<T> iteratePartitioned(Path<? extends Comparable<?>> path, int partitions) {
+        return iteratePartitioned(path, partitions, false);
+    }
+
+    /**
+     * Iterate over the results of this query in partitions, which are read concurrently
+     *
+     * <p>The minimum and maximum of the given path are probed first and the range between them is
+     * split into partitions of equal width. Each partition is queried with a clone of this query
+     * and a connection of the connection provider on the executor of the configuration, rows with
+     * a null value of the path form an additional partition. The rows of a partition are read chunk
+     * by chunk, the next chunk is read while the current one is consumed.</p>
+     *
+     * <p>Rows are returned partition by partition, unless an ordered merge is requested. The ordered
+     * merge compares the values of the order targets in Java, so it is only consistent with the
+     * database order for values with a natural order, and nulls are sorted first, unless
+     * {@link OrderSpecifier#nullsLast()} is used.</p>
+     *
+     * @param path numeric or date path to partition by
+     * @param partitions maximum amount of partitions
+     * @param ordered true, to merge the partitions in the order of this query
+     * @return results
+     * @throws IllegalStateException if this query has no connection provider, is restricted by
+     *                               limit or offset or is to be merged without an order
+     * @see Configuration#setExecutor(java.util.concurrent.Executor)
+     */
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<T> iteratePartitioned(Path<? extends Comparable<?>> path, int partitions,
+            boolean ordered) {
+        QueryMetadata metadata = queryMixin.getMetadata();
+        final List<OrderSpecifier<?>> order = ordered ? metadata.getOrderBy() : ImmutableList.<OrderSpecifier<?>>of();
+        Expression<T> projection = (Expression<T>) metadata.getProjection();
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Illegal partition count " + partitions);
+        } else if (projection == null) {
+            throw new IllegalStateException("Partitioned queries require a projection");
+        } else if (metadata.getModifiers().isRestricting()) {
+            throw new IllegalStateException("Partitioned queries don't support limit and offset");
+        } else if (ordered && order.isEmpty()) {
+            throw new IllegalStateException("Ordered merge requires an order");
+        }
+
+        // probe the range of the path
+        Q probe = asyncClone();
+        probe.getMetadata().clearOrderBy();
+        Tuple range = probe.select(Projections.tuple(
+                ExpressionUtils.operation(path.getType(), Ops.AggOps.MIN_AGG, path),
+                ExpressionUtils.operation(path.getType(), Ops.AggOps.MAX_AGG, path),
+                Wildcard.count,
+                ExpressionUtils.operation(Long.class, Ops.AggOps.COUNT_AGG, path))).fetchOne();
+        List<Predicate> conditions = new ArrayList<Predicate>();
+        if (range != null && range.get(0, Object.class) != null) {
+            conditions.addAll(RangePartitions.split(path, range.get(0, Object.class), range.get(1, Object.class),
+                    partitions));
+        }
+        if (range != null && range.get(2, Long.class) > range.get(3, Long.class)) {
+            conditions.add(ExpressionUtils.isNull(path));
+        }
+
+        ImmutableList.Builder<Expression<?>> exprs = ImmutableList.builder();
+        exprs.add(projection);
+        for (OrderSpecifier<?> os : order) {
+            exprs.add(os.getTarget());
+        }
+        final Expression<Tuple> rowProjection = Projections.tuple(exprs.build());
+        Integer fetchSize = statementOptions.getFetchSize();
+        int chunkSize = fetchSize != null && fetchSize > 0 ? fetchSize : PARTITION_CHUNK_SIZE;
+        List<CloseableIterator<Tuple>> iterators = new ArrayList<CloseableIterator<Tuple>>(conditions.size());
+        try {
+            for (Predicate condition : conditions) {
+                final Q query = asyncClone();
+                query.where(condition);
+                iterators.add(new PrefetchingIterator<Tuple>(configuration.getExecutor(),
+                        new Callable<CloseableIterator<Tuple>>() {
+                    @Override
+                    public CloseableIterator<Tuple> call() {
+                        return query.select(rowProjection).iterate();
+                    }
+                }, chunkSize));
+            }
+        } catch (RuntimeException e) {
+            for (CloseableIterator<Tuple> iterator : iterators) {
+                iterator.close();
+            }
+            throw e;
+        }
+        return new PartitionedIterator<T>(iterators, projection, order);
+    }
+
+    private Q asyncClone() {
+        if (connProvider == null) {
+            throw new IllegalStateException("Asynchronous queries require a connection provider");
+        }
+        return clone((Connection) null);
+    }
+
+    private Q asyncClone(SQLListenerContext context) {
+        Q query = asyncClone();
+        ((AbstractSQLQuery<?, ?>) query).asyncContext = context;
+        return query;
+    }
+
+    private SQLListenerContextImpl startAsyncContext() {
+        if (connProvider == null) {
+            throw new IllegalStateException("Asynchronous queries require a connection provider");
+        }
+        return startContext(null, queryMixin.getMetadata());
+    }
+
+    private <R> ListenableFuture<R> endContextOnCompletion(final SQLListenerContextImpl context,
+            ListenableFuture<R> future) {
+        Futures.addCallback(future, new FutureCallback<R>() {
+            @Override
+            public void onSuccess(R result) {
+                endContext(context);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (t instanceof Exception) {
+                    onException(context, (Exception) t);
+                }
+                endContext(context);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private <R> ListenableFuture<R> submit(Callable<R> callable) {
+        return submit(configuration.getExecutor(), callable);
+    }
+
+    /**
+     * Submit the given task to the given executor with the MDC of the calling thread
+     *
+     * @param executor executor
+     * @param callable task
+     * @return result
+     */
+    @SuppressWarnings("unchecked")
+    static <R> ListenableFuture<R> submit(Executor executor, final Callable<R> callable) {
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ListenableFutureTask<R> task = ListenableFutureTask.create(new Callable<R>() {
+            @Override
+            public R call() throws Exception {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                setContextMap(mdc);
+                try {
+                    return callable.call();
+                } finally {
+                    setContextMap(previous);
+                }
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    private static void setContextMap(@Nullable Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    private <RT> RT newInstance(FactoryExpression<RT> c, Type<?>[] types, ResultSet rs, int offset)
         throws InstantiationException, IllegalAccessException, InvocationTargetException, SQLException {
-        Object[] args = new Object[c.getArgs().size()];
+        Object[] args = new Object[types.length];
         for (int i = 0; i < args.length; i++) {
-            args[i] = get(rs, c.getArgs().get(i), offset + i + 1, c.getArgs().get(i).getType());
+            args[i] = types[i].getValue(rs, offset + i + 1);
         }
         return c.newInstance(args);
     }
@@ -592,22 +1046,25 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         SQLListenerContextImpl context = startContext(connection(), getMetadata());
         String queryString = null;
         List<Object> constants = ImmutableList.of();
+        List<InListTable> inListTables = ImmutableList.of();
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
             listeners.preRender(context);
-            SQLSerializer serializer = serialize(true);
-            queryString = serializer.toString();
-            logQuery(queryString, serializer.getConstants());
+            SerializedQuery serialized = serializeQuery(context, true);
+            queryString = serialized.sql;
+            logQuery(queryString, serialized.constants);
             context.addSQL(queryString);
             listeners.rendered(context);
 
-            constants = serializer.getConstants();
+            constants = serialized.constants;
+            inListTables = serialized.inListTables;
             listeners.prePrepare(context);
 
+            createInListTables(inListTables);
             stmt = getPreparedStatement(queryString);
-            setParameters(stmt, constants, serializer.getConstantPaths(), getMetadata().getParams());
+            setParameters(stmt, constants, serialized.constantPaths, getMetadata().getParams());
 
             context.addPreparedStatement(stmt);
             listeners.prepared(context);
@@ -634,6 +1091,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                 if (stmt != null) {
                     stmt.close();
                 }
+                dropInListTables(inListTables);
             }
             endContext(context);
             cleanupMDC();
@@ -682,6 +1140,10 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         super.clone(query);
         this.useLiterals = query.useLiterals;
         this.listeners = new SQLListeners(query.listeners);
+        if (this.conn == null) {
+            this.connProvider = ((AbstractSQLQuery<?, ?>) query).connProvider;
+        }
+        this.statementOptions = ((AbstractSQLQuery<?, ?>) query).statementOptions;
     }
 
     @Override
@@ -691,6 +1153,35 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
     public abstract Q clone(Connection connection);
 
+    private static final class SerializedQuery {
+
+        private final String sql;
+
+        private final List<Object> constants;
+
+        private final List<Path<?>> constantPaths;
+
+        private final List<InListTable> inListTables;
+
+        SerializedQuery(SQLSerializer serializer) {
+            this(serializer.toString(), serializer.getConstants(), serializer.getConstantPaths(),
+                    serializer.getInListTables());
+        }
+
+        SerializedQuery(String sql, List<Object> constants, List<Path<?>> constantPaths) {
+            this(sql, constants, constantPaths, ImmutableList.<InListTable>of());
+        }
+
+        SerializedQuery(String sql, List<Object> constants, List<Path<?>> constantPaths,
+                List<InListTable> inListTables) {
+            this.sql = sql;
+            this.constants = constants;
+            this.constantPaths = constantPaths;
+            this.inListTables = inListTables;
+        }
+
+    }
+
     /**
      * Set the options to be applied to the JDBC statements of this query
      *
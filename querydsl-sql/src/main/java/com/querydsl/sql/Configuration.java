@@ -14,12 +14,18 @@
 package com.querydsl.sql;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
@@ -29,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Primitives;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.querydsl.core.types.Path;
 import com.querydsl.sql.types.ArrayType;
 import com.querydsl.sql.types.Null;
@@ -60,10 +67,22 @@ public final class Configuration {
 
     private final SQLListeners listeners = new SQLListeners();
 
-    private boolean hasTableColumnTypes = false;
+    private volatile boolean hasTableColumnTypes = false;
 
     private boolean useLiterals = false;
 
+    private boolean inListPadding = false;
+
+    private boolean inListArrayBinding = false;
+
+    private int largeInListThreshold = 0;
+
+    @Nullable
+    private SQLQueryPlanCache queryPlanCache;
+
+    @Nullable
+    private Executor executor;
+
     /**
      * Create a new Configuration instance
      *
@@ -240,8 +259,15 @@ public final class Configuration {
         }
     }
 
+    /**
+     * Get the type to be used for the given path and class
+     *
+     * @param path path or null
+     * @param clazz class
+     * @return type
+     */
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
+    <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
         if (hasTableColumnTypes && path != null && !clazz.equals(Null.class)
                 && path.getMetadata().getParent() instanceof RelationalPath) {
             String table = ((RelationalPath) path.getMetadata().getParent()).getTableName();
@@ -290,6 +316,7 @@ public final class Configuration {
      * @return previous override value
      */
     public String registerSchemaOverride(String oldSchema, String newSchema) {
+        clearQueryPlanCache();
         return nameMapping.registerSchemaOverride(oldSchema, newSchema);
     }
 
@@ -301,6 +328,7 @@ public final class Configuration {
      * @return previous override value
      */
     public String registerTableOverride(String oldTable, String newTable) {
+        clearQueryPlanCache();
         return nameMapping.registerTableOverride(oldTable, newTable);
     }
 
@@ -338,6 +366,7 @@ public final class Configuration {
      * @return previous override
      */
     public SchemaAndTable registerTableOverride(SchemaAndTable from, SchemaAndTable to) {
+        clearQueryPlanCache();
         return nameMapping.registerTableOverride(from, to);
     }
 
@@ -351,6 +380,7 @@ public final class Configuration {
      * @return previous override
      */
     public String registerColumnOverride(String schema, String table, String oldColumn, String newColumn) {
+        clearQueryPlanCache();
         return nameMapping.registerColumnOverride(schema, table, oldColumn, newColumn);
     }
 
@@ -363,6 +393,7 @@ public final class Configuration {
      * @return previous override
      */
     public String registerColumnOverride(String table, String oldColumn, String newColumn) {
+        clearQueryPlanCache();
         return nameMapping.registerColumnOverride(table, oldColumn, newColumn);
     }
 
@@ -372,8 +403,10 @@ public final class Configuration {
      * @param type type
      */
     public void register(Type<?> type) {
+        checkNotFrozen();
         jdbcTypeMapping.register(type.getSQLTypes()[0], type.getReturnedClass());
         javaTypeMapping.register(type);
+        clearQueryPlanCache();
     }
 
     /**
@@ -383,7 +416,9 @@ public final class Configuration {
      * @param clazz java type
      */
     public void registerType(String typeName, Class<?> clazz) {
+        checkNotFrozen();
         typeToName.put(typeName.toLowerCase(), clazz);
+        clearQueryPlanCache();
     }
 
     /**
@@ -394,7 +429,9 @@ public final class Configuration {
      * @param javaType java type
      */
     public void registerNumeric(int total, int decimal, Class<?> javaType) {
+        checkNotFrozen();
         jdbcTypeMapping.registerNumeric(total, decimal, javaType);
+        clearQueryPlanCache();
     }
 
     /**
@@ -433,8 +470,10 @@ public final class Configuration {
      * @param type type
      */
     public void register(String table, String column, Type<?> type) {
+        checkNotFrozen();
         javaTypeMapping.setType(table, column, type);
         hasTableColumnTypes = true;
+        clearQueryPlanCache();
     }
 
     /**
@@ -498,6 +537,81 @@ public final class Configuration {
         this.useLiterals = useLiterals;
     }
 
+    /**
+     * Get whether the parameters of IN lists are padded to the next power of two
+     *
+     * @return true, if padded
+     */
+    public boolean getInListPadding() {
+        return inListPadding;
+    }
+
+    /**
+     * Set whether the parameters of IN lists are padded to the next power of two (default: false)
+     *
+     * <p>The padding repeats the last value of the list, so that lists of different sizes share
+     * the same SQL string, which improves the hit rate of prepared statement caches.</p>
+     *
+     * @param inListPadding true for padding
+     */
+    public void setInListPadding(boolean inListPadding) {
+        this.inListPadding = inListPadding;
+        clearQueryPlanCache();
+    }
+
+    /**
+     * Get whether IN lists are bound as single array parameters, if supported by the templates
+     *
+     * @return true for array parameters
+     */
+    public boolean getInListArrayBinding() {
+        return inListArrayBinding;
+    }
+
+    /**
+     * Set whether IN lists are bound as single array parameters (default: false)
+     *
+     * <p>If the templates support it, {@code path in (?, ?, ...)} is serialized as
+     * {@code path = any(?)} and the values are bound as an array of the path type. Lists of
+     * element types without a registered array type are still expanded.</p>
+     *
+     * @param inListArrayBinding true for array parameters
+     * @see SQLTemplates#isInArraySupported()
+     */
+    public void setInListArrayBinding(boolean inListArrayBinding) {
+        this.inListArrayBinding = inListArrayBinding;
+        clearQueryPlanCache();
+    }
+
+    /**
+     * Get the size above which IN lists are rewritten into VALUES or temporary table sub queries
+     *
+     * @return threshold or zero, if disabled
+     */
+    public int getLargeInListThreshold() {
+        return largeInListThreshold;
+    }
+
+    /**
+     * Set the size above which IN lists are rewritten into VALUES or temporary table sub queries
+     * (default: 0)
+     *
+     * <p>If the templates support it, {@code path in (?, ?, ...)} is serialized as
+     * {@code path in (select v.c from (values (?), (?), ...) v(c))}, which avoids the splitting of
+     * the list into OR'ed chunks. The values are still bound one by one, so if they would exceed
+     * the parameter limit of the templates, or the templates don't support VALUES, but temporary
+     * tables, the values are inserted into a session scoped temporary table in a batch before the
+     * query is executed and the table is dropped afterwards. Use 0 to disable the rewrite.</p>
+     *
+     * @param largeInListThreshold threshold
+     * @see SQLTemplates#isValuesSupported()
+     * @see SQLTemplates#getCreateTemporaryTable()
+     */
+    public void setLargeInListThreshold(int largeInListThreshold) {
+        this.largeInListThreshold = largeInListThreshold;
+        clearQueryPlanCache();
+    }
+
     /**
      * Set the exception translator
      *
@@ -514,6 +628,106 @@ public final class Configuration {
      */
     public void setTemplates(SQLTemplates templates) {
         this.templates = templates;
+        clearQueryPlanCache();
+    }
+
+    /**
+     * Set the maximum amount of rendered query plans to be cached (default: 0)
+     *
+     * <p>Queries which differ only in the values of their constants share the rendered SQL string
+     * of the cached plan, only the constants are bound again. Use 0 to disable the cache.</p>
+     *
+     * @param maximumSize maximum size of the cache
+     */
+    public void setQueryPlanCacheSize(int maximumSize) {
+        this.queryPlanCache = maximumSize > 0 ? new SQLQueryPlanCache(maximumSize) : null;
+    }
+
+    /**
+     * Get the query plan cache
+     *
+     * @return cache or null, if disabled
+     */
+    @Nullable
+    public SQLQueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
+    /**
+     * Get the executor of asynchronous queries
+     *
+     * <p>If no executor has been set, a virtual thread per task executor is used when the runtime
+     * provides one, otherwise a shared pool of daemon threads, bounded to twice the number of
+     * processors. Set an executor to control the concurrency of the queries, for example to
+     * match the size of the connection pool.</p>
+     *
+     * @return executor
+     */
+    public Executor getExecutor() {
+        return executor != null ? executor : DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Set the executor of asynchronous queries
+     *
+     * @param executor executor or null for the default
+     * @see AbstractSQLQuery#fetchAsync()
+     */
+    public void setExecutor(@Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Freeze the type registrations of this configuration
+     *
+     * <p>The types of the registered classes are resolved in advance and further type
+     * registrations fail with an {@link IllegalStateException}. Call this after the setup of
+     * a configuration which is shared between threads.</p>
+     */
+    public void freeze() {
+        javaTypeMapping.freeze();
+    }
+
+    /**
+     * Get whether the type registrations of this configuration are frozen
+     *
+     * @return true, if frozen
+     */
+    public boolean isFrozen() {
+        return javaTypeMapping.isFrozen();
+    }
+
+    private void checkNotFrozen() {
+        if (javaTypeMapping.isFrozen()) {
+            throw new IllegalStateException("Type registrations are frozen");
+        }
+    }
+
+    private void clearQueryPlanCache() {
+        if (queryPlanCache != null) {
+            queryPlanCache.clear();
+        }
+    }
+
+    private static final class DefaultExecutor {
+
+        static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) method.invoke(null);
+            } catch (Exception e) {
+                // virtual threads are not available
+                int threads = 2 * Runtime.getRuntime().availableProcessors();
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("querydsl-sql-%d").build());
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+            }
+        }
+
     }
 
 }
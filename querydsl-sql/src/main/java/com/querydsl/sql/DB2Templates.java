@@ -62,6 +62,8 @@ public class DB2Templates extends SQLTemplates {
 
     public DB2Templates(char escape, boolean quote) {
         super(Keywords.DB2, "\"", escape, quote);
+        setValuesSupported(true);
+        setWrapValuesParameters(true);
         setDummyTable("sysibm.sysdummy1");
         setAutoIncrement(" generated always as identity");
         setFunctionJoinsWrapped(true);
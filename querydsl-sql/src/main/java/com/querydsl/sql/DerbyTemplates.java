@@ -55,6 +55,8 @@ public class DerbyTemplates extends SQLTemplates {
 
     public DerbyTemplates(char escape, boolean quote) {
         super(Keywords.DERBY, "\"", escape, quote);
+        setValuesSupported(true);
+        setWrapValuesParameters(true);
         setDummyTable("sysibm.sysdummy1");
         setAutoIncrement(" generated always as identity");
         setFunctionJoinsWrapped(true);
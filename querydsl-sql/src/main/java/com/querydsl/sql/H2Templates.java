@@ -48,9 +48,13 @@ public class H2Templates extends SQLTemplates {
     public H2Templates(char escape, boolean quote) {
         super(Keywords.H2, "\"", escape, quote);
         setNativeMerge(true);
+        setNativeMergeSupported(true);
         setMaxLimit(2 ^ 31);
         setLimitRequired(true);
         setCountDistinctMultipleColumns(true);
+        setInArraySupported(true);
+        setValuesSupported(true);
+        setRowValueComparisonSupported(true);
 
         setPrecedence(Precedence.ARITH_LOW + 1, Ops.CONCAT);
         setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
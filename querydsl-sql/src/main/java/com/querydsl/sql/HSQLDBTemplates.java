@@ -47,6 +47,8 @@ public class HSQLDBTemplates extends SQLTemplates {
 
     public HSQLDBTemplates(char escape, boolean quote) {
         super(Keywords.HSQLDB, "\"", escape, quote);
+        setValuesSupported(true);
+        setRowValueComparisonSupported(true);
         setLimitRequired(true);
         setAutoIncrement(" identity");
         setDefaultValues("\ndefault values");
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.querydsl.core.types.Path;
+
+/**
+ * {@code InListTable} is a session scoped temporary table, which holds the values of a large IN list
+ *
+ * @see Configuration#setLargeInListThreshold(int)
+ */
+final class InListTable {
+
+    private static final AtomicLong counter = new AtomicLong();
+
+    private static final int BATCH_SIZE = 1000;
+
+    static final String COLUMN = "c";
+
+    private final String name;
+
+    private final Path<?> path;
+
+    private final Collection<?> values;
+
+    private boolean created;
+
+    InListTable(String prefix, Path<?> path, Collection<?> values) {
+        this.name = prefix + "querydsl_in_" + counter.incrementAndGet();
+        this.path = path;
+        this.values = values;
+    }
+
+    /**
+     * Get the name of the table
+     *
+     * @return table name
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Get the SQL type of the given values, strings are sized to the longest value
+     *
+     * @param configuration configuration
+     * @param type java type of the values
+     * @param values values
+     * @return SQL type name
+     */
+    static String getTypeName(Configuration configuration, Class<?> type, Collection<?> values) {
+        String typeName = configuration.getTypeName(type);
+        if (String.class.equals(type)) {
+            int length = 1;
+            for (Object value : values) {
+                if (value != null) {
+                    length = Math.max(length, value.toString().length());
+                }
+            }
+            typeName += "(" + length + ")";
+        }
+        return typeName;
+    }
+
+    /**
+     * Create the table and insert the values in batches
+     *
+     * @param conn connection
+     * @param configuration configuration
+     * @throws SQLException
+     */
+    void create(Connection conn, Configuration configuration) throws SQLException {
+        SQLTemplates templates = configuration.getTemplates();
+        // the generated name is not quoted, since the temporary table prefix is part of it
+        String table = name;
+        String column = templates.quoteIdentifier(COLUMN);
+        String typeName = getTypeName(configuration, path.getType(), values);
+        Statement stmt = conn.createStatement();
+        try {
+            stmt.execute(templates.getCreateTemporaryTable() + table + " (" + column + " " + typeName + ")");
+            created = true;
+        } finally {
+            stmt.close();
+        }
+        PreparedStatement insert = conn.prepareStatement(
+                templates.getInsertInto() + table + " (" + column + ")" + templates.getValues() + "(?)");
+        try {
+            int count = 0;
+            for (Object value : values) {
+                configuration.set(insert, path, 1, value);
+                insert.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            if (count % BATCH_SIZE != 0) {
+                insert.executeBatch();
+            }
+        } finally {
+            insert.close();
+        }
+    }
+
+    /**
+     * Drop the table, if it has been created
+     *
+     * @param conn connection
+     * @param templates templates
+     * @throws SQLException
+     */
+    void drop(Connection conn, SQLTemplates templates) throws SQLException {
+        if (!created) {
+            return;
+        }
+        created = false;
+        Statement stmt = conn.createStatement();
+        try {
+            stmt.execute(templates.getDropTemporaryTable() + name);
+        } finally {
+            stmt.close();
+        }
+    }
+
+}
@@ -16,9 +16,12 @@ package com.querydsl.sql;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Primitives;
 import com.querydsl.core.util.ReflectionUtils;
 import com.querydsl.sql.types.*;
@@ -26,6 +29,8 @@ import com.querydsl.sql.types.*;
 /**
  * {@code JavaTypeMapping} provides a mapping from Class to Type instances
  *
+ * <p>Lookups are lock-free, registrations replace immutable snapshots of the mappings.</p>
+ *
  * @author tiwe
  *
  */
@@ -94,11 +99,27 @@ class JavaTypeMapping {
         }
     }
 
-    private final Map<Class<?>,Type<?>> typeByClass = new HashMap<Class<?>,Type<?>>();
+    /**
+     * Immutable view of the registered types with the resolutions made against it
+     */
+    private static final class Snapshot {
+
+        private final Map<Class<?>,Type<?>> typeByClass;
+
+        private final ConcurrentMap<Class<?>,Type<?>> resolvedTypesByClass
+                = new ConcurrentHashMap<Class<?>,Type<?>>();
+
+        Snapshot(Map<Class<?>,Type<?>> typeByClass) {
+            this.typeByClass = typeByClass;
+        }
+
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(ImmutableMap.<Class<?>,Type<?>>of());
 
-    private final Map<Class<?>,Type<?>> resolvedTypesByClass = new HashMap<Class<?>,Type<?>>();
+    private volatile Map<String, Map<String,Type<?>>> typeByColumn = ImmutableMap.of();
 
-    private final Map<String, Map<String,Type<?>>> typeByColumn = new HashMap<String,Map<String,Type<?>>>();
+    private volatile boolean frozen;
 
     @Nullable
     public Type<?> getType(String table, String column) {
@@ -112,20 +133,21 @@ class JavaTypeMapping {
 
     @SuppressWarnings("unchecked")
     public <T> Type<T> getType(Class<T> clazz) {
-        Type<?> resolvedType = resolvedTypesByClass.get(clazz);
+        Snapshot current = snapshot;
+        Type<?> resolvedType = current.resolvedTypesByClass.get(clazz);
         if (resolvedType == null) {
-            resolvedType = findType(clazz);
-            if (resolvedType != null) {
-                resolvedTypesByClass.put(clazz, resolvedType);
-            } else {
-                return (Type) DEFAULT;
+            resolvedType = findType(current.typeByClass, clazz);
+            if (resolvedType == null) {
+                resolvedType = DEFAULT;
             }
+            // resolutions are stored in the snapshot they were made against
+            current.resolvedTypesByClass.putIfAbsent(clazz, resolvedType);
         }
         return (Type<T>) resolvedType;
     }
 
     @Nullable
-    private Type<?> findType(Class<?> clazz) {
+    private static Type<?> findType(Map<Class<?>,Type<?>> typeByClass, Class<?> clazz) {
         //Look for a registered type in the class hierarchy
         Class<?> cl = clazz;
         do {
@@ -135,7 +157,7 @@ class JavaTypeMapping {
                 return defaultTypes.get(cl);
             }
             cl = cl.getSuperclass();
-        } while (!cl.equals(Object.class));
+        } while (cl != null && !cl.equals(Object.class));
 
         //Look for a registered type in any implemented interfaces
         Set<Class<?>> interfaces = ReflectionUtils.getImplementedInterfaces(clazz);
@@ -149,23 +171,54 @@ class JavaTypeMapping {
         return null;
     }
 
-    public void register(Type<?> type) {
+    public synchronized void register(Type<?> type) {
+        checkNotFrozen();
+        Map<Class<?>,Type<?>> typeByClass = new HashMap<Class<?>,Type<?>>(snapshot.typeByClass);
         typeByClass.put(type.getReturnedClass(), type);
         Class<?> primitive = Primitives.unwrap(type.getReturnedClass());
         if (primitive != null) {
             typeByClass.put(primitive, type);
         }
-        // Clear previous resolved types, so they won't impact future lookups
-        resolvedTypesByClass.clear();
+        // Start with a new resolution cache, so previous resolutions won't impact future lookups
+        snapshot = new Snapshot(ImmutableMap.copyOf(typeByClass));
     }
 
-    public void setType(String table, String column, Type<?> type) {
-        Map<String,Type<?>> columns = typeByColumn.get(table);
-        if (columns == null) {
-            columns = new HashMap<String, Type<?>>();
-            typeByColumn.put(table, columns);
+    public synchronized void setType(String table, String column, Type<?> type) {
+        checkNotFrozen();
+        Map<String, Map<String,Type<?>>> tables = new HashMap<String, Map<String,Type<?>>>(typeByColumn);
+        Map<String,Type<?>> columns = new HashMap<String,Type<?>>();
+        if (tables.containsKey(table)) {
+            columns.putAll(tables.get(table));
         }
         columns.put(column, type);
+        tables.put(table, ImmutableMap.copyOf(columns));
+        typeByColumn = ImmutableMap.copyOf(tables);
+    }
+
+    /**
+     * Resolve the types of the registered and default classes in advance and reject
+     * further registrations
+     */
+    public synchronized void freeze() {
+        if (!frozen) {
+            for (Class<?> cl : snapshot.typeByClass.keySet()) {
+                getType(cl);
+            }
+            for (Class<?> cl : defaultTypes.keySet()) {
+                getType(cl);
+            }
+            frozen = true;
+        }
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Type mapping is frozen");
+        }
     }
 
-}
\ No newline at end of file
+}
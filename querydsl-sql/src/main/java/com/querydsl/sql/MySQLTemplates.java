@@ -14,13 +14,13 @@
 package com.querydsl.sql;
 
 import java.sql.Types;
+import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.querydsl.core.QueryFlag;
 import com.querydsl.core.QueryFlag.Position;
-import com.querydsl.core.types.Expression;
-import com.querydsl.core.types.ExpressionUtils;
-import com.querydsl.core.types.Ops;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
 
 /**
  * {@code MySQLTemplates} is an SQL dialect for MySQL
@@ -67,6 +67,11 @@ public class MySQLTemplates extends SQLTemplates {
         setForShareSupported(true);
         setForShareFlag(new QueryFlag(Position.END, LOCK_IN_SHARE_MODE));
 
+        setCreateTemporaryTable("create temporary table ");
+        setDropTemporaryTable("drop temporary table ");
+        setNativeMergeSupported(true);
+        setMaxParameters(65535);
+
         setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
         setPrecedence(Precedence.CASE, Ops.BETWEEN);
 
@@ -154,6 +159,37 @@ public class MySQLTemplates extends SQLTemplates {
         addTypeNameToCode("datetime", Types.TIMESTAMP, true);
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
+            SubQueryExpression<?> subQuery, SQLSerializer context) {
+        if (!isNativeMerge()) {
+            super.serializeMerge(metadata, entity, keys, columns, values, subQuery, context);
+            return;
+        }
+        // any unique key of the table is used for the duplicate check, not only the merge keys
+        context.serializeForInsert(metadata, entity, columns, values, subQuery);
+        context.append(" on duplicate key update ");
+        List<? extends Path<?>> mergeKeys = getMergeKeys(entity, keys);
+        List<Path<?>> updates = getMergeUpdates(entity, mergeKeys, columns);
+        if (updates.isEmpty()) {
+            String column = quoteIdentifier(ColumnMetadata.getName(mergeKeys.get(0)));
+            context.append(column).append(" = ").append(column);
+        } else {
+            for (int i = 0; i < updates.size(); i++) {
+                String column = quoteIdentifier(ColumnMetadata.getName(updates.get(i)));
+                if (i > 0) {
+                    context.append(", ");
+                }
+                context.append(column).append(" = values(").append(column).append(")");
+            }
+        }
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+    }
+
     @Override
     public String escapeLiteral(String str) {
         StringBuilder builder = new StringBuilder();
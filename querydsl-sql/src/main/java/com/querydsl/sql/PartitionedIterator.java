@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
+
+/**
+ * {@code PartitionedIterator} merges the results of the partitions of a partitioned query
+ *
+ * <p>The rows of the partitions are tuples of the projection followed by the order targets.
+ * Without an order the partitions are concatenated, otherwise they are merged by comparing the
+ * values of the order targets.</p>
+ *
+ * @param <T> result type
+ * @see AbstractSQLQuery#iteratePartitioned(com.querydsl.core.types.Path, int, boolean)
+ */
+final class PartitionedIterator<T> implements CloseableIterator<T> {
+
+    private final List<CloseableIterator<Tuple>> partitions;
+
+    private final Expression<T> projection;
+
+    private final Iterator<Tuple> rows;
+
+    /**
+     * Create a new iterator
+     *
+     * @param partitions partitions
+     * @param projection projection
+     * @param order order to merge by or an empty list for concatenation
+     */
+    PartitionedIterator(List<CloseableIterator<Tuple>> partitions, Expression<T> projection,
+            List<OrderSpecifier<?>> order) {
+        this.partitions = ImmutableList.copyOf(partitions);
+        this.projection = projection;
+        if (order.isEmpty()) {
+            this.rows = Iterators.concat(this.partitions.iterator());
+        } else {
+            this.rows = Iterators.mergeSorted(this.partitions, comparator(order));
+        }
+    }
+
+    private static Comparator<Tuple> comparator(final List<OrderSpecifier<?>> order) {
+        return new Comparator<Tuple>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public int compare(Tuple t1, Tuple t2) {
+                for (int i = 0; i < order.size(); i++) {
+                    OrderSpecifier<?> os = order.get(i);
+                    Comparable<Object> v1 = t1.get(i + 1, Comparable.class);
+                    Comparable<Object> v2 = t2.get(i + 1, Comparable.class);
+                    boolean nullsLast = os.getNullHandling() == OrderSpecifier.NullHandling.NullsLast;
+                    int rv;
+                    if (v1 == null && v2 == null) {
+                        rv = 0;
+                    } else if (v1 == null) {
+                        rv = nullsLast ? 1 : -1;
+                    } else if (v2 == null) {
+                        rv = nullsLast ? -1 : 1;
+                    } else {
+                        rv = os.isAscending() ? v1.compareTo(v2) : v2.compareTo(v1);
+                    }
+                    if (rv != 0) {
+                        return rv;
+                    }
+                }
+                return 0;
+            }
+        };
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rows.hasNext();
+    }
+
+    @Override
+    public T next() {
+        return rows.next().get(projection);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        RuntimeException exception = null;
+        for (CloseableIterator<Tuple> partition : partitions) {
+            try {
+                partition.close();
+            } catch (RuntimeException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+}
@@ -14,8 +14,13 @@
 package com.querydsl.sql;
 
 import java.sql.Types;
+import java.util.List;
 
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
 
 /**
  * {@code PostgreSQLTemplates} is an SQL dialect for PostgreSQL
@@ -56,6 +61,11 @@ public class PostgreSQLTemplates extends SQLTemplates {
         setSupportsUnquotedReservedWordsAsIdentifier(true);
 
         setForShareSupported(true);
+        setInArraySupported(true);
+        setValuesSupported(true);
+        setNativeMergeSupported(true);
+        setMaxParameters(65535);
+        setRowValueComparisonSupported(true);
 
         setPrecedence(Precedence.COMPARISON - 3, Ops.IS_NULL, Ops.IS_NOT_NULL);
         setPrecedence(Precedence.COMPARISON - 2, Ops.CONCAT, Ops.MATCHES);
@@ -164,6 +174,17 @@ public class PostgreSQLTemplates extends SQLTemplates {
         addTypeNameToCode("timestamptz", Types.TIMESTAMP);
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
+            SubQueryExpression<?> subQuery, SQLSerializer context) {
+        if (!isNativeMerge()) {
+            super.serializeMerge(metadata, entity, keys, columns, values, subQuery, context);
+            return;
+        }
+        serializeMergeOnConflict(metadata, entity, keys, columns, values, subQuery, context);
+    }
+
     @Override
     public String serialize(String literal, int jdbcType) {
         if (jdbcType == Types.BOOLEAN) {
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.QueryException;
+
+/**
+ * {@code PrefetchingIterator} reads the rows of a query chunk by chunk on an executor
+ *
+ * <p>The query is opened in the first chunk task and the next chunk is read while the rows of
+ * the current chunk are consumed. Only one chunk task of an iterator runs at a time, so the
+ * underlying iterator is never accessed concurrently. With a direct executor the chunks are read
+ * in the calling thread.</p>
+ *
+ * @param <T> result type
+ */
+final class PrefetchingIterator<T> implements CloseableIterator<T> {
+
+    private final Executor executor;
+
+    private final Callable<CloseableIterator<T>> opener;
+
+    private final int chunkSize;
+
+    @Nullable
+    private CloseableIterator<T> source;
+
+    @Nullable
+    private ListenableFuture<List<T>> pending;
+
+    private Iterator<T> chunk = Collections.<T>emptyList().iterator();
+
+    private boolean exhausted, closed;
+
+    /**
+     * Create a new iterator and start reading the first chunk
+     *
+     * @param executor executor of the chunk tasks
+     * @param opener opens the underlying iterator
+     * @param chunkSize maximum amount of rows per chunk
+     */
+    PrefetchingIterator(Executor executor, Callable<CloseableIterator<T>> opener, int chunkSize) {
+        this.executor = executor;
+        this.opener = opener;
+        this.chunkSize = chunkSize;
+        this.pending = readChunk();
+    }
+
+    private ListenableFuture<List<T>> readChunk() {
+        return AbstractSQLQuery.submit(executor, new Callable<List<T>>() {
+            @Override
+            public List<T> call() throws Exception {
+                if (source == null) {
+                    source = opener.call();
+                }
+                List<T> rows = new ArrayList<T>(chunkSize);
+                while (rows.size() < chunkSize && source.hasNext()) {
+                    rows.add(source.next());
+                }
+                return rows;
+            }
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!chunk.hasNext() && !exhausted) {
+            List<T> rows = await();
+            exhausted = rows.size() < chunkSize;
+            pending = exhausted ? null : readChunk();
+            chunk = rows.iterator();
+        }
+        return chunk.hasNext();
+    }
+
+    private List<T> await() {
+        try {
+            return Uninterruptibles.getUninterruptibly(pending);
+        } catch (ExecutionException e) {
+            exhausted = true;
+            pending = null;
+            close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new QueryException(e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public T next() {
+        if (hasNext()) {
+            return chunk.next();
+        } else {
+            throw new NoSuchElementException();
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        exhausted = true;
+        chunk = Collections.<T>emptyList().iterator();
+        if (pending != null) {
+            // wait for the running chunk task before closing the underlying iterator
+            try {
+                Uninterruptibles.getUninterruptibly(pending);
+            } catch (ExecutionException e) {
+                // already reported or not of interest anymore
+            }
+            pending = null;
+        }
+        if (source != null) {
+            source.close();
+        }
+    }
+
+}
@@ -28,7 +28,11 @@ import com.querydsl.core.JoinFlag;
 import com.querydsl.core.Query;
 import com.querydsl.core.QueryFlag;
 import com.querydsl.core.QueryFlag.Position;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.support.FetchableSubQueryBase;
+import com.querydsl.core.support.Keyset;
+import com.querydsl.core.support.KeysetIterator;
 import com.querydsl.core.support.QueryMixin;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.Expressions;
@@ -388,6 +392,63 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
         return from(UnionUtils.union(ImmutableList.copyOf(sq), (Path) alias, true));
     }
 
+    @Override
+    public Q seekAfter(Object... keyValues) {
+        List<OrderSpecifier<?>> order = queryMixin.getMetadata().getOrderBy();
+        Keyset.validate(order, keyValues);
+        if (order.size() > 1 && configuration.getTemplates().isRowValueComparisonSupported()
+                && isUniformOrder(order)) {
+            // (a, b) > (?, ?)
+            Expression<?>[] targets = new Expression<?>[order.size()];
+            Expression<?>[] values = new Expression<?>[order.size()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = order.get(i).getTarget();
+                values[i] = ConstantImpl.create(keyValues[i]);
+            }
+            String template = order.get(0).isAscending() ? "({0}) > ({1})" : "({0}) < ({1})";
+            return queryMixin.where(Expressions.booleanTemplate(template,
+                    ExpressionUtils.list(Object.class, targets), ExpressionUtils.list(Object.class, values)));
+        } else {
+            return queryMixin.where(Keyset.after(order, keyValues));
+        }
+    }
+
+    private static boolean isUniformOrder(List<OrderSpecifier<?>> order) {
+        for (OrderSpecifier<?> os : order) {
+            if (os.getOrder() != order.get(0).getOrder()
+                    || os.getNullHandling() != OrderSpecifier.NullHandling.Default) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterate over the results page by page using keyset pagination
+     *
+     * <p>The order of the query needs to be unique, e.g. by ending with the primary key. Each page
+     * is fetched with a separate query, which continues after the last row of the previous page.</p>
+     *
+     * @param pageSize amount of rows per page
+     * @return results
+     * @see #seekAfter(Object...)
+     */
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<T> iterateSeek(int pageSize) {
+        Expression<T> projection = (Expression<T>) queryMixin.getMetadata().getProjection();
+        return new KeysetIterator<T>(queryMixin.getMetadata().getOrderBy(), projection, pageSize) {
+            @Override
+            protected List<Tuple> fetch(@Nullable Object[] keyValues, Expression<Tuple> projection, int limit) {
+                Q query = ProjectableSQLQuery.this.clone();
+                if (keyValues != null) {
+                    query.seekAfter(keyValues);
+                }
+                query.restrict(QueryModifiers.limit(limit));
+                return query.select(projection).fetch();
+            }
+        };
+    }
+
     @Override
     public T fetchOne() {
         if (getMetadata().getModifiers().getLimit() == null
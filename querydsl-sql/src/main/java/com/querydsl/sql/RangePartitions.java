@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.querydsl.core.types.*;
+import com.querydsl.core.util.MathUtils;
+
+/**
+ * {@code RangePartitions} splits the value range of a numeric or date path into partitions
+ *
+ * @see AbstractSQLQuery#iteratePartitioned(Path, int, boolean)
+ */
+final class RangePartitions {
+
+    /**
+     * Create the predicates of the partitions of the given range
+     *
+     * <p>The range is split into partitions of equal width, the last partition includes the
+     * maximum. Less partitions are created, if the range doesn't contain enough distinct
+     * values.</p>
+     *
+     * @param path partition path
+     * @param min minimum value of the path
+     * @param max maximum value of the path
+     * @param partitions maximum amount of partitions
+     * @return predicates
+     */
+    static List<Predicate> split(Path<?> path, Object min, Object max, int partitions) {
+        Class<?> type = path.getType();
+        BigDecimal lower = toBigDecimal(min);
+        BigDecimal width = toBigDecimal(max).subtract(lower);
+        List<Object> bounds = new ArrayList<Object>(partitions + 1);
+        bounds.add(min);
+        for (int i = 1; i < partitions; i++) {
+            BigDecimal bound = lower.add(width.multiply(BigDecimal.valueOf(i))
+                    .divide(BigDecimal.valueOf(partitions), 10, RoundingMode.DOWN));
+            Object value = fromBigDecimal(bound, type);
+            if (!value.equals(bounds.get(bounds.size() - 1)) && toBigDecimal(value).compareTo(lower) > 0) {
+                bounds.add(value);
+            }
+        }
+        List<Predicate> predicates = new ArrayList<Predicate>(bounds.size());
+        for (int i = 0; i < bounds.size(); i++) {
+            Predicate from = ExpressionUtils.predicate(Ops.GOE, path, ConstantImpl.create(bounds.get(i)));
+            Predicate to = i < bounds.size() - 1
+                    ? ExpressionUtils.predicate(Ops.LT, path, ConstantImpl.create(bounds.get(i + 1)))
+                    : ExpressionUtils.predicate(Ops.LOE, path, ConstantImpl.create(max));
+            predicates.add(ExpressionUtils.and(from, to));
+        }
+        return predicates;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Date) {
+            return BigDecimal.valueOf(((Date) value).getTime());
+        } else if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Number) {
+            return new BigDecimal(value.toString());
+        } else {
+            throw new IllegalArgumentException("Unsupported partition type " + value.getClass().getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object fromBigDecimal(BigDecimal value, Class<?> type) {
+        if (Number.class.isAssignableFrom(type)) {
+            return MathUtils.cast(value, (Class<? extends Number>) type);
+        }
+        long time = value.longValue();
+        if (type.equals(java.sql.Timestamp.class)) {
+            return new java.sql.Timestamp(time);
+        } else if (type.equals(java.sql.Date.class)) {
+            return new java.sql.Date(time);
+        } else if (type.equals(java.sql.Time.class)) {
+            return new java.sql.Time(time);
+        } else if (type.equals(Date.class)) {
+            return new Date(time);
+        } else {
+            throw new IllegalArgumentException("Unsupported partition type " + type.getName());
+        }
+    }
+
+    private RangePartitions() { }
+
+}
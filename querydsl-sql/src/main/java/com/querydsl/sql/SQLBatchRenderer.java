@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Maps;
+import com.querydsl.core.types.Path;
+
+/**
+ * {@code SQLBatchRenderer} renders the SQL of batch rows with the same column shape only once
+ * and binds the constants of the following rows directly to the rendered SQL
+ *
+ * <p>Usage per batch row:</p>
+ *
+ * <pre>
+ * if (!renderer.bind(parts)) {
+ *     SQLSerializer serializer = createSerializer();
+ *     renderer.record(serializer);
+ *     // serialize the row
+ *     renderer.rendered(serializer);
+ * }
+ * // use renderer.getSQL(), getConstants() and getConstantPaths()
+ * </pre>
+ */
+public final class SQLBatchRenderer {
+
+    private final SQLTemplates templates;
+
+    private final Map<List<Object>, SQLQueryPlan> plans = Maps.newHashMap();
+
+    @Nullable
+    private SQLQueryShape shape;
+
+    @Nullable
+    private String sql;
+
+    @Nullable
+    private List<Object> constants;
+
+    @Nullable
+    private List<Path<?>> constantPaths;
+
+    public SQLBatchRenderer(SQLTemplates templates) {
+        this.templates = templates;
+    }
+
+    /**
+     * Bind the given batch row to the SQL of a previously rendered row of the same shape
+     *
+     * @param parts expressions, lists of expressions and query metadata of the row
+     * @return true, if bound, false if the row needs to be serialized
+     */
+    public boolean bind(List<?> parts) {
+        shape = SQLQueryShape.of(templates, parts);
+        SQLQueryPlan plan = plans.get(shape.getKey());
+        if (plan != null && plan != SQLQueryPlan.UNCACHEABLE) {
+            sql = plan.getSQL();
+            constants = plan.bind(shape);
+            constantPaths = plan.getConstantPaths();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Prepare the given serializer for the serialization of the current row
+     *
+     * @param serializer serializer
+     */
+    public void record(SQLSerializer serializer) {
+        if (!plans.containsKey(shape.getKey())) {
+            serializer.recordConstantSources();
+        }
+    }
+
+    /**
+     * Register the serialization of the current row
+     *
+     * @param serializer serializer
+     */
+    public void rendered(SQLSerializer serializer) {
+        if (!plans.containsKey(shape.getKey())) {
+            SQLQueryPlan plan = SQLQueryPlan.create(shape, serializer);
+            plans.put(shape.getKey(), plan != null ? plan : SQLQueryPlan.UNCACHEABLE);
+        }
+        sql = serializer.toString();
+        constants = serializer.getConstants();
+        constantPaths = serializer.getConstantPaths();
+    }
+
+    /**
+     * Get the SQL of the current row
+     *
+     * @return SQL string
+     */
+    public String getSQL() {
+        return sql;
+    }
+
+    /**
+     * Get the constants of the current row
+     *
+     * @return constants
+     */
+    public List<Object> getConstants() {
+        return constants;
+    }
+
+    /**
+     * Get the constant paths of the current row
+     *
+     * @return constant paths
+     */
+    public List<Path<?>> getConstantPaths() {
+        return constantPaths;
+    }
+
+}
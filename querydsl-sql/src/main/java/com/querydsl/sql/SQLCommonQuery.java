@@ -422,4 +422,21 @@ public interface SQLCommonQuery<Q extends SQLCommonQuery<Q>> extends Query<Q> {
      * @return builder for with part
      */
     WithBuilder<Q> withRecursive(Path<?> alias, Path<?>... columns);
+
+    /**
+     * Restrict the results to the rows after the given key in the current order (keyset pagination)
+     *
+     * <p>Usage</p>
+     * <pre>
+     * query.from(post)
+     *      .orderBy(post.created.desc(), post.id.desc())
+     *      .seekAfter(lastCreated, lastId)
+     *      .limit(20)
+     * </pre>
+     *
+     * @param keyValues values of the order targets of the last row of the previous page
+     * @return the current object
+     * @see com.querydsl.core.support.Keyset
+     */
+    Q seekAfter(Object... keyValues);
 }
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Maps;
+
+/**
+ * {@code SQLMetricsListener} records the durations of the phases and the row counts of queries
+ * in histograms per query shape
+ *
+ * <p>The shape of a query is the fingerprint of its SQL string, in which literals, lists of
+ * bindings and the names of temporary IN list tables are normalized. The histograms have
+ * power of two buckets, so percentiles are approximated within a factor of two. To reduce the
+ * overhead only every n-th query can be sampled, the other queries only cost a counter
+ * increment and a lookup of the listener context data per notification.</p>
+ *
+ * <p>Usage</p>
+ *
+ * <pre>
+ * SQLMetricsListener metrics = new SQLMetricsListener(10, 1000);
+ * configuration.addListener(metrics);
+ * ...
+ * for (SQLMetricsListener.Shape shape : metrics.getSlowest(10)) {
+ *     System.out.println(shape);
+ * }
+ * </pre>
+ */
+public class SQLMetricsListener extends SQLBaseListener {
+
+    /**
+     * Phases of a query
+     */
+    public enum Phase {
+        /**
+         * serialization of the query
+         */
+        RENDER,
+        /**
+         * preparation of the statement and binding of the parameters
+         */
+        PREPARE,
+        /**
+         * execution of the statement
+         */
+        EXECUTE,
+        /**
+         * reading of the results until the end of the query
+         */
+        FETCH,
+        /**
+         * start to end of the query
+         */
+        TOTAL
+    }
+
+    private static final String TIMINGS = SQLMetricsListener.class.getName() + "#TIMINGS";
+
+    private static final int START = 0, PRE_RENDER = 1, RENDERED = 2, PRE_PREPARE = 3, PREPARED = 4,
+            PRE_EXECUTE = 5, EXECUTED = 6;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private static final Pattern IN_LIST_TABLE = Pattern.compile("querydsl_in_\\d+");
+
+    private static final Pattern BINDINGS = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    private static final Pattern ROWS = Pattern.compile("\\(\\?\\.*\\)(?:\\s*,\\s*\\(\\?\\.*\\))+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int sampleInterval;
+
+    private final int maxShapes;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ConcurrentMap<String, ShapeRecorder> bySQL = new ConcurrentHashMap<String, ShapeRecorder>();
+
+    private final ConcurrentMap<String, ShapeRecorder> byFingerprint = new ConcurrentHashMap<String, ShapeRecorder>();
+
+    /**
+     * Create a new listener, which samples all queries and records up to 1000 shapes
+     */
+    public SQLMetricsListener() {
+        this(1, 1000);
+    }
+
+    /**
+     * Create a new listener
+     *
+     * @param sampleInterval record every n-th query
+     * @param maxShapes maximum amount of recorded shapes, further shapes are dropped
+     */
+    public SQLMetricsListener(int sampleInterval, int maxShapes) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Illegal sample interval " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void start(SQLListenerContext context) {
+        if (sampleInterval == 1 || counter.getAndIncrement() % sampleInterval == 0) {
+            long[] timings = new long[EXECUTED + 1];
+            timings[START] = System.nanoTime();
+            context.setData(TIMINGS, timings);
+        }
+    }
+
+    @Override
+    public void preRender(SQLListenerContext context) {
+        mark(context, PRE_RENDER);
+    }
+
+    @Override
+    public void rendered(SQLListenerContext context) {
+        mark(context, RENDERED);
+    }
+
+    @Override
+    public void prePrepare(SQLListenerContext context) {
+        mark(context, PRE_PREPARE);
+    }
+
+    @Override
+    public void prepared(SQLListenerContext context) {
+        mark(context, PREPARED);
+    }
+
+    @Override
+    public void preExecute(SQLListenerContext context) {
+        mark(context, PRE_EXECUTE);
+    }
+
+    @Override
+    public void executed(SQLListenerContext context) {
+        mark(context, EXECUTED);
+    }
+
+    private static void mark(SQLListenerContext context, int index) {
+        long[] timings = (long[]) context.getData(TIMINGS);
+        if (timings != null) {
+            timings[index] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+        long[] timings = (long[]) context.getData(TIMINGS);
+        if (timings == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        // end may be notified more than once
+        context.setData(TIMINGS, null);
+        String sql = context.getSQL();
+        if (sql == null) {
+            return;
+        }
+        ShapeRecorder shape = getShape(sql);
+        if (shape == null) {
+            dropped.incrementAndGet();
+            return;
+        }
+        shape.record(Phase.RENDER, timings[PRE_RENDER], timings[RENDERED]);
+        shape.record(Phase.PREPARE, timings[PRE_PREPARE], timings[PREPARED]);
+        shape.record(Phase.EXECUTE, timings[PRE_EXECUTE], timings[EXECUTED]);
+        shape.record(Phase.FETCH, timings[EXECUTED], end);
+        shape.record(Phase.TOTAL, timings[START], end);
+        Object rows = context.getData(AbstractSQLQuery.ROW_COUNT);
+        if (rows instanceof Number) {
+            shape.rows.record(((Number) rows).longValue());
+        }
+        if (context.getException() != null) {
+            shape.errors.incrementAndGet();
+        }
+    }
+
+    @Nullable
+    private ShapeRecorder getShape(String sql) {
+        ShapeRecorder shape = bySQL.get(sql);
+        if (shape == null) {
+            String fingerprint = fingerprint(sql);
+            shape = byFingerprint.get(fingerprint);
+            if (shape == null) {
+                if (byFingerprint.size() >= maxShapes) {
+                    return null;
+                }
+                shape = new ShapeRecorder(fingerprint);
+                ShapeRecorder existing = byFingerprint.putIfAbsent(fingerprint, shape);
+                if (existing != null) {
+                    shape = existing;
+                }
+            }
+            if (bySQL.size() < maxShapes * 4) {
+                bySQL.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Get the fingerprint of the given SQL string
+     *
+     * @param sql SQL string
+     * @return fingerprint
+     */
+    public static String fingerprint(String sql) {
+        String rv = STRING_LITERAL.matcher(sql).replaceAll("?");
+        rv = NUMBER_LITERAL.matcher(rv).replaceAll("?");
+        rv = IN_LIST_TABLE.matcher(rv).replaceAll("querydsl_in_?");
+        rv = BINDINGS.matcher(rv).replaceAll("?...");
+        rv = ROWS.matcher(rv).replaceAll("(?)...");
+        return WHITESPACE.matcher(rv).replaceAll(" ").trim();
+    }
+
+    /**
+     * Get a snapshot of the recorded shapes
+     *
+     * @return shapes
+     */
+    public List<Shape> getSnapshot() {
+        List<Shape> rv = new ArrayList<Shape>(byFingerprint.size());
+        for (ShapeRecorder shape : byFingerprint.values()) {
+            rv.add(shape.snapshot());
+        }
+        return rv;
+    }
+
+    /**
+     * Get the given amount of shapes with the highest mean total duration
+     *
+     * @param n maximum amount of shapes
+     * @return shapes, slowest first
+     */
+    public List<Shape> getSlowest(int n) {
+        List<Shape> rv = getSnapshot();
+        Collections.sort(rv, new Comparator<Shape>() {
+            @Override
+            public int compare(Shape s1, Shape s2) {
+                return Double.compare(s2.getHistogram(Phase.TOTAL).getMean(),
+                        s1.getHistogram(Phase.TOTAL).getMean());
+            }
+        });
+        return rv.size() > n ? rv.subList(0, n) : rv;
+    }
+
+    /**
+     * Get the amount of sampled queries, which weren't recorded, because the maximum amount of
+     * shapes was reached
+     *
+     * @return dropped queries
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Remove all recorded shapes
+     */
+    public void reset() {
+        bySQL.clear();
+        byFingerprint.clear();
+        dropped.set(0);
+    }
+
+    /**
+     * {@code Shape} is a snapshot of the metrics of a query shape
+     */
+    public static final class Shape {
+
+        private final String fingerprint;
+
+        private final long errors;
+
+        private final Map<Phase, Histogram> histograms;
+
+        private final Histogram rows;
+
+        Shape(String fingerprint, long errors, Map<Phase, Histogram> histograms, Histogram rows) {
+            this.fingerprint = fingerprint;
+            this.errors = errors;
+            this.histograms = histograms;
+            this.rows = rows;
+        }
+
+        /**
+         * Get the fingerprint of the shape
+         *
+         * @return fingerprint
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Get the amount of recorded queries
+         *
+         * @return count
+         */
+        public long getCount() {
+            return histograms.get(Phase.TOTAL).getCount();
+        }
+
+        /**
+         * Get the amount of recorded queries, which failed
+         *
+         * @return errors
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Get the durations of the given phase in nanoseconds
+         *
+         * @param phase phase
+         * @return histogram
+         */
+        public Histogram getHistogram(Phase phase) {
+            return histograms.get(phase);
+        }
+
+        /**
+         * Get the row counts of the queries
+         *
+         * @return histogram
+         */
+        public Histogram getRows() {
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            Histogram total = histograms.get(Phase.TOTAL);
+            return fingerprint + " [count=" + total.getCount() + ", errors=" + errors
+                    + ", mean=" + (long) total.getMean() + "ns, p99=" + total.getPercentile(0.99)
+                    + "ns, rows=" + (long) rows.getMean() + "]";
+        }
+
+    }
+
+    /**
+     * {@code Histogram} is a snapshot of a histogram with power of two buckets
+     */
+    public static final class Histogram {
+
+        private final long[] buckets;
+
+        private final long count, sum, max;
+
+        Histogram(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Get the amount of recorded values
+         *
+         * @return count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the sum of the recorded values
+         *
+         * @return sum
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * Get the maximum of the recorded values
+         *
+         * @return max
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Get the mean of the recorded values
+         *
+         * @return mean or 0, if nothing has been recorded
+         */
+        public double getMean() {
+            return count > 0 ? (double) sum / count : 0.0;
+        }
+
+        /**
+         * Get an upper bound of the given percentile of the recorded values
+         *
+         * @param percentile percentile between 0 and 1
+         * @return upper bound of the percentile, at most the maximum
+         */
+        public long getPercentile(double percentile) {
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min((1L << i) - 1, max);
+                }
+            }
+            return max;
+        }
+
+    }
+
+    private static final class HistogramRecorder {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        private final AtomicLong count = new AtomicLong(), sum = new AtomicLong(), max = new AtomicLong();
+
+        void record(long value) {
+            if (value < 0) {
+                return;
+            }
+            // bucket i holds the values of bit length i
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        Histogram snapshot() {
+            long[] values = new long[buckets.length()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = buckets.get(i);
+            }
+            return new Histogram(values, count.get(), sum.get(), max.get());
+        }
+
+    }
+
+    private static final class ShapeRecorder {
+
+        private final String fingerprint;
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final EnumMap<Phase, HistogramRecorder> histograms = Maps.newEnumMap(Phase.class);
+
+        private final HistogramRecorder rows = new HistogramRecorder();
+
+        ShapeRecorder(String fingerprint) {
+            this.fingerprint = fingerprint;
+            for (Phase phase : Phase.values()) {
+                histograms.put(phase, new HistogramRecorder());
+            }
+        }
+
+        void record(Phase phase, long from, long to) {
+            if (from != 0 && to != 0) {
+                histograms.get(phase).record(to - from);
+            }
+        }
+
+        Shape snapshot() {
+            Map<Phase, Histogram> snapshots = Maps.newEnumMap(Phase.class);
+            for (Map.Entry<Phase, HistogramRecorder> entry : histograms.entrySet()) {
+                snapshots.put(entry.getKey(), entry.getValue().snapshot());
+            }
+            return new Shape(fingerprint, errors.get(), Collections.unmodifiableMap(snapshots), rows.snapshot());
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Path;
+
+/**
+ * {@code SQLQueryPlan} is the rendered SQL of a {@link SQLQueryShape} with the positions
+ * of the constants in the bindings
+ */
+final class SQLQueryPlan {
+
+    /**
+     * Placeholder for shapes which can't be served from a plan
+     */
+    static final SQLQueryPlan UNCACHEABLE = new SQLQueryPlan("", Collections.<Path<?>>emptyList(),
+            new int[0], new Object[0]);
+
+    /**
+     * Create a plan from a serializer which recorded the constant sources
+     *
+     * @param shape shape of the serialized query
+     * @param serializer serializer
+     * @return plan or null, if the bindings can't be mapped to the constants of the shape
+     */
+    @Nullable
+    static SQLQueryPlan create(SQLQueryShape shape, SQLSerializer serializer) {
+        List<Object> constants = serializer.getConstants();
+        List<Constant<?>> sources = serializer.getConstantSources();
+        if (sources == null || sources.size() != constants.size()) {
+            return null;
+        }
+        List<Constant<?>> shapeConstants = shape.getConstants();
+        int[] counts = new int[shapeConstants.size()];
+        int[] indexes = new int[constants.size()];
+        Object[] values = new Object[constants.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            Constant<?> source = sources.get(i);
+            Integer index = source != null ? shape.indexOf(source) : null;
+            if (index == null || shape.isKeyed(index)) {
+                // determined by the shape
+                indexes[i] = -1;
+                values[i] = constants.get(i);
+            } else if (counts[index] > 0 && indexes[i - 1] != index) {
+                // collection elements need to be bound consecutively
+                return null;
+            } else {
+                indexes[i] = index;
+                Object value = shapeConstants.get(index).getConstant();
+                if (value instanceof Collection && constants.get(i) instanceof Object[]) {
+                    // collection bound as a single array parameter, keep the component type
+                    values[i] = constants.get(i).getClass().getComponentType();
+                    counts[index] += ((Collection<?>) value).size();
+                } else {
+                    counts[index]++;
+                }
+            }
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (!shape.isKeyed(i)) {
+                Object value = shapeConstants.get(i).getConstant();
+                int expected = value instanceof Collection ? ((Collection<?>) value).size() : 1;
+                // padded IN lists repeat the last element
+                if (counts[i] != expected && !(value instanceof Collection && counts[i] > expected)) {
+                    return null;
+                }
+            }
+        }
+        List<Path<?>> constantPaths = Collections.unmodifiableList(
+                new ArrayList<Path<?>>(serializer.getConstantPaths()));
+        return new SQLQueryPlan(serializer.toString(), constantPaths, indexes, values);
+    }
+
+    private final String sql;
+
+    private final List<Path<?>> constantPaths;
+
+    private final int[] indexes;
+
+    private final Object[] values;
+
+    private SQLQueryPlan(String sql, List<Path<?>> constantPaths, int[] indexes, Object[] values) {
+        this.sql = sql;
+        this.constantPaths = constantPaths;
+        this.indexes = indexes;
+        this.values = values;
+    }
+
+    /**
+     * Get the constants for the given shape
+     *
+     * @param shape shape with the same key as the shape this plan was created for
+     * @return constants in binding order
+     */
+    List<Object> bind(SQLQueryShape shape) {
+        List<Constant<?>> shapeConstants = shape.getConstants();
+        List<Object> constants = new ArrayList<Object>(indexes.length);
+        Iterator<?> elements = null;
+        Object element = null;
+        int last = -1;
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            if (index < 0) {
+                constants.add(values[i]);
+            } else {
+                Object value = shapeConstants.get(index).getConstant();
+                if (values[i] instanceof Class) {
+                    Collection<?> coll = (Collection<?>) value;
+                    constants.add(coll.toArray((Object[]) Array.newInstance((Class<?>) values[i], coll.size())));
+                } else if (value instanceof Collection) {
+                    if (index != last) {
+                        elements = ((Collection<?>) value).iterator();
+                    }
+                    if (elements.hasNext()) {
+                        element = elements.next();
+                    }
+                    constants.add(element);
+                } else {
+                    constants.add(value);
+                }
+            }
+            last = index;
+        }
+        return constants;
+    }
+
+    /**
+     * Get the rendered SQL
+     *
+     * @return SQL string
+     */
+    String getSQL() {
+        return sql;
+    }
+
+    /**
+     * Get the paths of the constants in binding order
+     *
+     * @return constant paths
+     */
+    List<Path<?>> getConstantPaths() {
+        return constantPaths;
+    }
+
+}
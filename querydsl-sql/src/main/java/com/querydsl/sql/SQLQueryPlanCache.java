@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@code SQLQueryPlanCache} caches the rendered SQL of queries which differ only in the values of
+ * their constants
+ *
+ * <p>The outcome of each lookup is published to {@link SQLDetailedListener} instances via the
+ * {@link SQLListenerContext} data entry {@link #CONTEXT_HIT} before
+ * {@link SQLDetailedListener#rendered(SQLListenerContext)} is called.</p>
+ *
+ * @see Configuration#setQueryPlanCacheSize(int)
+ */
+public final class SQLQueryPlanCache {
+
+    /**
+     * {@link SQLListenerContext} data key for the {@link Boolean} lookup outcome
+     */
+    public static final String CONTEXT_HIT = SQLQueryPlanCache.class.getName() + "#HIT";
+
+    private final Cache<List<Object>, SQLQueryPlan> plans;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a new cache instance
+     *
+     * @param maximumSize maximum amount of cached plans
+     */
+    public SQLQueryPlanCache(int maximumSize) {
+        this.plans = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @Nullable
+    SQLQueryPlan get(SQLQueryShape shape) {
+        SQLQueryPlan plan = plans.getIfPresent(shape.getKey());
+        if (plan != null && plan != SQLQueryPlan.UNCACHEABLE) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return plan;
+    }
+
+    void put(SQLQueryShape shape, SQLQueryPlan plan) {
+        plans.put(shape.getKey(), plan);
+    }
+
+    /**
+     * Remove all cached plans
+     */
+    public void clear() {
+        plans.invalidateAll();
+    }
+
+    /**
+     * Get the amount of lookups which could be served from the cache
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the amount of lookups which required serialization
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the amount of cached plans
+     *
+     * @return size
+     */
+    public long size() {
+        return plans.size();
+    }
+
+}
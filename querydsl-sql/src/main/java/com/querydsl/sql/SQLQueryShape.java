@@ -0,0 +1,339 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+
+/**
+ * {@code SQLQueryShape} is a structural key for query metadata which ignores the values of
+ * constants that are bound as statement parameters
+ *
+ * <p>Constants which influence the rendered SQL string, e.g. constants referenced via string
+ * or transforming template elements, are part of the key by value.</p>
+ */
+final class SQLQueryShape {
+
+    private enum Token { JOIN, WHERE, GROUP_BY, HAVING, ORDER_BY, PROJECTION, FLAG, SUBQUERY, END,
+        SLOT, VALUE, REPEAT }
+
+    /**
+     * Create the shape of the given query metadata
+     *
+     * @param templates templates used for serialization
+     * @param queryType type of the query instance
+     * @param metadata query metadata
+     * @param forCountRow true, if the metadata is serialized for a count query
+     * @return shape
+     */
+    static SQLQueryShape of(SQLTemplates templates, Class<?> queryType, QueryMetadata metadata,
+            boolean forCountRow) {
+        ShapeVisitor visitor = new ShapeVisitor(templates);
+        visitor.tokens.add(queryType);
+        visitor.tokens.add(forCountRow);
+        visitor.visitMetadata(metadata);
+        return new SQLQueryShape(visitor);
+    }
+
+    /**
+     * Create the shape of the given query parts
+     *
+     * @param templates templates used for serialization
+     * @param parts expressions, collections of expressions, query metadata or null
+     * @return shape
+     */
+    static SQLQueryShape of(SQLTemplates templates, List<?> parts) {
+        ShapeVisitor visitor = new ShapeVisitor(templates);
+        for (Object part : parts) {
+            if (part instanceof QueryMetadata) {
+                visitor.visitMetadata((QueryMetadata) part);
+            } else if (part instanceof Collection) {
+                visitor.tokens.add(((Collection<?>) part).size());
+                for (Object expr : (Collection<?>) part) {
+                    visitor.handle((Expression<?>) expr);
+                }
+            } else {
+                visitor.handle((Expression<?>) part);
+            }
+        }
+        return new SQLQueryShape(visitor);
+    }
+
+    private final List<Object> key;
+
+    private final List<Constant<?>> constants;
+
+    private final Map<Constant<?>, Integer> indexes;
+
+    private final BitSet keyed;
+
+    private SQLQueryShape(ShapeVisitor visitor) {
+        this.key = Collections.unmodifiableList(visitor.tokens);
+        this.constants = visitor.constants;
+        this.indexes = visitor.indexes;
+        this.keyed = visitor.keyed;
+    }
+
+    /**
+     * Get the structural key of the query
+     *
+     * @return key
+     */
+    List<Object> getKey() {
+        return key;
+    }
+
+    /**
+     * Get the constants of the query in traversal order
+     *
+     * @return constants
+     */
+    List<Constant<?>> getConstants() {
+        return constants;
+    }
+
+    /**
+     * Get the index of the given constant expression
+     *
+     * @param constant constant expression
+     * @return index or null, if the expression is not part of the query
+     */
+    @Nullable
+    Integer indexOf(Constant<?> constant) {
+        return indexes.get(constant);
+    }
+
+    /**
+     * Get whether the value of the constant at the given index is part of the key
+     *
+     * @param index index of the constant
+     * @return true, if keyed by value
+     */
+    boolean isKeyed(int index) {
+        return keyed.get(index);
+    }
+
+    private static final class ShapeVisitor implements Visitor<Void, Boolean> {
+
+        private final SQLTemplates templates;
+
+        private final List<Object> tokens = new ArrayList<Object>();
+
+        private final List<Constant<?>> constants = new ArrayList<Constant<?>>();
+
+        private final Map<Constant<?>, Integer> indexes = new IdentityHashMap<Constant<?>, Integer>();
+
+        private final BitSet keyed = new BitSet();
+
+        ShapeVisitor(SQLTemplates templates) {
+            this.templates = templates;
+        }
+
+        private void visitMetadata(QueryMetadata md) {
+            tokens.add(md.isDistinct());
+            for (JoinExpression join : md.getJoins()) {
+                tokens.add(Token.JOIN);
+                tokens.add(join.getType());
+                join.getTarget().accept(this, false);
+                handle(join.getCondition());
+                for (JoinFlag flag : join.getFlags()) {
+                    tokens.add(flag.getPosition());
+                    flag.getFlag().accept(this, false);
+                }
+            }
+            tokens.add(Token.WHERE);
+            handle(md.getWhere());
+            tokens.add(Token.GROUP_BY);
+            for (Expression<?> e : md.getGroupBy()) {
+                e.accept(this, false);
+            }
+            tokens.add(Token.HAVING);
+            handle(md.getHaving());
+            tokens.add(Token.ORDER_BY);
+            for (OrderSpecifier<?> order : md.getOrderBy()) {
+                tokens.add(order.getOrder());
+                tokens.add(order.getNullHandling());
+                order.getTarget().accept(this, false);
+            }
+            tokens.add(Token.PROJECTION);
+            handle(md.getProjection());
+            for (QueryFlag flag : md.getFlags()) {
+                tokens.add(Token.FLAG);
+                tokens.add(flag.getPosition());
+                flag.getFlag().accept(this, false);
+            }
+            tokens.add(md.getModifiers().getLimit());
+            tokens.add(md.getModifiers().getOffset());
+        }
+
+        private void handle(@Nullable Expression<?> expr) {
+            if (expr != null) {
+                expr.accept(this, false);
+            } else {
+                tokens.add(null);
+            }
+        }
+
+        @Override
+        public Void visit(Constant<?> expr, Boolean byValue) {
+            Object value = expr.getConstant();
+            Integer previous = indexes.get(expr);
+            if (previous != null) {
+                // shared constant instances are bound by value
+                keyed.set(previous);
+                tokens.add(Token.REPEAT);
+                tokens.add(previous);
+                tokens.add(value);
+            } else {
+                int index = constants.size();
+                constants.add(expr);
+                indexes.put(expr, index);
+                if (byValue || value == null) {
+                    keyed.set(index);
+                    tokens.add(Token.VALUE);
+                    tokens.add(value);
+                } else {
+                    tokens.add(Token.SLOT);
+                    tokens.add(value.getClass());
+                    if (value instanceof Collection) {
+                        tokens.add(((Collection<?>) value).size());
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Boolean byValue) {
+            tokens.add(expr.getClass());
+            tokens.add(expr.getType());
+            for (Expression<?> arg : expr.getArgs()) {
+                arg.accept(this, byValue);
+            }
+            tokens.add(Token.END);
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Boolean byValue) {
+            Operator operator = expr.getOperator();
+            List<Expression<?>> args = expr.getArgs();
+            Template template = templates.getTemplate(operator);
+            tokens.add(operator);
+            tokens.add(expr.getType());
+            for (int i = 0; i < args.size(); i++) {
+                args.get(i).accept(this, byValue || template == null
+                        || !isBoundByIndex(template, i) || isRewritten(operator, args, i));
+            }
+            tokens.add(Token.END);
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Boolean byValue) {
+            tokens.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Boolean byValue) {
+            tokens.add(expr.getClass());
+            tokens.add(expr);
+            if (expr instanceof RelationalPath) {
+                tokens.add(((RelationalPath<?>) expr).getSchemaAndTable());
+            }
+            Path<?> parent = expr.getMetadata().getParent();
+            if (parent instanceof RelationalPath) {
+                tokens.add(parent.getClass());
+                tokens.add(((RelationalPath<?>) parent).getSchemaAndTable());
+                tokens.add(ColumnMetadata.getName(expr));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Boolean byValue) {
+            tokens.add(Token.SUBQUERY);
+            visitMetadata(expr.getMetadata());
+            tokens.add(Token.END);
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Boolean byValue) {
+            Template template = expr.getTemplate();
+            List<?> args = expr.getArgs();
+            tokens.add(expr.getClass());
+            tokens.add(template);
+            tokens.add(expr.getType());
+            for (int i = 0; i < args.size(); i++) {
+                Object arg = args.get(i);
+                if (arg instanceof Expression) {
+                    ((Expression<?>) arg).accept(this, byValue || !isBoundByIndex(template, i));
+                } else {
+                    tokens.add(Token.VALUE);
+                    tokens.add(arg);
+                }
+            }
+            tokens.add(Token.END);
+            return null;
+        }
+
+        /**
+         * Constants which are only referenced via plain index elements are rendered as
+         * bindings, all other references may influence the rendered SQL string
+         */
+        private static boolean isBoundByIndex(Template template, int index) {
+            for (Template.Element element : template.getElements()) {
+                if (element instanceof Template.AsString) {
+                    if (((Template.AsString) element).getIndex() == index) {
+                        return false;
+                    }
+                } else if (element instanceof Template.Transformed) {
+                    if (((Template.Transformed) element).getIndex() == index) {
+                        return false;
+                    }
+                } else if (!(element instanceof Template.ByIndex) && !(element instanceof Template.StaticText)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Operations which are rewritten by {@link SQLSerializer} based on the constant values
+         */
+        private boolean isRewritten(Operator operator, List<Expression<?>> args, int index) {
+            if (operator == Ops.LIKE || operator == Ops.NUMCAST || operator == Ops.ORDER) {
+                return true;
+            } else if ((operator == Ops.IN || operator == Ops.NOT_IN) && index == 1
+                    && args.get(1) instanceof Constant && templates.getListMaxSize() > 0) {
+                Object constant = ((Constant<?>) args.get(1)).getConstant();
+                return constant instanceof Collection
+                    && ((Collection<?>) constant).size() > templates.getListMaxSize();
+            } else {
+                return false;
+            }
+        }
+
+    }
+
+}
@@ -13,6 +13,7 @@
  */
 package com.querydsl.sql;
 
+import java.lang.reflect.Array;
 import java.sql.Types;
 import java.util.*;
 
@@ -23,6 +24,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Primitives;
 import com.querydsl.core.JoinExpression;
 import com.querydsl.core.JoinFlag;
 import com.querydsl.core.QueryFlag;
@@ -33,7 +35,9 @@ import com.querydsl.core.types.*;
 import com.querydsl.core.types.Template.Element;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.types.ArrayType;
 import com.querydsl.sql.types.Null;
+import com.querydsl.sql.types.Type;
 
 /**
  * {@code SqlSerializer} serializes SQL clauses into SQL
@@ -76,6 +80,24 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
     private boolean useLiterals = false;
 
+    @Nullable
+    private List<Constant<?>> constantSources;
+
+    @Nullable
+    private Constant<?> currentConstant;
+
+    private boolean inList = false;
+
+    @Nullable
+    private Class<?> inArrayType;
+
+    private boolean inValues = false;
+
+    @Nullable
+    private String inValuesType;
+
+    private final List<InListTable> inListTables = new ArrayList<InListTable>();
+
     public SQLSerializer(Configuration conf) {
         this(conf, false);
     }
@@ -116,6 +138,40 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         return constantPaths;
     }
 
+    /**
+     * Get the temporary tables of the large IN lists of the query
+     *
+     * @return temporary tables, which need to be populated before execution
+     */
+    List<InListTable> getInListTables() {
+        return inListTables;
+    }
+
+    /**
+     * Enable tracking of the {@link Constant} expressions the constants originate from
+     */
+    void recordConstantSources() {
+        constantSources = new ArrayList<Constant<?>>();
+    }
+
+    /**
+     * Get the {@link Constant} expressions the constants originate from, null for constants
+     * which were not bound directly from a {@code Constant} expression
+     *
+     * @return constant sources or null, if not recorded or literals were used
+     */
+    @Nullable
+    List<Constant<?>> getConstantSources() {
+        return useLiterals ? null : constantSources;
+    }
+
+    private void addConstant(Object constant, @Nullable Constant<?> source) {
+        constants.add(constant);
+        if (constantSources != null) {
+            constantSources.add(source);
+        }
+    }
+
     /**
      * Return a list of expressions that can be used to uniquely define the query sources
      *
@@ -763,6 +819,8 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     @SuppressWarnings("unchecked")
     @Override
     public void visitConstant(Object constant) {
+        Constant<?> source = currentConstant;
+        currentConstant = null;
         if (useLiterals) {
             if (constant instanceof Collection) {
                 append("(");
@@ -778,23 +836,62 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
             } else {
                 append(configuration.asLiteral(constant));
             }
+        } else if (constant instanceof Collection && inArrayType != null) {
+            // bind the collection as a single array parameter
+            Collection<?> coll = (Collection<?>) constant;
+            append("?");
+            addConstant(coll.toArray((Object[]) Array.newInstance(inArrayType.getComponentType(), coll.size())),
+                    source);
+            constantPaths.add(null);
+        } else if (constant instanceof Collection && inValues) {
+            // one VALUES row per value
+            boolean first = true;
+            for (Object o : ((Collection) constant)) {
+                if (!first) {
+                    append(COMMA);
+                }
+                if (inValuesType != null) {
+                    append("(cast(? as ").append(inValuesType).append("))");
+                } else {
+                    append("(?)");
+                }
+                addConstant(o, source);
+                if (first && (constantPaths.size() < constants.size())) {
+                    constantPaths.add(null);
+                }
+                first = false;
+            }
+
+            int size = ((Collection) constant).size() - 1;
+            Path<?> lastPath = constantPaths.peekLast();
+            for (int i = 0; i < size; i++) {
+                constantPaths.add(lastPath);
+            }
         } else if (constant instanceof Collection) {
             append("(");
             boolean first = true;
+            Object last = null;
             for (Object o : ((Collection) constant)) {
                 if (!first) {
                     append(COMMA);
                 }
                 append("?");
-                constants.add(o);
+                addConstant(o, source);
                 if (first && (constantPaths.size() < constants.size())) {
                     constantPaths.add(null);
                 }
                 first = false;
+                last = o;
+            }
+            int padded = inList ? getPaddedSize(((Collection) constant).size()) : ((Collection) constant).size();
+            for (int i = ((Collection) constant).size(); i < padded; i++) {
+                // repeat the last value up to the padded size
+                append(COMMA).append("?");
+                addConstant(last, source);
             }
             append(")");
 
-            int size = ((Collection) constant).size() - 1;
+            int size = padded - 1;
             Path<?> lastPath = constantPaths.peekLast();
             for (int i = 0; i < size; i++) {
                 constantPaths.add(lastPath);
@@ -809,17 +906,23 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
             } else {
                 append("?");
             }
-            constants.add(constant);
+            addConstant(constant, source);
             if (constantPaths.size() < constants.size()) {
                 constantPaths.add(null);
             }
         }
     }
 
+    @Override
+    public Void visit(Constant<?> expr, Void context) {
+        currentConstant = expr;
+        return super.visit(expr, context);
+    }
+
     @Override
     public Void visit(ParamExpression<?> param, Void context) {
         append("?");
-        constants.add(param);
+        addConstant(param, null);
         if (constantPaths.size() < constants.size()) {
             constantPaths.add(null);
         }
@@ -967,9 +1070,45 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
             if (coll.isEmpty()) {
                 super.visitOperation(type, operator == Ops.IN ? Ops.EQ : Ops.NE,
                         ImmutableList.of(Expressions.ONE, Expressions.TWO));
+            } else if (!useLiterals && configuration.getInListArrayBinding() && templates.isInArraySupported()
+                    && getInArrayType((Path<?>) args.get(0)) != null) {
+                if (pathAdded) {
+                    constantPaths.removeLast();
+                }
+                inArrayType = getInArrayType((Path<?>) args.get(0));
+                super.visitOperation(type, operator == Ops.IN ? SQLOps.IN_ARRAY : SQLOps.NOT_IN_ARRAY, args);
+                inArrayType = null;
+            } else if (!useLiterals && configuration.getLargeInListThreshold() > 0
+                    && coll.size() > configuration.getLargeInListThreshold()
+                    && templates.isValuesSupported()
+                    // the values are still bound one by one
+                    && (templates.getMaxParameters() == 0
+                        || constants.size() + coll.size() <= templates.getMaxParameters())) {
+                inValues = true;
+                if (templates.isWrapValuesParameters()) {
+                    inValuesType = InListTable.getTypeName(configuration, args.get(0).getType(), coll);
+                }
+                super.visitOperation(type, operator == Ops.IN ? SQLOps.IN_VALUES : SQLOps.NOT_IN_VALUES, args);
+                inValues = false;
+                inValuesType = null;
+            } else if (!useLiterals && configuration.getLargeInListThreshold() > 0
+                    && coll.size() > configuration.getLargeInListThreshold()
+                    && templates.getCreateTemporaryTable() != null) {
+                if (pathAdded) {
+                    constantPaths.removeLast();
+                }
+                InListTable table = new InListTable(templates.getTemporaryTablePrefix(), (Path<?>) args.get(0), coll);
+                inListTables.add(table);
+                handle(args.get(0));
+                append(operator == Ops.IN ? " in " : " not in ");
+                append("(select ").append(templates.quoteIdentifier(InListTable.COLUMN));
+                append(" from ").append(table.getName()).append(")");
             } else {
                 if (templates.getListMaxSize() == 0 || coll.size() <= templates.getListMaxSize()) {
+                    boolean oldInList = inList;
+                    inList = configuration.getInListPadding();
                     super.visitOperation(type, operator, args);
+                    inList = oldInList;
                 } else {
                     //The type of the path is compatible with the constant
                     //expression, since the compile time checking mandates it to be
@@ -1013,6 +1152,40 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         }
     }
 
+    /**
+     * Get the size of an IN list of the given size padded to the next power of two
+     *
+     * @param size size of the list
+     * @return padded size, at most the maximum list size of the templates
+     */
+    private int getPaddedSize(int size) {
+        int padded = Integer.highestOneBit(size);
+        if (padded < size) {
+            padded <<= 1;
+        }
+        int max = templates.getListMaxSize();
+        return max > 0 && size <= max ? Math.min(padded, max) : Math.max(padded, size);
+    }
+
+    /**
+     * Get the array type for IN lists of the given path
+     *
+     * @param path left hand side of the IN operation
+     * @return array type or null, if no array type is registered for the type of the path
+     */
+    @Nullable
+    private Class<?> getInArrayType(Path<?> path) {
+        Class<?> elementType = Primitives.wrap(path.getType());
+        Class<?> arrayType = Array.newInstance(elementType, 0).getClass();
+        Type<?> elementMapping = configuration.getType(null, elementType);
+        if (configuration.getType(null, arrayType) instanceof ArrayType
+                && configuration.getType(path, elementType).equals(elementMapping)) {
+            return arrayType;
+        } else {
+            return null;
+        }
+    }
+
     public void setUseLiterals(boolean useLiterals) {
         this.useLiterals = useLiterals;
     }
@@ -50,6 +50,7 @@ public class SQLServer2008Templates extends SQLServer2005Templates {
 
     protected SQLServer2008Templates(Set<String> keywords, char escape, boolean quote) {
         super(keywords, escape, quote);
+        setValuesSupported(true);
     }
 
 }
@@ -70,6 +70,10 @@ public class SQLServerTemplates extends SQLTemplates {
         setNullsLast(null);
         setDefaultValues("\ndefault values");
         setArraysSupported(false);
+        setMaxParameters(2100);
+        setCreateTemporaryTable("create table ");
+        setTemporaryTablePrefix("#");
+        setMaxBulkInsertRows(1000);
         setForUpdateFlag(new QueryFlag(Position.BEFORE_FILTERS, FOR_UPDATE));
 
         setForShareSupported(true);
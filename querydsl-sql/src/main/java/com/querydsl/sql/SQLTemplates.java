@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import com.google.common.base.CharMatcher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -77,7 +79,7 @@ public class SQLTemplates extends Templates {
      */
     public abstract static class Builder {
 
-        protected boolean printSchema, quote, newLineToSingleSpace;
+        protected boolean printSchema, quote, newLineToSingleSpace, nativeMerge;
 
         protected char escape = '\\';
 
@@ -101,6 +103,25 @@ public class SQLTemplates extends Templates {
             return this;
         }
 
+        /**
+         * Render {@link com.querydsl.sql.dml.SQLMergeClause} as the native upsert statement of the
+         * dialect instead of a select followed by an insert or update
+         *
+         * <p>The requirements of the native statements differ from the emulated merge:</p>
+         * <ul>
+         *   <li>PostgreSQL 9.5+ and SQLite 3.24+ use {@code on conflict (keys)}, which requires a
+         *   unique constraint or index on the keys</li>
+         *   <li>MySQL uses {@code on duplicate key update}, which ignores the keys of the merge and
+         *   matches on any unique key of the table, the update count of an updated row is 2</li>
+         * </ul>
+         *
+         * @return builder
+         */
+        public Builder nativeMerge() {
+            nativeMerge = true;
+            return this;
+        }
+
         protected abstract SQLTemplates build(char escape, boolean quote);
 
         public SQLTemplates build() {
@@ -109,6 +130,13 @@ public class SQLTemplates extends Templates {
                 templates.newLineToSingleSpace();
             }
             templates.setPrintSchema(printSchema);
+            if (nativeMerge) {
+                if (!templates.isNativeMergeSupported()) {
+                    throw new UnsupportedOperationException(
+                            "Native merge is not supported by " + templates.getClass().getSimpleName());
+                }
+                templates.setNativeMerge(true);
+            }
             return templates;
         }
 
@@ -178,6 +206,8 @@ public class SQLTemplates extends Templates {
 
     private boolean nativeMerge;
 
+    private boolean nativeMergeSupported;
+
     private String notNull = " not null";
 
     private String offsetTemplate = "\noffset {0}";
@@ -236,8 +266,27 @@ public class SQLTemplates extends Templates {
 
     private boolean batchToBulkSupported = true;
 
+    private boolean inArraySupported = false;
+
+    private boolean valuesSupported = false;
+
+    private boolean wrapValuesParameters = false;
+
+    private boolean rowValueComparisonSupported = false;
+
+    @Nullable
+    private String createTemporaryTable;
+
+    private String dropTemporaryTable = "drop table ";
+
+    private String temporaryTablePrefix = "";
+
     private int listMaxSize = 0;
 
+    private int maxParameters = 0;
+
+    private int maxBulkInsertRows = 0;
+
     private boolean supportsUnquotedReservedWordsAsIdentifier = false;
 
     private int maxLimit = Integer.MAX_VALUE;
@@ -349,6 +398,10 @@ public class SQLTemplates extends Templates {
         add(SQLOps.UNION, "{0}\nunion\n{1}", Precedence.OR + 1);
         add(SQLOps.UNION_ALL, "{0}\nunion all\n{1}", Precedence.OR + 1);
         add(SQLOps.NEXTVAL, "nextval('{0s}')");
+        add(SQLOps.IN_ARRAY, "{0} = any({1})", Precedence.COMPARISON);
+        add(SQLOps.NOT_IN_ARRAY, "{0} <> all({1})", Precedence.COMPARISON);
+        add(SQLOps.IN_VALUES, "{0} in (select v.c from (values {1}) v(c))", Precedence.COMPARISON);
+        add(SQLOps.NOT_IN_VALUES, "{0} not in (select v.c from (values {1}) v(c))", Precedence.COMPARISON);
 
         // analytic functions
         add(SQLOps.CORR, "corr({0},{1})");
@@ -682,6 +735,10 @@ public class SQLTemplates extends Templates {
         return nativeMerge;
     }
 
+    public final boolean isNativeMergeSupported() {
+        return nativeMergeSupported;
+    }
+
     public final boolean isSupportsAlias() {
         return true;
     }
@@ -766,6 +823,24 @@ public class SQLTemplates extends Templates {
         return listMaxSize;
     }
 
+    /**
+     * Get the maximum amount of bind parameters per statement
+     *
+     * @return maximum amount of parameters or zero, if not limited
+     */
+    public final int getMaxParameters() {
+        return maxParameters;
+    }
+
+    /**
+     * Get the maximum amount of rows in a multi-row insert
+     *
+     * @return maximum amount of rows or zero, if not limited
+     */
+    public final int getMaxBulkInsertRows() {
+        return maxBulkInsertRows;
+    }
+
     public final boolean isSupportsUnquotedReservedWordsAsIdentifier() {
         return supportsUnquotedReservedWordsAsIdentifier;
     }
@@ -774,6 +849,51 @@ public class SQLTemplates extends Templates {
         return batchToBulkSupported;
     }
 
+    public final boolean isInArraySupported() {
+        return inArraySupported;
+    }
+
+    public final boolean isValuesSupported() {
+        return valuesSupported;
+    }
+
+    /**
+     * Get whether the parameters of VALUES table constructors need to be wrapped in casts, since
+     * their type can't be inferred
+     *
+     * @return true, if the parameters are wrapped
+     */
+    public final boolean isWrapValuesParameters() {
+        return wrapValuesParameters;
+    }
+
+    public final boolean isRowValueComparisonSupported() {
+        return rowValueComparisonSupported;
+    }
+
+    /**
+     * Get the start of the statement which creates a session scoped temporary table
+     *
+     * @return statement start or null, if temporary tables can't be created on demand
+     */
+    @Nullable
+    public final String getCreateTemporaryTable() {
+        return createTemporaryTable;
+    }
+
+    public final String getDropTemporaryTable() {
+        return dropTemporaryTable;
+    }
+
+    /**
+     * Get the prefix of the names of temporary tables
+     *
+     * @return prefix
+     */
+    public final String getTemporaryTablePrefix() {
+        return temporaryTablePrefix;
+    }
+
     public final QueryFlag getForShareFlag() {
         return forShareFlag;
     }
@@ -925,6 +1045,87 @@ public class SQLTemplates extends Templates {
         }
     }
 
+    /**
+     * template method for MERGE serialization as {@code INSERT ... ON CONFLICT (keys) DO UPDATE}
+     *
+     * @param metadata
+     * @param entity
+     * @param keys
+     * @param columns
+     * @param values
+     * @param subQuery
+     * @param context
+     */
+    protected void serializeMergeOnConflict(QueryMetadata metadata, RelationalPath<?> entity,
+            List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
+            @Nullable SubQueryExpression<?> subQuery, SQLSerializer context) {
+        List<? extends Path<?>> conflictKeys = getMergeKeys(entity, keys);
+        if (conflictKeys.isEmpty()) {
+            throw new IllegalStateException("No keys were defined, invoke keys(..) to add keys");
+        }
+        context.serializeForInsert(metadata, entity, columns, values, subQuery);
+        context.append(" on conflict (");
+        for (int i = 0; i < conflictKeys.size(); i++) {
+            if (i > 0) {
+                context.append(", ");
+            }
+            context.append(quoteIdentifier(ColumnMetadata.getName(conflictKeys.get(i))));
+        }
+        List<Path<?>> updates = getMergeUpdates(entity, conflictKeys, columns);
+        if (updates.isEmpty()) {
+            context.append(") do nothing");
+        } else {
+            context.append(") do update set ");
+            for (int i = 0; i < updates.size(); i++) {
+                String column = quoteIdentifier(ColumnMetadata.getName(updates.get(i)));
+                if (i > 0) {
+                    context.append(", ");
+                }
+                context.append(column).append(" = excluded.").append(column);
+            }
+        }
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+    }
+
+    /**
+     * Get the key columns of a MERGE clause
+     *
+     * @param entity target of the merge
+     * @param keys explicit keys
+     * @return the explicit keys or the primary key columns, if no explicit keys are given
+     */
+    protected List<? extends Path<?>> getMergeKeys(RelationalPath<?> entity, List<Path<?>> keys) {
+        if (!keys.isEmpty()) {
+            return keys;
+        } else if (entity.getPrimaryKey() != null) {
+            return entity.getPrimaryKey().getLocalColumns();
+        } else {
+            return ImmutableList.of();
+        }
+    }
+
+    /**
+     * Get the columns of a MERGE clause which are updated, if the row exists
+     *
+     * @param entity target of the merge
+     * @param keys key columns
+     * @param columns columns of the merge or an empty list for all columns
+     * @return non-key columns
+     */
+    protected List<Path<?>> getMergeUpdates(RelationalPath<?> entity, List<? extends Path<?>> keys,
+            List<Path<?>> columns) {
+        List<Path<?>> rv = Lists.newArrayList();
+        for (Path<?> column : columns.isEmpty() ? entity.getColumns() : columns) {
+            if (!keys.contains(column)) {
+                rv.add(column);
+            }
+        }
+        return rv;
+    }
+
     /**
      * template method for UPDATE serialization
      *
@@ -1065,6 +1266,10 @@ public class SQLTemplates extends Templates {
         this.nativeMerge = nativeMerge;
     }
 
+    protected void setNativeMergeSupported(boolean nativeMergeSupported) {
+        this.nativeMergeSupported = nativeMergeSupported;
+    }
+
     protected void setNotNull(String notNull) {
         this.notNull = notNull;
     }
@@ -1185,6 +1390,14 @@ public class SQLTemplates extends Templates {
         listMaxSize = i;
     }
 
+    protected void setMaxParameters(int i) {
+        maxParameters = i;
+    }
+
+    protected void setMaxBulkInsertRows(int i) {
+        maxBulkInsertRows = i;
+    }
+
     protected void setSupportsUnquotedReservedWordsAsIdentifier(boolean b) {
         this.supportsUnquotedReservedWordsAsIdentifier = b;
     }
@@ -1197,6 +1410,34 @@ public class SQLTemplates extends Templates {
         this.batchToBulkSupported = b;
     }
 
+    protected void setInArraySupported(boolean b) {
+        this.inArraySupported = b;
+    }
+
+    protected void setValuesSupported(boolean b) {
+        this.valuesSupported = b;
+    }
+
+    protected void setWrapValuesParameters(boolean b) {
+        this.wrapValuesParameters = b;
+    }
+
+    protected void setRowValueComparisonSupported(boolean b) {
+        this.rowValueComparisonSupported = b;
+    }
+
+    protected void setCreateTemporaryTable(@Nullable String createTemporaryTable) {
+        this.createTemporaryTable = createTemporaryTable;
+    }
+
+    protected void setDropTemporaryTable(String dropTemporaryTable) {
+        this.dropTemporaryTable = dropTemporaryTable;
+    }
+
+    protected void setTemporaryTablePrefix(String temporaryTablePrefix) {
+        this.temporaryTablePrefix = temporaryTablePrefix;
+    }
+
     protected void setForShareFlag(QueryFlag flag) {
         forShareFlag = flag;
     }
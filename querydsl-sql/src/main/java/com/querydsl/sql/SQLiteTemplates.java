@@ -14,11 +14,14 @@
 package com.querydsl.sql;
 
 import java.sql.Types;
+import java.util.List;
 
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
-import com.querydsl.core.types.Ops;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.sql.types.BigDecimalAsDoubleType;
 import com.querydsl.sql.types.BigIntegerAsLongType;
 
@@ -68,6 +71,7 @@ public class SQLiteTemplates extends SQLTemplates {
         setDefaultValues("\ndefault values");
         setArraysSupported(false);
         setBatchToBulkSupported(false);
+        setNativeMergeSupported(true);
 
         setPrecedence(Precedence.COMPARISON - 1, Ops.LT, Ops.GT, Ops.LOE, Ops.GOE);
         setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
@@ -112,6 +116,23 @@ public class SQLiteTemplates extends SQLTemplates {
         addTypeNameToCode("text", Types.VARCHAR);
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
+            SubQueryExpression<?> subQuery, SQLSerializer context) {
+        if (!isNativeMerge()) {
+            super.serializeMerge(metadata, entity, keys, columns, values, subQuery, context);
+            return;
+        }
+        if (subQuery != null && subQuery.getMetadata().getWhere() == null) {
+            // without a where clause the "on" of the upsert is parsed as a join constraint
+            QueryMetadata subQueryMetadata = subQuery.getMetadata().clone();
+            subQueryMetadata.addWhere(ExpressionUtils.predicate(Ops.EQ, Expressions.ONE, Expressions.ONE));
+            subQuery = new SubQueryExpressionImpl<Object>(Object.class, subQueryMetadata);
+        }
+        serializeMergeOnConflict(metadata, entity, keys, columns, values, subQuery, context);
+    }
+
     @Override
     public String serialize(String literal, int jdbcType) {
         // XXX doesn't work with LocalDate, LocalDateTime and LocalTime
@@ -28,6 +28,9 @@ import com.google.common.collect.ImmutableList;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.dml.DMLClause;
 import com.querydsl.core.support.QueryBase;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.ParamExpression;
 import com.querydsl.core.types.ParamNotSetException;
 import com.querydsl.core.types.Path;
@@ -56,6 +59,18 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
     @Nullable
     private Connection conn;
 
+    private int batchFlushSize;
+
+    private long batchFlushBytes;
+
+    private long pendingBatchBytes;
+
+    private long flushedRowCount;
+
+    private boolean batchFlushed;
+
+    private boolean flushingBatch;
+
     public AbstractSQLClause(Configuration configuration) {
         this.configuration = configuration;
         this.listeners = new SQLListeners(configuration.getListeners());
@@ -259,6 +274,127 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
         this.useLiterals = useLiterals;
     }
 
+    /**
+     * Set the amount of batch rows after which the pending batch is executed and cleared
+     * automatically (default: 0, no limit)
+     *
+     * <p>The affected row counts of flushed batches are included in the result of the next
+     * {@link #execute()} call. The generated keys of flushed batches are not retained, so
+     * {@code executeWithKeys()} fails after a flush.</p>
+     *
+     * @param rows maximum amount of pending batch rows
+     */
+    public void setBatchFlushSize(int rows) {
+        this.batchFlushSize = rows;
+    }
+
+    /**
+     * Set the estimated size of the bound values in bytes after which the pending batch is
+     * executed and cleared automatically (default: 0, no limit)
+     *
+     * <p>The affected row counts of flushed batches are included in the result of the next
+     * {@link #execute()} call. The generated keys of flushed batches are not retained, so
+     * {@code executeWithKeys()} fails after a flush.</p>
+     *
+     * @param bytes maximum estimated size of the pending batch rows
+     */
+    public void setBatchFlushBytes(long bytes) {
+        this.batchFlushBytes = bytes;
+    }
+
+    /**
+     * Called after a batch row has been added to flush the pending batch, if one of
+     * the configured thresholds has been reached
+     *
+     * @param row expressions of the added row
+     */
+    protected void onBatchAdded(Collection<?> row) {
+        if (batchFlushBytes > 0) {
+            for (Object expr : row) {
+                pendingBatchBytes += estimateSize(expr);
+            }
+        }
+        if ((batchFlushSize > 0 && getBatchCount() >= batchFlushSize)
+            || (batchFlushBytes > 0 && pendingBatchBytes >= batchFlushBytes)) {
+            long rowCount;
+            flushingBatch = true;
+            try {
+                rowCount = flushedRowCount + execute();
+            } finally {
+                flushingBatch = false;
+            }
+            clear();
+            flushedRowCount = rowCount;
+            batchFlushed = true;
+        }
+    }
+
+    /**
+     * Get whether pending batch rows have been executed by an automatic flush since the
+     * last {@link #execute()} call
+     *
+     * @return true, if batches have been flushed
+     */
+    protected boolean isBatchFlushed() {
+        return batchFlushed;
+    }
+
+    /**
+     * Reset the state of automatic batch flushes, called by {@link #clear()}
+     */
+    protected void clearBatchFlush() {
+        flushedRowCount = 0;
+        pendingBatchBytes = 0;
+        batchFlushed = false;
+    }
+
+    /**
+     * Check that no pending batch rows have been executed by an automatic flush, since the
+     * generated keys of flushed rows are not available
+     */
+    protected void checkKeysAvailable() {
+        if (batchFlushed) {
+            throw new IllegalStateException("executeWithKeys called after batch rows have been flushed");
+        }
+    }
+
+    /**
+     * Add the affected row counts of flushed batches to the given row count, unless called
+     * for an automatic flush
+     *
+     * @param rowCount affected row count of the pending batch
+     * @return total affected row count
+     */
+    protected long withFlushedRowCount(long rowCount) {
+        if (flushingBatch) {
+            return rowCount;
+        }
+        long rv = rowCount + flushedRowCount;
+        clearBatchFlush();
+        return rv;
+    }
+
+    private static long estimateSize(@Nullable Object expr) {
+        if (expr instanceof Constant<?>) {
+            Object constant = ((Constant<?>) expr).getConstant();
+            if (constant instanceof String) {
+                return 16 + 2 * ((String) constant).length();
+            } else if (constant instanceof byte[]) {
+                return 16 + ((byte[]) constant).length;
+            } else {
+                return 16;
+            }
+        } else if (expr instanceof Operation<?>) {
+            long rv = 16;
+            for (Expression<?> arg : ((Operation<?>) expr).getArgs()) {
+                rv += estimateSize(arg);
+            }
+            return rv;
+        } else {
+            return 16;
+        }
+    }
+
     public abstract int getBatchCount();
 
 }
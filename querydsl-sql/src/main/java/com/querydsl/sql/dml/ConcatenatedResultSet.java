@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@code ConcatenatedResultSet} returns the rows of several forward only result sets one after
+ * the other
+ *
+ * <p>The row related methods are delegated to the current result set, closing closes all of
+ * them.</p>
+ */
+final class ConcatenatedResultSet implements InvocationHandler {
+
+    /**
+     * Concatenate the given result sets
+     *
+     * @param results result sets, at least one
+     * @return concatenated result set
+     */
+    static ResultSet of(List<ResultSet> results) {
+        if (results.size() == 1) {
+            return results.get(0);
+        }
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new ConcatenatedResultSet(results));
+    }
+
+    private final List<ResultSet> results;
+
+    private int current;
+
+    private ConcatenatedResultSet(List<ResultSet> results) {
+        this.results = results;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("next")) {
+            while (!results.get(current).next()) {
+                if (current == results.size() - 1) {
+                    return false;
+                }
+                current++;
+            }
+            return true;
+        } else if (name.equals("close")) {
+            SQLException exception = null;
+            for (ResultSet rs : results) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            return null;
+        } else if (name.equals("equals")) {
+            return proxy == args[0];
+        } else if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (name.equals("toString")) {
+            return results.toString();
+        }
+        try {
+            return method.invoke(results.get(current), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
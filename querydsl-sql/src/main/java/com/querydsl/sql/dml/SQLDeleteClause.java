@@ -18,6 +18,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -109,10 +110,12 @@ public class SQLDeleteClause extends AbstractSQLClause<SQLDeleteClause> implemen
      * @return the current object
      */
     public SQLDeleteClause addBatch() {
-        batches.add(metadata);
+        QueryMetadata batch = metadata;
+        batches.add(batch);
         metadata = new DefaultQueryMetadata();
         metadata.addJoin(JoinType.DEFAULT, entity);
         metadata.setValidatingVisitor(validatingVisitor);
+        onBatchAdded(Collections.singletonList(batch.getWhere()));
         return this;
     }
 
@@ -122,6 +125,7 @@ public class SQLDeleteClause extends AbstractSQLClause<SQLDeleteClause> implemen
         metadata = new DefaultQueryMetadata();
         metadata.addJoin(JoinType.DEFAULT, entity);
         metadata.setValidatingVisitor(validatingVisitor);
+        clearBatchFlush();
     }
 
     private PreparedStatement createStatement() throws SQLException {
@@ -196,6 +200,9 @@ public class SQLDeleteClause extends AbstractSQLClause<SQLDeleteClause> implemen
 
     @Override
     public long execute() {
+        if (batches.isEmpty() && isBatchFlushed()) {
+            return withFlushedRowCount(0);
+        }
         context = startContext(connection(), metadata, entity);
         PreparedStatement stmt = null;
         Collection<PreparedStatement> stmts = null;
@@ -215,7 +222,7 @@ public class SQLDeleteClause extends AbstractSQLClause<SQLDeleteClause> implemen
                 listeners.preExecute(context);
                 long rc = executeBatch(stmts);
                 listeners.executed(context);
-                return rc;
+                return withFlushedRowCount(rc);
             }
         } catch (SQLException e) {
             onException(context,e);
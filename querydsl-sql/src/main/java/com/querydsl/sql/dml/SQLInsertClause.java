@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.JoinType;
@@ -138,16 +139,21 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
             subQuery = subQueryBuilder.select(values.toArray(new Expression[values.size()])).clone();
             values.clear();
         }
-        batches.add(new SQLInsertBatch(columns, values, subQuery));
+        SQLInsertBatch batch = new SQLInsertBatch(columns, values, subQuery);
+        batches.add(batch);
         columns.clear();
         values.clear();
         subQuery = null;
+        onBatchAdded(batch.getValues());
         return this;
     }
 
     /**
      * Set whether batches should be optimized into a single bulk operation.
      * Will revert to batches, if bulk is not supported
+     *
+     * <p>Bulk operations which exceed the parameter or row limits of the dialect are split into
+     * several bulk operations of the same size.</p>
      */
     public void setBatchToBulk(boolean b) {
         this.batchToBulk = b && configuration.getTemplates().isBatchToBulkSupported();
@@ -159,6 +165,7 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
         columns.clear();
         values.clear();
         subQuery = null;
+        clearBatchFlush();
     }
 
     @Override
@@ -267,7 +274,8 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
         }
         context.addSQL(serializer.toString());
         listeners.rendered(context);
-        return prepareStatementAndSetParameters(serializer, withKeys);
+        return prepareStatementAndSetParameters(serializer.toString(), serializer.getConstants(),
+                serializer.getConstantPaths(), withKeys);
     }
 
     private Collection<PreparedStatement> createStatements(boolean withKeys) throws SQLException {
@@ -280,36 +288,33 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
         }
 
         Map<String, PreparedStatement> stmts = Maps.newHashMap();
+        SQLBatchRenderer renderer = new SQLBatchRenderer(configuration.getTemplates());
 
         // add first batch
-        SQLSerializer serializer = createSerializer();
-        serializer.serializeInsert(metadata, entity, batches.get(0).getColumns(), batches
-                .get(0).getValues(), batches.get(0).getSubQuery());
-        PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
+        render(renderer, batches.get(0));
+        PreparedStatement stmt = prepareStatementAndSetParameters(renderer.getSQL(),
+                renderer.getConstants(), renderer.getConstantPaths(), withKeys);
         if (addBatches) {
             stmt.addBatch();
         }
-        stmts.put(serializer.toString(), stmt);
-        context.addSQL(serializer.toString());
+        stmts.put(renderer.getSQL(), stmt);
+        context.addSQL(renderer.getSQL());
         listeners.rendered(context);
 
         // add other batches
         for (int i = 1; i < batches.size(); i++) {
-            SQLInsertBatch batch = batches.get(i);
-
             listeners.preRender(context);
-            serializer = createSerializer();
-            serializer.serializeInsert(metadata, entity, batch.getColumns(),
-                    batch.getValues(), batch.getSubQuery());
-            context.addSQL(serializer.toString());
+            render(renderer, batches.get(i));
+            context.addSQL(renderer.getSQL());
             listeners.rendered(context);
 
-            stmt = stmts.get(serializer.toString());
+            stmt = stmts.get(renderer.getSQL());
             if (stmt == null) {
-                stmt = prepareStatementAndSetParameters(serializer, withKeys);
-                stmts.put(serializer.toString(), stmt);
+                stmt = prepareStatementAndSetParameters(renderer.getSQL(),
+                        renderer.getConstants(), renderer.getConstantPaths(), withKeys);
+                stmts.put(renderer.getSQL(), stmt);
             } else {
-                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
+                setParameters(stmt, renderer.getConstants(), renderer.getConstantPaths(),
                         metadata.getParams());
             }
             if (addBatches) {
@@ -320,12 +325,97 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
         return stmts.values();
     }
 
-    private PreparedStatement prepareStatementAndSetParameters(SQLSerializer serializer,
+    /**
+     * Create the statements of the given chunks
+     *
+     * <p>Chunks with the same SQL share the statement. If generated keys are requested, only
+     * consecutive chunks share the statement, so that the keys of the statements are in the
+     * order of the rows.</p>
+     */
+    private List<PreparedStatement> createBulkStatements(List<List<SQLInsertBatch>> chunks,
             boolean withKeys) throws SQLException {
+        boolean addBatches = !configuration.getUseLiterals();
+        Map<String, PreparedStatement> stmts = Maps.newLinkedHashMap();
+        List<PreparedStatement> rv = Lists.newArrayList();
+        for (List<SQLInsertBatch> chunk : chunks) {
+            listeners.preRender(context);
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeInsert(metadata, entity, chunk);
+            String sql = serializer.toString();
+            context.addSQL(sql);
+            listeners.rendered(context);
+
+            PreparedStatement stmt = stmts.get(sql);
+            if (stmt == null || (withKeys && stmt != rv.get(rv.size() - 1))) {
+                stmt = prepareStatementAndSetParameters(sql,
+                        serializer.getConstants(), serializer.getConstantPaths(), withKeys);
+                stmts.put(sql, stmt);
+                rv.add(stmt);
+            } else {
+                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
+                        metadata.getParams());
+            }
+            if (addBatches) {
+                stmt.addBatch();
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Split the batches into chunks, which respect the parameter and row limits of the dialect
+     *
+     * <p>The rows are added to a chunk as long as the parameters of the rows of the chunk don't
+     * exceed the parameter limit.</p>
+     *
+     * @return chunks
+     */
+    private List<List<SQLInsertBatch>> getBulkChunks() {
+        SQLTemplates templates = configuration.getTemplates();
+        int maxParameters = templates.getMaxParameters();
+        int maxRows = templates.getMaxBulkInsertRows() > 0
+                ? templates.getMaxBulkInsertRows() : Integer.MAX_VALUE;
+        List<List<SQLInsertBatch>> chunks = Lists.newArrayList();
+        int start = 0;
+        int parameters = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            int rowParameters = maxParameters > 0 ? getParameterCount(batches.get(i)) : 0;
+            if (i > start && (i - start == maxRows
+                    || (maxParameters > 0 && parameters + rowParameters > maxParameters))) {
+                chunks.add(batches.subList(start, i));
+                start = i;
+                parameters = 0;
+            }
+            parameters += rowParameters;
+        }
+        chunks.add(batches.subList(start, batches.size()));
+        return chunks;
+    }
+
+    private int getParameterCount(SQLInsertBatch batch) {
+        SQLSerializer serializer = createSerializer();
+        serializer.serializeInsert(metadata, entity, batch.getColumns(), batch.getValues(),
+                batch.getSubQuery());
+        return serializer.getConstants().size();
+    }
+
+    private void render(SQLBatchRenderer renderer, SQLInsertBatch batch) {
+        // rows with the same column shape are serialized only once
+        if (!renderer.bind(Arrays.asList(batch.getColumns(), batch.getValues(), batch.getSubQuery()))) {
+            SQLSerializer serializer = createSerializer();
+            renderer.record(serializer);
+            serializer.serializeInsert(metadata, entity, batch.getColumns(),
+                    batch.getValues(), batch.getSubQuery());
+            renderer.rendered(serializer);
+        }
+    }
+
+    private PreparedStatement prepareStatementAndSetParameters(String sql, List<Object> constants,
+            List<Path<?>> constantPaths, boolean withKeys) throws SQLException {
         listeners.prePrepare(context);
 
-        queryString = serializer.toString();
-        constants = serializer.getConstants();
+        this.queryString = sql;
+        this.constants = constants;
         logQuery(logger, queryString, constants);
         PreparedStatement stmt;
         if (withKeys) {
@@ -343,8 +433,7 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
         } else {
             stmt = connection().prepareStatement(queryString);
         }
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
-                metadata.getParams());
+        setParameters(stmt, constants, constantPaths, metadata.getParams());
 
         context.addPreparedStatement(stmt);
         listeners.prepared(context);
@@ -357,9 +446,11 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
      * @return result set with generated keys
      */
     public ResultSet executeWithKeys() {
+        checkKeysAvailable();
         context = startContext(connection(), metadata, entity);
         try {
             PreparedStatement stmt = null;
+            List<PreparedStatement> stmts = null;
             if (batches.isEmpty()) {
                 stmt = createStatement(true);
                 listeners.notifyInsert(entity, metadata, columns, values, subQuery);
@@ -368,18 +459,28 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
                 stmt.executeUpdate();
                 listeners.executed(context);
             } else if (batchToBulk) {
-                stmt = createStatement(true);
-                listeners.notifyInserts(entity, metadata, batches);
-
-                listeners.preExecute(context);
-                stmt.executeUpdate();
-                listeners.executed(context);
+                List<List<SQLInsertBatch>> chunks = getBulkChunks();
+                if (chunks.size() == 1) {
+                    stmt = createStatement(true);
+                    listeners.notifyInserts(entity, metadata, batches);
+
+                    listeners.preExecute(context);
+                    stmt.executeUpdate();
+                    listeners.executed(context);
+                } else {
+                    stmts = createBulkStatements(chunks, true);
+                    listeners.notifyInserts(entity, metadata, batches);
+
+                    listeners.preExecute(context);
+                    executeBatch(stmts);
+                    listeners.executed(context);
+                }
             } else {
-                Collection<PreparedStatement> stmts = createStatements(true);
-                if (stmts != null && stmts.size() > 1) {
+                Collection<PreparedStatement> batchStmts = createStatements(true);
+                if (batchStmts != null && batchStmts.size() > 1) {
                     throw new IllegalStateException("executeWithKeys called with batch statement and multiple SQL strings");
                 }
-                stmt = stmts.iterator().next();
+                stmt = batchStmts.iterator().next();
                 listeners.notifyInserts(entity, metadata, batches);
 
                 listeners.preExecute(context);
@@ -387,15 +488,23 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
                 listeners.executed(context);
             }
 
-            final Statement stmt2 = stmt;
-            ResultSet rs = stmt.getGeneratedKeys();
-            return new ResultSetAdapter(rs) {
+            if (stmts == null) {
+                stmts = Collections.singletonList(stmt);
+            }
+            final List<PreparedStatement> stmts2 = stmts;
+            List<ResultSet> keys = new ArrayList<ResultSet>(stmts.size());
+            for (PreparedStatement s : stmts) {
+                keys.add(s.getGeneratedKeys());
+            }
+            return new ResultSetAdapter(ConcatenatedResultSet.of(keys)) {
                 @Override
                 public void close() throws SQLException {
                     try {
                         super.close();
                     } finally {
-                        stmt2.close();
+                        for (PreparedStatement s : stmts2) {
+                            s.close();
+                        }
                         reset();
                         endContext(context);
                     }
@@ -411,6 +520,9 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
 
     @Override
     public long execute() {
+        if (batches.isEmpty() && isBatchFlushed()) {
+            return withFlushedRowCount(0);
+        }
         context = startContext(connection(), metadata,entity);
         PreparedStatement stmt = null;
         Collection<PreparedStatement> stmts = null;
@@ -424,13 +536,24 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
                 listeners.executed(context);
                 return rc;
             } else if (batchToBulk) {
-                stmt = createStatement(false);
-                listeners.notifyInserts(entity, metadata, batches);
-
-                listeners.preExecute(context);
-                int rc = stmt.executeUpdate();
-                listeners.executed(context);
-                return rc;
+                List<List<SQLInsertBatch>> chunks = getBulkChunks();
+                if (chunks.size() == 1) {
+                    stmt = createStatement(false);
+                    listeners.notifyInserts(entity, metadata, batches);
+
+                    listeners.preExecute(context);
+                    int rc = stmt.executeUpdate();
+                    listeners.executed(context);
+                    return withFlushedRowCount(rc);
+                } else {
+                    stmts = createBulkStatements(chunks, false);
+                    listeners.notifyInserts(entity, metadata, batches);
+
+                    listeners.preExecute(context);
+                    long rc = executeBatch(stmts);
+                    listeners.executed(context);
+                    return withFlushedRowCount(rc);
+                }
             } else {
                 stmts = createStatements(false);
                 listeners.notifyInserts(entity, metadata, batches);
@@ -438,7 +561,7 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
                 listeners.preExecute(context);
                 long rc = executeBatch(stmts);
                 listeners.executed(context);
-                return rc;
+                return withFlushedRowCount(rc);
             }
         } catch (SQLException e) {
             onException(context,e);
@@ -462,9 +585,13 @@ public class SQLInsertClause extends AbstractSQLClause<SQLInsertClause> implemen
             serializer.serializeInsert(metadata, entity, columns, values, subQuery);
             return ImmutableList.of(createBindings(metadata, serializer));
         } else if (batchToBulk) {
-            SQLSerializer serializer = createSerializer();
-            serializer.serializeInsert(metadata, entity, batches);
-            return ImmutableList.of(createBindings(metadata, serializer));
+            ImmutableList.Builder<SQLBindings> builder = ImmutableList.builder();
+            for (List<SQLInsertBatch> chunk : getBulkChunks()) {
+                SQLSerializer serializer = createSerializer();
+                serializer.serializeInsert(metadata, entity, chunk);
+                builder.add(createBindings(metadata, serializer));
+            }
+            return builder.build();
         } else {
             ImmutableList.Builder<SQLBindings> builder = ImmutableList.builder();
             for (SQLInsertBatch batch : batches) {
@@ -122,11 +122,13 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
             throw new IllegalStateException("batch only supported for databases that support native merge");
         }
 
-        batches.add(new SQLMergeBatch(keys, columns, values, subQuery));
+        SQLMergeBatch batch = new SQLMergeBatch(keys, columns, values, subQuery);
+        batches.add(batch);
         columns.clear();
         values.clear();
         keys.clear();
         subQuery = null;
+        onBatchAdded(batch.getValues());
         return this;
     }
 
@@ -137,6 +139,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         values.clear();
         keys.clear();
         subQuery = null;
+        clearBatchFlush();
     }
 
     public SQLMergeClause columns(Path<?>... columns) {
@@ -228,6 +231,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
      * @return result set with generated keys
      */
     public ResultSet executeWithKeys() {
+        checkKeysAvailable();
         context = startContext(connection(), metadata, entity);
         try {
             if (configuration.getTemplates().isNativeMerge()) {
@@ -385,7 +389,8 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
             listeners.rendered(context);
 
             listeners.prePrepare(context);
-            stmt = prepareStatementAndSetParameters(serializer, withKeys);
+            stmt = prepareStatementAndSetParameters(serializer.toString(),
+                    serializer.getConstants(), serializer.getConstantPaths(), withKeys);
             context.addPreparedStatement(stmt);
             listeners.prepared(context);
         } else {
@@ -395,7 +400,8 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
             context.addSQL(serializer.toString());
             listeners.rendered(context);
 
-            stmt = prepareStatementAndSetParameters(serializer, withKeys);
+            stmt = prepareStatementAndSetParameters(serializer.toString(),
+                    serializer.getConstants(), serializer.getConstantPaths(), withKeys);
 
             // add first batch
             if (addBatches) {
@@ -423,34 +429,31 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
     private Collection<PreparedStatement> createStatements(boolean withKeys) throws SQLException {
         boolean addBatches = !configuration.getUseLiterals();
         Map<String, PreparedStatement> stmts = Maps.newHashMap();
+        SQLBatchRenderer renderer = new SQLBatchRenderer(configuration.getTemplates());
 
         // add first batch
         listeners.preRender(context);
-        SQLSerializer serializer = createSerializer();
-        serializer.serializeMerge(metadata, entity,
-                batches.get(0).getKeys(), batches.get(0).getColumns(),
-                batches.get(0).getValues(), batches.get(0).getSubQuery());
-        context.addSQL(serializer.toString());
+        render(renderer, batches.get(0));
+        context.addSQL(renderer.getSQL());
         listeners.rendered(context);
 
-        PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
-        stmts.put(serializer.toString(), stmt);
+        PreparedStatement stmt = prepareStatementAndSetParameters(renderer.getSQL(),
+                renderer.getConstants(), renderer.getConstantPaths(), withKeys);
+        stmts.put(renderer.getSQL(), stmt);
         if (addBatches) {
             stmt.addBatch();
         }
 
         // add other batches
         for (int i = 1; i < batches.size(); i++) {
-            SQLMergeBatch batch = batches.get(i);
-            serializer = createSerializer();
-            serializer.serializeMerge(metadata, entity,
-                    batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
-            stmt = stmts.get(serializer.toString());
+            render(renderer, batches.get(i));
+            stmt = stmts.get(renderer.getSQL());
             if (stmt == null) {
-                stmt = prepareStatementAndSetParameters(serializer, withKeys);
-                stmts.put(serializer.toString(), stmt);
+                stmt = prepareStatementAndSetParameters(renderer.getSQL(),
+                        renderer.getConstants(), renderer.getConstantPaths(), withKeys);
+                stmts.put(renderer.getSQL(), stmt);
             } else {
-                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+                setParameters(stmt, renderer.getConstants(), renderer.getConstantPaths(), metadata.getParams());
             }
             if (addBatches) {
                 stmt.addBatch();
@@ -460,12 +463,24 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         return stmts.values();
     }
 
-    private PreparedStatement prepareStatementAndSetParameters(SQLSerializer serializer,
-            boolean withKeys) throws SQLException {
+    private void render(SQLBatchRenderer renderer, SQLMergeBatch batch) {
+        // rows with the same column shape are serialized only once
+        if (!renderer.bind(Arrays.asList(batch.getKeys(), batch.getColumns(), batch.getValues(),
+                batch.getSubQuery()))) {
+            SQLSerializer serializer = createSerializer();
+            renderer.record(serializer);
+            serializer.serializeMerge(metadata, entity,
+                    batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
+            renderer.rendered(serializer);
+        }
+    }
+
+    private PreparedStatement prepareStatementAndSetParameters(String sql, List<Object> constants,
+            List<Path<?>> constantPaths, boolean withKeys) throws SQLException {
         listeners.prePrepare(context);
 
-        queryString = serializer.toString();
-        constants = serializer.getConstants();
+        this.queryString = sql;
+        this.constants = constants;
         logQuery(logger, queryString, constants);
         PreparedStatement stmt;
         if (withKeys) {
@@ -477,7 +492,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         } else {
             stmt = connection().prepareStatement(queryString);
         }
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+        setParameters(stmt, constants, constantPaths, metadata.getParams());
         context.addPreparedStatement(stmt);
         listeners.prepared(context);
 
@@ -485,6 +500,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
     }
 
     private long executeNativeMerge() {
+        if (batches.isEmpty() && isBatchFlushed()) {
+            return withFlushedRowCount(0);
+        }
         context = startContext(connection(), metadata, entity);
         PreparedStatement stmt = null;
         Collection<PreparedStatement> stmts = null;
@@ -504,7 +522,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
                 listeners.preExecute(context);
                 long rc = executeBatch(stmts);
                 listeners.executed(context);
-                return rc;
+                return withFlushedRowCount(rc);
             }
         } catch (SQLException e) {
             onException(context,e);
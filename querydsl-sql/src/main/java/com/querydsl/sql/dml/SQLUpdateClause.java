@@ -104,10 +104,13 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
      * @return the current object
      */
     public SQLUpdateClause addBatch() {
+        List<Expression<?>> row = new ArrayList<Expression<?>>(updates.values());
+        row.add(metadata.getWhere());
         batches.add(new SQLUpdateBatch(metadata, updates));
         updates = Maps.newLinkedHashMap();
         metadata = new DefaultQueryMetadata();
         metadata.addJoin(JoinType.DEFAULT, entity);
+        onBatchAdded(row);
         return this;
     }
 
@@ -117,6 +120,7 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
         updates = Maps.newLinkedHashMap();
         metadata = new DefaultQueryMetadata();
         metadata.addJoin(JoinType.DEFAULT, entity);
+        clearBatchFlush();
     }
 
     private PreparedStatement createStatement() throws SQLException {
@@ -140,11 +144,11 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
 
     private Collection<PreparedStatement> createStatements() throws SQLException {
         boolean addBatches = !configuration.getUseLiterals();
+        SQLBatchRenderer renderer = new SQLBatchRenderer(configuration.getTemplates());
         listeners.preRender(context);
-        SQLSerializer serializer = createSerializer();
-        serializer.serializeUpdate(batches.get(0).getMetadata(), entity, batches.get(0).getUpdates());
-        queryString = serializer.toString();
-        constants = serializer.getConstants();
+        render(renderer, batches.get(0));
+        queryString = renderer.getSQL();
+        constants = renderer.getConstants();
         logQuery(logger, queryString, constants);
         context.addSQL(queryString);
         listeners.rendered(context);
@@ -154,11 +158,11 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
         // add first batch
         listeners.prePrepare(context);
         PreparedStatement stmt = connection().prepareStatement(queryString);
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+        setParameters(stmt, renderer.getConstants(), renderer.getConstantPaths(), metadata.getParams());
         if (addBatches) {
             stmt.addBatch();
         }
-        stmts.put(serializer.toString(), stmt);
+        stmts.put(renderer.getSQL(), stmt);
         context.addPreparedStatement(stmt);
         listeners.prepared(context);
 
@@ -166,20 +170,19 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
         // add other batches
         for (int i = 1; i < batches.size(); i++) {
             listeners.preRender(context);
-            serializer = createSerializer();
-            serializer.serializeUpdate(batches.get(i).getMetadata(), entity, batches.get(i).getUpdates());
-            context.addSQL(serializer.toString());
+            render(renderer, batches.get(i));
+            context.addSQL(renderer.getSQL());
             listeners.rendered(context);
 
-            stmt = stmts.get(serializer.toString());
+            stmt = stmts.get(renderer.getSQL());
             if (stmt == null) {
                 listeners.prePrepare(context);
-                stmt = connection().prepareStatement(serializer.toString());
-                stmts.put(serializer.toString(), stmt);
+                stmt = connection().prepareStatement(renderer.getSQL());
+                stmts.put(renderer.getSQL(), stmt);
                 context.addPreparedStatement(stmt);
                 listeners.prepared(context);
             }
-            setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+            setParameters(stmt, renderer.getConstants(), renderer.getConstantPaths(), metadata.getParams());
             if (addBatches) {
                 stmt.addBatch();
             }
@@ -188,8 +191,23 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
         return stmts.values();
     }
 
+    private void render(SQLBatchRenderer renderer, SQLUpdateBatch batch) {
+        // rows with the same column shape are serialized only once
+        List<Path<?>> paths = new ArrayList<Path<?>>(batch.getUpdates().keySet());
+        List<Expression<?>> values = new ArrayList<Expression<?>>(batch.getUpdates().values());
+        if (!renderer.bind(Arrays.asList(batch.getMetadata(), paths, values))) {
+            SQLSerializer serializer = createSerializer();
+            renderer.record(serializer);
+            serializer.serializeUpdate(batch.getMetadata(), entity, batch.getUpdates());
+            renderer.rendered(serializer);
+        }
+    }
+
     @Override
     public long execute() {
+        if (batches.isEmpty() && isBatchFlushed()) {
+            return withFlushedRowCount(0);
+        }
         context = startContext(connection(), metadata, entity);
 
         PreparedStatement stmt = null;
@@ -210,7 +228,7 @@ public class SQLUpdateClause extends AbstractSQLClause<SQLUpdateClause> implemen
                 listeners.preExecute(context);
                 long rc = executeBatch(stmts);
                 listeners.executed(context);
-                return rc;
+                return withFlushedRowCount(rc);
             }
         } catch (SQLException e) {
             onException(context,e);
@@ -0,0 +1,196 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.querydsl.core.QueryResults;
+import com.querydsl.sql.domain.QSurvey;
+
+public class AsyncFetchTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<String>());
+
+    private final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+
+    private final List<String> mdcValues = Collections.synchronizedList(new ArrayList<String>());
+
+    private final List<Connection> connections = Collections.synchronizedList(new ArrayList<Connection>());
+
+    private ExecutorService executor;
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        configuration = new Configuration(new H2Templates());
+        configuration.setExecutor(executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+        MDC.remove("request");
+    }
+
+    private Provider<Connection> provider(final List<Integer> rows) {
+        return new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                Connection conn = connection(rows);
+                connections.add(conn);
+                return conn;
+            }
+        };
+    }
+
+    private Connection connection(final List<Integer> rows) {
+        return FakeConnections.connection(new FakeConnections.Database() {
+            @Override
+            protected List<Object[]> executeQuery(String sql, List<Object> params) {
+                queries.add(sql);
+                threads.add(Thread.currentThread().getName());
+                mdcValues.add(MDC.get("request"));
+                if (sql.startsWith("select count(*)")) {
+                    return FakeConnections.rows(Collections.singletonList(rows.size()));
+                } else {
+                    return FakeConnections.rows(rows);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void fetchAsync() throws Exception {
+        MDC.put("request", "abc");
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1, 2, 3)), configuration)
+                .select(survey.id).from(survey);
+        ListenableFuture<List<Integer>> future = query.fetchAsync();
+        assertEquals(Arrays.asList(1, 2, 3), future.get());
+        assertEquals(1, connections.size());
+        assertFalse(threads.get(0).equals(Thread.currentThread().getName()));
+        assertEquals("abc", MDC.get("request"));
+    }
+
+    @Test
+    public void fetchOneAsync() throws Exception {
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(5)), configuration)
+                .select(survey.id).from(survey);
+        assertEquals(Integer.valueOf(5), query.fetchOneAsync().get());
+    }
+
+    @Test
+    public void fetchCountAsync() throws Exception {
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1, 2)), configuration)
+                .select(survey.id).from(survey);
+        assertEquals(Long.valueOf(2), query.fetchCountAsync().get());
+        assertEquals("select count(*)\nfrom SURVEY SURVEY", queries.get(0));
+    }
+
+    @Test
+    public void fetchResultsAsync() throws Exception {
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1, 2, 3)), configuration)
+                .select(survey.id).from(survey).limit(10);
+        QueryResults<Integer> results = query.fetchResultsAsync().get();
+        assertEquals(Arrays.asList(1, 2, 3), results.getResults());
+        assertEquals(3, results.getTotal());
+        assertEquals(10, results.getLimit());
+        // count and page queries use separate connections
+        assertEquals(2, connections.size());
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    public void fetchResultsAsync_empty() throws Exception {
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Collections.<Integer>emptyList()), configuration)
+                .select(survey.id).from(survey);
+        QueryResults<Integer> results = query.fetchResultsAsync().get();
+        assertTrue(results.isEmpty());
+        assertEquals(0, results.getTotal());
+    }
+
+    @Test
+    public void mdc_propagated() throws Exception {
+        MDC.put("request", "abc");
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1)), configuration)
+                .select(survey.id).from(survey);
+        query.fetchAsync().get();
+        MDC.remove("request");
+        query.fetchAsync().get();
+        assertEquals(Arrays.asList("abc", null), mdcValues);
+    }
+
+    @Test
+    public void direct_executor() throws Exception {
+        configuration.setExecutor(MoreExecutors.directExecutor());
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1)), configuration)
+                .select(survey.id).from(survey);
+        ListenableFuture<List<Integer>> future = query.fetchAsync();
+        assertTrue(future.isDone());
+        assertEquals(Thread.currentThread().getName(), threads.get(0));
+    }
+
+    @Test
+    public void default_executor() throws Exception {
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1, 2)), new Configuration(new H2Templates()))
+                .select(survey.id).from(survey);
+        QueryResults<Integer> results = query.fetchResultsAsync().get();
+        assertEquals(2, results.getTotal());
+        for (String thread : threads) {
+            assertFalse(thread.equals(Thread.currentThread().getName()));
+        }
+    }
+
+    @Test
+    public void listener_context_propagated() throws Exception {
+        configuration.setExecutor(MoreExecutors.directExecutor());
+        final List<SQLListenerContext> started = Collections.synchronizedList(new ArrayList<SQLListenerContext>());
+        final List<SQLListenerContext> ended = Collections.synchronizedList(new ArrayList<SQLListenerContext>());
+        SQLQuery<Integer> query = new SQLQuery<Void>(provider(Arrays.asList(1, 2)), configuration)
+                .select(survey.id).from(survey);
+        query.addListener(new SQLBaseListener() {
+            @Override
+            public void start(SQLListenerContext context) {
+                started.add(context);
+            }
+
+            @Override
+            public void end(SQLListenerContext context) {
+                ended.add(context);
+            }
+        });
+        query.fetchResultsAsync().get();
+        // the context of the calling thread and the contexts of the count and page queries
+        assertEquals(3, started.size());
+        SQLListenerContext asyncContext = started.get(0);
+        assertNull(asyncContext.getConnection());
+        assertNull(asyncContext.getData(AbstractSQLQuery.ASYNC_CONTEXT));
+        for (SQLListenerContext context : started.subList(1, 3)) {
+            assertNotNull(context.getConnection());
+            assertSame(asyncContext, context.getData(AbstractSQLQuery.ASYNC_CONTEXT));
+        }
+        assertEquals(3, ended.size());
+        assertSame(asyncContext, ended.get(2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void no_connection_provider() {
+        new SQLQuery<Void>(connection(Arrays.asList(1)), configuration).select(survey.id).from(survey).fetchAsync();
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.querydsl.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Provider;
+
+/**
+ * Fake JDBC connections for tests which don't need a database
+ *
+ * <p>The prepared statements of the connections collect their parameters and delegate the
+ * execution to a {@link Database}. Methods which aren't handled return null, zero or false.</p>
+ */
+public final class FakeConnections {
+
+    /**
+     * Database which executes the statements of fake connections
+     */
+    public abstract static class Database {
+
+        /**
+         * Called when a statement is prepared
+         *
+         * @param sql sql of the statement
+         */
+        protected void prepared(String sql) { }
+
+        /**
+         * Execute a query
+         *
+         * @param sql sql of the statement
+         * @param params parameters of the statement
+         * @return rows of the result
+         */
+        protected List<Object[]> executeQuery(String sql, List<Object> params) {
+            return Collections.emptyList();
+        }
+
+        /**
+         * Execute an update
+         *
+         * @param sql sql of the statement
+         * @param params parameters of the statement
+         * @return affected row count
+         */
+        protected int executeUpdate(String sql, List<Object> params) {
+            return 1;
+        }
+
+        /**
+         * Execute a batch
+         *
+         * @param sql sql of the statement
+         * @param batch parameters of the batch rows
+         * @return affected row counts
+         */
+        protected int[] executeBatch(String sql, List<List<Object>> batch) {
+            int[] counts = new int[batch.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = executeUpdate(sql, batch.get(i));
+            }
+            return counts;
+        }
+
+        /**
+         * Get the generated keys of the rows executed by a statement
+         *
+         * @param sql sql of the statement
+         * @param executed parameters of the executed rows
+         * @return rows of the generated keys
+         */
+        protected List<Object[]> generatedKeys(String sql, List<List<Object>> executed) {
+            return Collections.emptyList();
+        }
+
+        /**
+         * Called when a statement is closed
+         *
+         * @param sql sql of the statement
+         */
+        protected void closed(String sql) { }
+
+    }
+
+    private FakeConnections() { }
+
+    public static Provider<Connection> provider(final Database database) {
+        return new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return connection(database);
+            }
+        };
+    }
+
+    public static Connection connection(final Database database) {
+        return proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("prepareStatement")) {
+                    database.prepared((String) args[0]);
+                    return statement(database, (String) args[0]);
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private static PreparedStatement statement(final Database database, final String sql) {
+        return proxy(PreparedStatement.class, new InvocationHandler() {
+            List<Object> params = new ArrayList<Object>();
+            final List<List<Object>> batch = new ArrayList<List<Object>>();
+            final List<List<Object>> executed = new ArrayList<List<Object>>();
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    int index = (Integer) args[0];
+                    while (params.size() < index) {
+                        params.add(null);
+                    }
+                    params.set(index - 1, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("executeQuery")) {
+                    return resultSet(database.executeQuery(sql, params));
+                } else if (name.equals("executeUpdate")) {
+                    executed.add(params);
+                    return database.executeUpdate(sql, params);
+                } else if (name.equals("addBatch")) {
+                    batch.add(params);
+                    params = new ArrayList<Object>();
+                } else if (name.equals("executeBatch")) {
+                    int[] counts = database.executeBatch(sql, new ArrayList<List<Object>>(batch));
+                    executed.addAll(batch);
+                    batch.clear();
+                    return counts;
+                } else if (name.equals("getGeneratedKeys")) {
+                    return resultSet(database.generatedKeys(sql, executed));
+                } else if (name.equals("close")) {
+                    database.closed(sql);
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    /**
+     * Create a result set for the given rows, which returns the column values for the
+     * getters with a column index
+     *
+     * @param rows rows of the result
+     * @return result set
+     */
+    public static ResultSet resultSet(final List<Object[]> rows) {
+        return proxy(ResultSet.class, new InvocationHandler() {
+            int row = -1;
+            boolean wasNull;
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    return ++row < rows.size();
+                } else if (name.equals("wasNull")) {
+                    return wasNull;
+                } else if (name.startsWith("get") && args != null && args[0] instanceof Integer) {
+                    Object value = rows.get(row)[(Integer) args[0] - 1];
+                    wasNull = value == null;
+                    return value != null ? convert(value, method.getReturnType()) : defaultValue(method);
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    /**
+     * Create single column rows for the given values
+     *
+     * @param values column values
+     * @return rows
+     */
+    public static List<Object[]> rows(List<?> values) {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (Object value : values) {
+            rows.add(new Object[]{value});
+        }
+        return rows;
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type.equals(int.class)) {
+            return ((Number) value).intValue();
+        } else if (type.equals(long.class)) {
+            return ((Number) value).longValue();
+        } else if (type.equals(double.class)) {
+            return ((Number) value).doubleValue();
+        } else {
+            return value;
+        }
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type.equals(boolean.class)) {
+            return false;
+        } else if (type.equals(int.class)) {
+            return 0;
+        } else if (type.equals(long.class)) {
+            return 0L;
+        } else if (type.equals(double.class)) {
+            return 0.0;
+        } else if (type.equals(float.class)) {
+            return 0.0f;
+        } else if (type.equals(short.class)) {
+            return (short) 0;
+        } else if (type.equals(byte.class)) {
+            return (byte) 0;
+        } else {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeConnections.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+}
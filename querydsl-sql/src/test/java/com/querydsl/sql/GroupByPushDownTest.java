@@ -0,0 +1,99 @@
+package com.querydsl.sql;
+
+import static com.querydsl.core.group.GroupBy.*;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.querydsl.core.group.Group;
+import com.querydsl.sql.domain.QSurvey;
+
+public class GroupByPushDownTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final List<String> queries = new ArrayList<String>();
+
+    private List<Object[]> rows = new ArrayList<Object[]>();
+
+    private final Connection connection = FakeConnections.connection(new FakeConnections.Database() {
+        @Override
+        protected void prepared(String sql) {
+            queries.add(sql);
+        }
+        @Override
+        protected List<Object[]> executeQuery(String sql, List<Object> params) {
+            return rows;
+        }
+    });
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(connection, new H2Templates()).from(survey);
+    }
+
+    @Test
+    public void aggregates() {
+        rows = Arrays.asList(new Object[]{"a", 3, "x"}, new Object[]{"b", 5, "y"});
+        Map<String, Group> results = query().transform(groupBy(survey.name).as(sum(survey.id), min(survey.name2)));
+        assertEquals("select SURVEY.NAME, sum(SURVEY.ID), min(SURVEY.NAME2)\n"
+                + "from SURVEY SURVEY\n"
+                + "group by SURVEY.NAME", queries.get(0));
+        assertEquals(Integer.valueOf(3), results.get("a").getGroup(sum(survey.id)));
+        assertEquals("x", results.get("a").getGroup(min(survey.name2)));
+        assertEquals(Integer.valueOf(5), results.get("b").getGroup(sum(survey.id)));
+    }
+
+    @Test
+    public void plain_columns() {
+        rows = Arrays.asList(new Object[]{1, "a", "x"}, new Object[]{1, "a", "y"});
+        List<Group> results = query().orderBy(survey.id.asc())
+                .transform(groupBy(survey.id).list(survey.name, max(survey.name2)));
+        assertEquals("select SURVEY.ID, SURVEY.NAME, max(SURVEY.NAME2)\n"
+                + "from SURVEY SURVEY\n"
+                + "group by SURVEY.ID, SURVEY.NAME\n"
+                + "order by SURVEY.ID asc", queries.get(0));
+        assertEquals(1, results.size());
+        assertEquals("a", results.get(0).getOne(survey.name));
+        assertEquals("y", results.get(0).getGroup(max(survey.name2)));
+    }
+
+    @Test
+    public void query_is_not_modified() {
+        rows = Arrays.<Object[]>asList(new Object[]{"a", 3});
+        SQLQuery<?> query = query();
+        query.transform(groupBy(survey.name).as(sum(survey.id)));
+        query.transform(groupBy(survey.name).as(sum(survey.id)));
+        assertTrue(query.getMetadata().getGroupBy().isEmpty());
+        assertEquals(queries.get(0), queries.get(1));
+        assertTrue(queries.get(1).contains("group by SURVEY.NAME"));
+    }
+
+    @Test
+    public void rows_of_group_are_combined() {
+        rows = Arrays.asList(new Object[]{"a", 3}, new Object[]{"a", 4});
+        Map<String, Integer> results = query().transform(groupBy(survey.name).as(sum(survey.id)));
+        assertEquals(Integer.valueOf(7), results.get("a"));
+    }
+
+    @Test
+    public void client_side() {
+        query().transform(groupBy(survey.name).as(list(survey.id)));
+        query().transform(groupBy(survey.name).as(avg(survey.id)));
+        query().transform(groupBy(survey.name).as(survey.id));
+        query().limit(10).transform(groupBy(survey.name).as(sum(survey.id)));
+        query().distinct().transform(groupBy(survey.name).as(sum(survey.id)));
+        query().groupBy(survey.name, survey.id).transform(groupBy(survey.name).as(sum(survey.id)));
+        query().orderBy(survey.id.asc()).transform(groupBy(survey.name).as(sum(survey.id)));
+        assertEquals(7, queries.size());
+        for (String query : queries) {
+            assertFalse(query, query.contains("sum(") || query.contains("avg(") || query.contains("group by SURVEY.NAME\n"));
+        }
+    }
+
+}
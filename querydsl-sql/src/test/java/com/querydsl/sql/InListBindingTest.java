@@ -0,0 +1,85 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.querydsl.sql.domain.QSurvey;
+
+public class InListBindingTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private SQLBindings getSQL(Configuration configuration, List<Integer> ids) {
+        return new SQLQuery<Void>(configuration).from(survey).where(survey.id.in(ids)).select(survey.id).getSQL();
+    }
+
+    @Test
+    public void padding() {
+        Configuration configuration = new Configuration(new H2Templates());
+        configuration.setInListPadding(true);
+        SQLBindings three = getSQL(configuration, Arrays.asList(1, 2, 3));
+        SQLBindings four = getSQL(configuration, Arrays.asList(1, 2, 3, 4));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in (?, ?, ?, ?)", three.getSQL());
+        assertEquals(three.getSQL(), four.getSQL());
+        assertEquals(Arrays.<Object>asList(1, 2, 3, 3), three.getBindings());
+
+        SQLBindings five = getSQL(configuration, Arrays.asList(1, 2, 3, 4, 5));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in (?, ?, ?, ?, ?, ?, ?, ?)", five.getSQL());
+        assertEquals(Arrays.<Object>asList(1, 2, 3, 4, 5, 5, 5, 5), five.getBindings());
+
+        SQLBindings one = getSQL(configuration, Arrays.asList(1));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID = ?", one.getSQL());
+    }
+
+    @Test
+    public void padding_not_in() {
+        Configuration configuration = new Configuration(new H2Templates());
+        configuration.setInListPadding(true);
+        SQLBindings bindings = new SQLQuery<Void>(configuration).from(survey)
+                .where(survey.name.notIn("a", "b", "c")).select(survey.id).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.NAME not in (?, ?, ?, ?)", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList("a", "b", "c", "c"), bindings.getBindings());
+    }
+
+    @Test
+    public void padding_respects_list_max_size() {
+        Configuration configuration = new Configuration(new OracleTemplates());
+        configuration.setInListPadding(true);
+        Integer[] ids = new Integer[1003];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        SQLBindings bindings = getSQL(configuration, Arrays.asList(ids));
+        // 1000 + 3 padded to 4
+        assertEquals(1004, bindings.getBindings().size());
+    }
+
+    @Test
+    public void array_binding() {
+        Configuration configuration = new Configuration(new PostgreSQLTemplates());
+        configuration.setInListArrayBinding(true);
+        SQLBindings bindings = getSQL(configuration, Arrays.asList(1, 2, 3));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID = any(?)", bindings.getSQL());
+        assertEquals(1, bindings.getBindings().size());
+        assertArrayEquals(new Integer[]{1, 2, 3}, (Object[]) bindings.getBindings().get(0));
+        assertEquals(bindings.getSQL(), getSQL(configuration, Arrays.asList(1, 2, 3, 4, 5)).getSQL());
+
+        bindings = new SQLQuery<Void>(configuration).from(survey)
+                .where(survey.name.notIn("a", "b")).select(survey.id).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.NAME <> all(?)", bindings.getSQL());
+        assertArrayEquals(new String[]{"a", "b"}, (Object[]) bindings.getBindings().get(0));
+    }
+
+    @Test
+    public void array_binding_not_supported() {
+        Configuration configuration = new Configuration(new MySQLTemplates());
+        configuration.setInListArrayBinding(true);
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in (?, ?)",
+                getSQL(configuration, Arrays.asList(1, 2)).getSQL());
+    }
+
+}
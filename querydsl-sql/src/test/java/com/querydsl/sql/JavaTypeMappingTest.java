@@ -13,8 +13,7 @@
  */
 package com.querydsl.sql;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -56,4 +55,35 @@ public class JavaTypeMappingTest {
         assertEquals(CharacterType.class, typeMapping.getType(char.class).getClass());
     }
 
+    @Test
+    public void register_replaces_resolved_types() {
+        assertEquals(ObjectType.class, typeMapping.getType(InputStream.class).getClass());
+        typeMapping.register(new InputStreamType());
+        assertEquals(InputStreamType.class, typeMapping.getType(FileInputStream.class).getClass());
+        assertEquals(InputStreamType.class, typeMapping.getType(InputStream.class).getClass());
+    }
+
+    @Test
+    public void setType() {
+        typeMapping.setType("table", "column1", new StringType());
+        typeMapping.setType("table", "column2", new IntegerType());
+        assertEquals(StringType.class, typeMapping.getType("table", "column1").getClass());
+        assertEquals(IntegerType.class, typeMapping.getType("table", "column2").getClass());
+        assertNull(typeMapping.getType("table", "column3"));
+    }
+
+    @Test
+    public void freeze() {
+        typeMapping.register(new InputStreamType());
+        typeMapping.freeze();
+        assertTrue(typeMapping.isFrozen());
+        assertEquals(InputStreamType.class, typeMapping.getType(FileInputStream.class).getClass());
+        try {
+            typeMapping.register(new StringType());
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
 }
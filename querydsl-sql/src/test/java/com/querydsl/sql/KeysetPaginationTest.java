@@ -0,0 +1,71 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.querydsl.sql.domain.QSurvey;
+
+public class KeysetPaginationTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private SQLQuery<?> query(SQLTemplates templates) {
+        return new SQLQuery<Void>(templates).from(survey).select(survey.id);
+    }
+
+    @Test
+    public void row_value() {
+        SQLBindings bindings = query(new H2Templates())
+                .orderBy(survey.name.asc(), survey.id.asc())
+                .seekAfter("a", 5).limit(10).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where (SURVEY.NAME, SURVEY.ID) > (?, ?)\n" +
+                "order by SURVEY.NAME asc, SURVEY.ID asc\nlimit ?", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList("a", 5, 10L), bindings.getBindings());
+    }
+
+    @Test
+    public void row_value_desc() {
+        SQLBindings bindings = query(new PostgreSQLTemplates())
+                .orderBy(survey.name.desc(), survey.id.desc())
+                .seekAfter("a", 5).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where (SURVEY.NAME, SURVEY.ID) < (?, ?)\n" +
+                "order by SURVEY.NAME desc, SURVEY.ID desc", bindings.getSQL());
+    }
+
+    @Test
+    public void mixed_order() {
+        SQLBindings bindings = query(new H2Templates())
+                .orderBy(survey.name.asc(), survey.id.desc())
+                .seekAfter("a", 5).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where SURVEY.NAME >= ? and (SURVEY.NAME > ? or SURVEY.NAME = ? and SURVEY.ID < ?)\n" +
+                "order by SURVEY.NAME asc, SURVEY.ID desc", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList("a", "a", "a", 5), bindings.getBindings());
+    }
+
+    @Test
+    public void row_value_not_supported() {
+        SQLBindings bindings = query(new OracleTemplates())
+                .orderBy(survey.name.asc(), survey.id.asc())
+                .seekAfter("a", 5).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where SURVEY.NAME >= ? and (SURVEY.NAME > ? or SURVEY.NAME = ? and SURVEY.ID > ?)\n" +
+                "order by SURVEY.NAME asc, SURVEY.ID asc", bindings.getSQL());
+    }
+
+    @Test
+    public void nulls_last() {
+        SQLBindings bindings = query(new H2Templates())
+                .orderBy(survey.name.asc().nullsLast(), survey.id.asc())
+                .seekAfter(null, 5).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where SURVEY.NAME is null and SURVEY.ID > ?\n" +
+                "order by SURVEY.NAME asc nulls last, SURVEY.ID asc", bindings.getSQL());
+    }
+
+}
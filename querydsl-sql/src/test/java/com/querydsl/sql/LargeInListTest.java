@@ -0,0 +1,100 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.sql.domain.QSurvey;
+
+public class LargeInListTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private SQLBindings getSQL(SQLTemplates templates, Predicate where) {
+        Configuration configuration = new Configuration(templates);
+        configuration.setLargeInListThreshold(3);
+        return new SQLQuery<Void>(configuration).from(survey).where(where).select(survey.id).getSQL();
+    }
+
+    @Test
+    public void below_threshold() {
+        SQLBindings bindings = getSQL(new H2Templates(), survey.id.in(1, 2, 3));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in (?, ?, ?)", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList(1, 2, 3), bindings.getBindings());
+    }
+
+    @Test
+    public void values() {
+        List<Integer> ids = Arrays.asList(1, 2, 3, 4);
+        SQLBindings bindings = getSQL(new H2Templates(), survey.id.in(ids));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where SURVEY.ID in (select v.c from (values (?), (?), (?), (?)) v(c))", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList(1, 2, 3, 4), bindings.getBindings());
+    }
+
+    @Test
+    public void values_not_in() {
+        SQLBindings bindings = getSQL(new PostgreSQLTemplates(), survey.name.notIn("a", "b", "c", "d"));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where SURVEY.NAME not in (select v.c from (values (?), (?), (?), (?)) v(c))", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList("a", "b", "c", "d"), bindings.getBindings());
+    }
+
+    @Test
+    public void temporary_table() {
+        SQLBindings bindings = getSQL(new MySQLTemplates(), survey.id.in(1, 2, 3, 4));
+        assertTrue(bindings.getSQL(), bindings.getSQL().matches(
+                "select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in \\(select c from querydsl_in_\\d+\\)"));
+        assertTrue(bindings.getBindings().isEmpty());
+    }
+
+    @Test
+    public void not_supported() {
+        SQLBindings bindings = getSQL(new OracleTemplates(), survey.id.in(1, 2, 3, 4));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in (?, ?, ?, ?)", bindings.getSQL());
+        assertEquals(Arrays.<Object>asList(1, 2, 3, 4), bindings.getBindings());
+    }
+
+    @Test
+    public void values_sqlServer() {
+        SQLBindings bindings = getSQL(new SQLServer2012Templates(), survey.id.in(1, 2, 3, 4));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\n" +
+                "where SURVEY.ID in (select v.c from (values (?), (?), (?), (?)) v(c))", bindings.getSQL());
+    }
+
+    @Test
+    public void temporary_table_sqlServer() {
+        // above the parameter limit
+        List<Integer> ids = new ArrayList<Integer>();
+        for (int i = 0; i < 2101; i++) {
+            ids.add(i);
+        }
+        SQLBindings bindings = getSQL(new SQLServer2012Templates(), survey.id.in(ids));
+        assertTrue(bindings.getSQL(), bindings.getSQL().matches(
+                "select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in \\(select c from #querydsl_in_\\d+\\)"));
+        assertTrue(bindings.getBindings().isEmpty());
+    }
+
+    @Test
+    public void values_derby() {
+        SQLBindings bindings = getSQL(new DerbyTemplates(), survey.id.in(1, 2, 3, 4));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.ID in (select v.c from " +
+                "(values (cast(? as integer)), (cast(? as integer)), (cast(? as integer)), (cast(? as integer))) v(c))",
+                bindings.getSQL());
+        assertEquals(Arrays.<Object>asList(1, 2, 3, 4), bindings.getBindings());
+    }
+
+    @Test
+    public void values_db2_strings() {
+        SQLBindings bindings = getSQL(new DB2Templates(), survey.name.in("a", "bb", "c", "d"));
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.NAME in (select v.c from " +
+                "(values (cast(? as varchar(2))), (cast(? as varchar(2))), (cast(? as varchar(2))), (cast(? as varchar(2)))) v(c))",
+                bindings.getSQL());
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.sql.domain.QEmployee;
+import com.querydsl.sql.domain.QSurvey;
+
+public class PartitionedFetchTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final List<Integer> ids = Arrays.asList(7, 3, 12, null, 1, 9, 5, 15, 2, 11);
+
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<String>());
+
+    private final List<Integer> closed = Collections.synchronizedList(new ArrayList<Integer>());
+
+    private ExecutorService executor;
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        configuration = new Configuration(new H2Templates());
+        configuration.setExecutor(executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private final Provider<Connection> provider = FakeConnections.provider(new FakeConnections.Database() {
+        @Override
+        protected List<Object[]> executeQuery(String sql, List<Object> params) {
+            queries.add(sql);
+            return execute(sql, params);
+        }
+        @Override
+        protected void closed(String sql) {
+            closed.add(1);
+        }
+    });
+
+    private List<Object[]> execute(String sql, List<Object> params) {
+        List<Integer> nonNull = new ArrayList<Integer>();
+        for (Integer id : ids) {
+            if (id != null) {
+                nonNull.add(id);
+            }
+        }
+        List<Object[]> rows = new ArrayList<Object[]>();
+        if (sql.startsWith("select min(SURVEY.ID), max(SURVEY.ID), count(*), count(SURVEY.ID)")) {
+            rows.add(new Object[]{Collections.min(nonNull), Collections.max(nonNull), ids.size(), nonNull.size()});
+            return rows;
+        } else if (sql.contains("SURVEY.ID is null")) {
+            rows.add(new Object[]{null, null});
+            return rows;
+        }
+        int lower = (Integer) params.get(0);
+        int upper = (Integer) params.get(1);
+        boolean inclusive = sql.contains("SURVEY.ID <= ?");
+        List<Integer> matched = new ArrayList<Integer>();
+        for (Integer id : nonNull) {
+            if (id >= lower && (id < upper || inclusive && id == upper)) {
+                matched.add(id);
+            }
+        }
+        if (sql.contains("order by SURVEY.ID desc")) {
+            Collections.sort(matched, Collections.reverseOrder());
+        } else if (sql.contains("order by SURVEY.ID asc")) {
+            Collections.sort(matched);
+        }
+        for (Integer id : matched) {
+            rows.add(new Object[]{id, id});
+        }
+        return rows;
+    }
+
+    private SQLQuery<Integer> query() {
+        return new SQLQuery<Void>(provider, configuration).select(survey.id).from(survey);
+    }
+
+    @Test
+    public void unordered() {
+        CloseableIterator<Integer> iterator = query().iteratePartitioned(survey.id, 3);
+        List<Integer> results = IteratorAdapter.asList(iterator);
+        iterator.close();
+        assertEquals(ids.size(), results.size());
+        assertEquals(new HashSet<Integer>(ids), new HashSet<Integer>(results));
+        // probe, three ranges and nulls
+        assertEquals(5, queries.size());
+    }
+
+    @Test
+    public void ordered() {
+        SQLQuery<Integer> query = query().orderBy(survey.id.desc().nullsLast());
+        List<Integer> results = IteratorAdapter.asList(query.iteratePartitioned(survey.id, 4, true));
+        List<Integer> expected = Lists.newArrayList(ids);
+        Collections.sort(expected, Ordering.<Integer>natural().reverse().nullsLast());
+        assertEquals(expected, results);
+    }
+
+    @Test
+    public void chunks() {
+        SQLQuery<Integer> query = query().orderBy(survey.id.asc());
+        query.setStatementOptions(StatementOptions.builder().setFetchSize(2).build());
+        List<Integer> results = IteratorAdapter.asList(query.iteratePartitioned(survey.id, 2, true));
+        List<Integer> expected = Lists.newArrayList(ids);
+        Collections.sort(expected, Ordering.<Integer>natural().nullsFirst());
+        assertEquals(expected, results);
+    }
+
+    @Test
+    public void direct_executor() {
+        configuration.setExecutor(MoreExecutors.directExecutor());
+        List<Integer> results = IteratorAdapter.asList(query().iteratePartitioned(survey.id, 3));
+        assertEquals(new HashSet<Integer>(ids), new HashSet<Integer>(results));
+    }
+
+    @Test
+    public void close() {
+        CloseableIterator<Integer> iterator = query().iteratePartitioned(survey.id, 3);
+        iterator.next();
+        iterator.close();
+        // statements of the probe and the partitions
+        assertEquals(5, closed.size());
+    }
+
+    @Test
+    public void split() {
+        assertEquals("[SURVEY.id >= 1 && SURVEY.id < 5, SURVEY.id >= 5 && SURVEY.id < 10, SURVEY.id >= 10 && SURVEY.id <= 15]",
+                RangePartitions.split(survey.id, 1, 15, 3).toString());
+        assertEquals("[SURVEY.id >= 1 && SURVEY.id <= 2]",
+                RangePartitions.split(survey.id, 1, 2, 4).toString());
+        assertEquals("[SURVEY.id >= 3 && SURVEY.id <= 3]",
+                RangePartitions.split(survey.id, 3, 3, 4).toString());
+    }
+
+    @Test
+    public void split_dates() {
+        QEmployee employee = QEmployee.employee;
+        assertEquals(3, RangePartitions.split(employee.datefield,
+                new java.sql.Date(0), new java.sql.Date(3000), 3).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void ordered_without_order() {
+        query().iteratePartitioned(survey.id, 3, true);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void limit() {
+        query().limit(10).iteratePartitioned(survey.id, 3);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.ConstantImpl;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.domain.QSurvey;
+import com.querydsl.sql.types.Null;
+
+public class SQLBatchRendererTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final Configuration configuration = new Configuration(SQLTemplates.DEFAULT);
+
+    private final SQLBatchRenderer renderer = new SQLBatchRenderer(configuration.getTemplates());
+
+    private final List<Path<?>> columns = Arrays.<Path<?>>asList(survey.id, survey.name);
+
+    private boolean insert(Expression<?>... values) {
+        List<Expression<?>> row = Arrays.asList(values);
+        boolean bound = renderer.bind(Arrays.asList(columns, row, null));
+        SQLSerializer serializer = new SQLSerializer(configuration, true);
+        serializer.setUseLiterals(configuration.getUseLiterals());
+        serializer.serializeInsert(new DefaultQueryMetadata(), survey, columns, row, null);
+        if (!bound) {
+            SQLSerializer recording = new SQLSerializer(configuration, true);
+            recording.setUseLiterals(configuration.getUseLiterals());
+            renderer.record(recording);
+            recording.serializeInsert(new DefaultQueryMetadata(), survey, columns, row, null);
+            renderer.rendered(recording);
+        }
+        assertEquals(serializer.toString(), renderer.getSQL());
+        assertEquals(serializer.getConstants(), renderer.getConstants());
+        assertEquals(serializer.getConstantPaths(), renderer.getConstantPaths());
+        return bound;
+    }
+
+    private boolean update(int id, String name) {
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addJoin(JoinType.DEFAULT, survey);
+        metadata.addWhere(survey.id.eq(id));
+        Map<Path<?>, Expression<?>> updates = ImmutableMap.<Path<?>, Expression<?>>of(
+                survey.name, ConstantImpl.create(name));
+        List<?> parts = Arrays.asList(metadata, Arrays.asList(survey.name), Arrays.asList(updates.get(survey.name)));
+        boolean bound = renderer.bind(parts);
+        SQLSerializer serializer = new SQLSerializer(configuration, true);
+        serializer.serializeUpdate(metadata, survey, updates);
+        if (!bound) {
+            SQLSerializer recording = new SQLSerializer(configuration, true);
+            renderer.record(recording);
+            recording.serializeUpdate(metadata, survey, updates);
+            renderer.rendered(recording);
+        }
+        assertEquals(serializer.toString(), renderer.getSQL());
+        assertEquals(serializer.getConstants(), renderer.getConstants());
+        return bound;
+    }
+
+    @Test
+    public void insert_rows() {
+        assertFalse(insert(ConstantImpl.create(1), ConstantImpl.create("a")));
+        assertTrue(insert(ConstantImpl.create(2), ConstantImpl.create("b")));
+        assertTrue(insert(ConstantImpl.create(3), ConstantImpl.create("c")));
+    }
+
+    @Test
+    public void insert_null() {
+        assertFalse(insert(ConstantImpl.create(1), ConstantImpl.create("a")));
+        assertFalse(insert(ConstantImpl.create(2), Null.CONSTANT));
+        assertTrue(insert(ConstantImpl.create(3), Null.CONSTANT));
+        assertTrue(insert(ConstantImpl.create(4), ConstantImpl.create("d")));
+    }
+
+    @Test
+    public void insert_expressions() {
+        assertFalse(insert(ConstantImpl.create(1), survey.name2));
+        assertTrue(insert(ConstantImpl.create(2), survey.name2));
+        assertFalse(insert(ConstantImpl.create(3), survey.name2.append("x")));
+    }
+
+    @Test
+    public void update_rows() {
+        assertFalse(update(1, "a"));
+        assertTrue(update(2, "b"));
+    }
+
+    @Test
+    public void literals() {
+        configuration.setUseLiterals(true);
+        assertFalse(insert(ConstantImpl.create(1), ConstantImpl.create("a")));
+        assertFalse(insert(ConstantImpl.create(2), ConstantImpl.create("b")));
+    }
+
+}
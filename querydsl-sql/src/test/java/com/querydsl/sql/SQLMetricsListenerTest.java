@@ -0,0 +1,120 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.querydsl.core.DefaultQueryMetadata;
+
+public class SQLMetricsListenerTest {
+
+    private void run(SQLMetricsListener listener, String sql, long rows, boolean error) {
+        SQLListenerContextImpl context = new SQLListenerContextImpl(new DefaultQueryMetadata());
+        listener.start(context);
+        listener.preRender(context);
+        context.addSQL(sql);
+        listener.rendered(context);
+        listener.prePrepare(context);
+        listener.prepared(context);
+        listener.preExecute(context);
+        listener.executed(context);
+        if (error) {
+            context.setException(new SQLException());
+            listener.exception(context);
+        }
+        context.setData(AbstractSQLQuery.ROW_COUNT, rows);
+        listener.end(context);
+    }
+
+    @Test
+    public void fingerprint() {
+        assertEquals("select SURVEY.ID from SURVEY SURVEY where SURVEY.NAME = ? and SURVEY.ID in (?...)",
+                SQLMetricsListener.fingerprint("select SURVEY.ID\nfrom SURVEY SURVEY\n"
+                        + "where SURVEY.NAME = 'it''s' and SURVEY.ID in (1, 2, 3)"));
+        assertEquals("select T1.ID from T1 where T1.ID in (?...) limit ?",
+                SQLMetricsListener.fingerprint("select T1.ID from T1 where T1.ID in (?, ?) limit 10"));
+        assertEquals("select v.c from (values (?)...) v(c)",
+                SQLMetricsListener.fingerprint("select v.c from (values (?), (?), (?)) v(c)"));
+        assertEquals("select c from querydsl_in_?",
+                SQLMetricsListener.fingerprint("select c from querydsl_in_12"));
+    }
+
+    @Test
+    public void shapes() {
+        SQLMetricsListener listener = new SQLMetricsListener();
+        run(listener, "select ID from SURVEY where ID in (?, ?)", 2, false);
+        run(listener, "select ID from SURVEY where ID in (?, ?, ?)", 3, false);
+        run(listener, "select NAME from SURVEY", 10, true);
+
+        List<SQLMetricsListener.Shape> shapes = listener.getSnapshot();
+        assertEquals(2, shapes.size());
+        SQLMetricsListener.Shape ids = null;
+        for (SQLMetricsListener.Shape shape : shapes) {
+            if (shape.getFingerprint().equals("select ID from SURVEY where ID in (?...)")) {
+                ids = shape;
+            } else {
+                assertEquals(1, shape.getErrors());
+            }
+        }
+        assertNotNull(ids);
+        assertEquals(2, ids.getCount());
+        assertEquals(0, ids.getErrors());
+        assertEquals(5, ids.getRows().getSum());
+        assertEquals(3, ids.getRows().getMax());
+        for (SQLMetricsListener.Phase phase : SQLMetricsListener.Phase.values()) {
+            assertEquals(2, ids.getHistogram(phase).getCount());
+        }
+        assertEquals(2, listener.getSlowest(5).size());
+        assertEquals(1, listener.getSlowest(1).size());
+
+        listener.reset();
+        assertTrue(listener.getSnapshot().isEmpty());
+    }
+
+    @Test
+    public void sampling() {
+        SQLMetricsListener listener = new SQLMetricsListener(3, 10);
+        for (int i = 0; i < 9; i++) {
+            run(listener, "select ID from SURVEY", 1, false);
+        }
+        assertEquals(3, listener.getSnapshot().get(0).getCount());
+    }
+
+    @Test
+    public void max_shapes() {
+        SQLMetricsListener listener = new SQLMetricsListener(1, 1);
+        run(listener, "select ID from SURVEY", 1, false);
+        run(listener, "select NAME from SURVEY", 1, false);
+        assertEquals(1, listener.getSnapshot().size());
+        assertEquals(1, listener.getDropped());
+    }
+
+    @Test
+    public void percentile() {
+        SQLMetricsListener listener = new SQLMetricsListener();
+        for (int i = 1; i <= 100; i++) {
+            run(listener, "select ID from SURVEY", i, false);
+        }
+        SQLMetricsListener.Histogram rows = listener.getSnapshot().get(0).getRows();
+        assertEquals(100, rows.getCount());
+        assertEquals(50.5, rows.getMean(), 0.0);
+        // 50 is in the bucket of 32 to 63
+        assertEquals(63, rows.getPercentile(0.5));
+        assertEquals(100, rows.getPercentile(1.0));
+    }
+
+    @Test
+    public void end_twice() {
+        SQLMetricsListener listener = new SQLMetricsListener();
+        SQLListenerContextImpl context = new SQLListenerContextImpl(new DefaultQueryMetadata());
+        listener.start(context);
+        context.addSQL("select ID from SURVEY");
+        listener.end(context);
+        listener.end(context);
+        assertEquals(1, listener.getSnapshot().get(0).getCount());
+    }
+
+}
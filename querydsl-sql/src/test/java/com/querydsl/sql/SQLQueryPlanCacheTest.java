@@ -0,0 +1,145 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.domain.QSurvey;
+
+public class SQLQueryPlanCacheTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final Configuration configuration = new Configuration(SQLTemplates.DEFAULT);
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(configuration);
+    }
+
+    private SQLQueryShape shape(SQLQuery<?> query) {
+        return SQLQueryShape.of(configuration.getTemplates(), query.getClass(), query.getMetadata(), false);
+    }
+
+    private SQLQueryPlan plan(SQLQuery<?> query) {
+        SQLSerializer serializer = new SQLSerializer(configuration);
+        serializer.recordConstantSources();
+        serializer.serialize(query.getMetadata(), false);
+        return SQLQueryPlan.create(shape(query), serializer);
+    }
+
+    private void assertRebound(SQLQuery<?> first, SQLQuery<?> second) {
+        assertEquals(shape(first).getKey(), shape(second).getKey());
+        SQLQueryPlan plan = plan(first);
+        assertNotNull(plan);
+        SQLBindings bindings = second.getSQL();
+        assertEquals(bindings.getSQL(), plan.getSQL());
+        assertEquals(bindings.getBindings(), plan.bind(shape(second)));
+    }
+
+    @Test
+    public void rebind_constants() {
+        assertRebound(
+                query().from(survey).where(survey.name.eq("Bob"), survey.id.gt(2)).select(survey.id),
+                query().from(survey).where(survey.name.eq("Ann"), survey.id.gt(3)).select(survey.id));
+    }
+
+    @Test
+    public void rebind_collection() {
+        assertRebound(
+                query().from(survey).where(survey.id.in(1, 2, 3)).select(survey.id),
+                query().from(survey).where(survey.id.in(4, 5, 6)).select(survey.id));
+    }
+
+    @Test
+    public void rebind_padded_collection() {
+        configuration.setInListPadding(true);
+        assertRebound(
+                query().from(survey).where(survey.id.in(1, 2, 3)).select(survey.id),
+                query().from(survey).where(survey.id.in(4, 5, 6)).select(survey.id));
+    }
+
+    @Test
+    public void rebind_array_collection() {
+        configuration.setTemplates(new PostgreSQLTemplates());
+        configuration.setInListArrayBinding(true);
+        SQLQuery<?> first = query().from(survey).where(survey.id.in(1, 2, 3)).select(survey.id);
+        SQLQuery<?> second = query().from(survey).where(survey.id.in(4, 5, 6)).select(survey.id);
+        SQLQueryPlan plan = plan(first);
+        assertNotNull(plan);
+        assertEquals(second.getSQL().getSQL(), plan.getSQL());
+        assertArrayEquals(new Integer[]{4, 5, 6}, (Object[]) plan.bind(shape(second)).get(0));
+    }
+
+    @Test
+    public void shared_constant_is_part_of_key() {
+        Expression<Integer> one = Expressions.constant(1);
+        Expression<Integer> two = Expressions.constant(2);
+        assertFalse(shape(query().from(survey).where(survey.id.eq(one).or(survey.id.gt(one))).select(survey.id)).getKey().equals(
+                shape(query().from(survey).where(survey.id.eq(two).or(survey.id.gt(two))).select(survey.id)).getKey()));
+        assertRebound(
+                query().from(survey).where(survey.id.eq(one).or(survey.id.gt(one))).select(survey.id),
+                query().from(survey).where(survey.id.eq(one).or(survey.id.gt(one))).select(survey.id));
+    }
+
+    @Test
+    public void collection_size_is_part_of_key() {
+        assertFalse(shape(query().from(survey).where(survey.id.in(1, 2)).select(survey.id)).getKey().equals(
+                shape(query().from(survey).where(survey.id.in(1, 2, 3)).select(survey.id)).getKey()));
+    }
+
+    @Test
+    public void like_is_part_of_key() {
+        assertFalse(shape(query().from(survey).where(survey.name.startsWith("A")).select(survey.id)).getKey().equals(
+                shape(query().from(survey).where(survey.name.startsWith("B")).select(survey.id)).getKey()));
+    }
+
+    @Test
+    public void modifiers_are_part_of_key() {
+        assertFalse(shape(query().from(survey).limit(1).select(survey.id)).getKey().equals(
+                shape(query().from(survey).limit(2).select(survey.id)).getKey()));
+    }
+
+    @Test
+    public void literal_template_args_are_part_of_key() {
+        assertFalse(shape(query().from(survey).select(Expressions.stringTemplate("'{0s}'", "a"))).getKey().equals(
+                shape(query().from(survey).select(Expressions.stringTemplate("'{0s}'", "b"))).getKey()));
+    }
+
+    @Test
+    public void hits_and_misses() {
+        SQLQueryPlanCache cache = new SQLQueryPlanCache(10);
+        SQLQuery<?> first = query().from(survey).where(survey.name.eq("Bob")).select(survey.id);
+        SQLQuery<?> second = query().from(survey).where(survey.name.eq("Ann")).select(survey.id);
+        assertNull(cache.get(shape(first)));
+        cache.put(shape(first), plan(first));
+        assertNotNull(cache.get(shape(second)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void uncacheable_is_a_miss() {
+        SQLQueryPlanCache cache = new SQLQueryPlanCache(10);
+        SQLQuery<?> query = query().from(survey).select(survey.id);
+        cache.put(shape(query), SQLQueryPlan.UNCACHEABLE);
+        assertSame(SQLQueryPlan.UNCACHEABLE, cache.get(shape(query)));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void configuration() {
+        assertNull(configuration.getQueryPlanCache());
+        configuration.setQueryPlanCacheSize(10);
+        assertNotNull(configuration.getQueryPlanCache());
+        configuration.setQueryPlanCacheSize(0);
+        assertNull(configuration.getQueryPlanCache());
+    }
+
+}
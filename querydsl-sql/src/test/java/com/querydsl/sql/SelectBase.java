@@ -880,6 +880,27 @@ public class SelectBase extends AbstractBaseTest {
                 query().from(employee).where(employee.id.in(ids)).fetchCount());
     }
 
+    @Test
+    @ExcludeIn({FIREBIRD, SQLITE, TERADATA})
+    public void in_large_list() {
+        Configuration conf = new Configuration(configuration.getTemplates());
+        conf.setLargeInListThreshold(10);
+        // above the parameter limit of SQL Server
+        List<Integer> ids = Lists.newArrayList();
+        for (int i = 0; i < 3000; i++) {
+            ids.add(i);
+        }
+        assertEquals(
+                query().from(employee).fetchCount(),
+                new SQLQuery<Void>(connection, conf).from(employee).where(employee.id.in(ids)).fetchCount());
+
+        List<String> names = query().from(employee).select(employee.firstname).fetch();
+        assertEquals(names.size(), new SQLQuery<Void>(connection, conf).from(employee)
+                .where(employee.firstname.in(names)).select(employee.id).fetch().size());
+        assertEquals(0, new SQLQuery<Void>(connection, conf).from(employee)
+                .where(employee.firstname.notIn(names)).fetchCount());
+    }
+
     @Test
     @ExcludeIn({DERBY, FIREBIRD, SQLITE, SQLSERVER, TERADATA})
     public void notIn_long_list() {
@@ -1,13 +1,23 @@
 package com.querydsl.sql.dml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.querydsl.core.QueryFlag;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.FakeConnections;
+import com.querydsl.sql.H2Templates;
 import com.querydsl.sql.KeyAccessorsTest.QEmployee;
 import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLServer2012Templates;
 import com.querydsl.sql.SQLTemplates;
 
 public class SQLInsertClauseTest {
@@ -46,6 +56,131 @@ public class SQLInsertClauseTest {
 
     }
 
+    @Test
+    public void bulk_chunks() {
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLInsertClause insert = new SQLInsertClause(null, new SQLServer2012Templates(), emp1);
+        for (int i = 0; i < 2500; i++) {
+            insert.set(emp1.id, i).addBatch();
+        }
+        insert.setBatchToBulk(true);
+        List<SQLBindings> sql = insert.getSQL();
+        assertEquals(3, sql.size());
+        assertEquals(1000, sql.get(0).getBindings().size());
+        assertEquals(sql.get(0).getSQL(), sql.get(1).getSQL());
+        assertEquals(1000, sql.get(1).getBindings().get(0));
+        assertEquals(500, sql.get(2).getBindings().size());
+    }
+
+    @Test
+    public void bulk_chunks_parameters() {
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLTemplates templates = new H2Templates() { {
+            setMaxParameters(10);
+        } };
+        SQLInsertClause insert = new SQLInsertClause(null, templates, emp1);
+        for (int i = 0; i < 12; i++) {
+            insert.set(emp1.id, i).set(emp1.superiorId, i).addBatch();
+        }
+        insert.setBatchToBulk(true);
+        List<SQLBindings> sql = insert.getSQL();
+        assertEquals(3, sql.size());
+        assertEquals("insert into EMPLOYEE (ID, SUPERIOR_ID)\n" +
+                "values (?, ?), (?, ?), (?, ?), (?, ?), (?, ?)", sql.get(0).getSQL());
+        assertEquals(sql.get(0).getSQL(), sql.get(1).getSQL());
+        assertEquals("insert into EMPLOYEE (ID, SUPERIOR_ID)\nvalues (?, ?), (?, ?)", sql.get(2).getSQL());
+        assertEquals(ImmutableList.of(10, 10, 11, 11), sql.get(2).getBindings());
+    }
+
+    @Test
+    public void bulk_chunks_execute() {
+        final List<String> calls = new ArrayList<String>();
+        Connection conn = FakeConnections.connection(new FakeConnections.Database() {
+            @Override
+            protected void prepared(String sql) {
+                calls.add("prepareStatement");
+            }
+            @Override
+            protected int[] executeBatch(String sql, List<List<Object>> batch) {
+                for (int i = 0; i < batch.size(); i++) {
+                    calls.add("addBatch");
+                }
+                calls.add("executeBatch");
+                int[] counts = new int[batch.size()];
+                Arrays.fill(counts, 5);
+                return counts;
+            }
+        });
+
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLTemplates templates = new H2Templates() { {
+            setMaxParameters(5);
+        } };
+        SQLInsertClause insert = new SQLInsertClause(conn, templates, emp1);
+        for (int i = 0; i < 15; i++) {
+            insert.set(emp1.id, i).addBatch();
+        }
+        insert.setBatchToBulk(true);
+        assertEquals(15, insert.execute());
+        assertEquals(ImmutableList.of("prepareStatement", "addBatch", "addBatch", "addBatch", "executeBatch"), calls);
+    }
+
+    @Test
+    public void bulk_chunks_row_parameters() {
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLTemplates templates = new H2Templates() { {
+            setMaxParameters(10);
+        } };
+        SQLInsertClause insert = new SQLInsertClause(null, templates, emp1);
+        insert.set(emp1.id, 0).addBatch();
+        for (int i = 1; i < 10; i++) {
+            // two parameters per row
+            insert.set(emp1.id, Expressions.asNumber(i).add(1)).addBatch();
+        }
+        insert.setBatchToBulk(true);
+        List<SQLBindings> sql = insert.getSQL();
+        assertEquals(2, sql.size());
+        assertEquals(9, sql.get(0).getBindings().size());
+        assertEquals(10, sql.get(1).getBindings().size());
+    }
+
+    @Test
+    public void bulk_chunks_executeWithKeys() {
+        final List<String> executed = new ArrayList<String>();
+        Connection conn = FakeConnections.connection(new FakeConnections.Database() {
+            @Override
+            protected int[] executeBatch(String sql, List<List<Object>> batch) {
+                executed.add(sql);
+                return super.executeBatch(sql, batch);
+            }
+            @Override
+            protected List<Object[]> generatedKeys(String sql, List<List<Object>> executed) {
+                List<Object[]> keys = new ArrayList<Object[]>();
+                for (List<Object> params : executed) {
+                    for (Object param : params) {
+                        keys.add(new Object[]{param});
+                    }
+                }
+                return keys;
+            }
+        });
+
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLTemplates templates = new H2Templates() { {
+            setMaxParameters(5);
+        } };
+        SQLInsertClause insert = new SQLInsertClause(conn, templates, emp1);
+        List<Integer> ids = new ArrayList<Integer>();
+        for (int i = 0; i < 12; i++) {
+            insert.set(emp1.id, i).addBatch();
+            ids.add(i);
+        }
+        insert.setBatchToBulk(true);
+        // two chunks of five rows and a smaller one
+        assertEquals(ids, insert.executeWithKeys(emp1.id));
+        assertEquals(2, executed.size());
+    }
+
     @Test
     public void getSQLWithPreservedColumnOrder() {
         com.querydsl.sql.domain.QEmployee emp1 = new com.querydsl.sql.domain.QEmployee("emp1");
@@ -69,4 +204,72 @@ public class SQLInsertClauseTest {
         assertEquals(0, insert.getBatchCount());
     }
 
+    @Test
+    public void batchFlushSize() {
+        final List<Integer> executedBatches = new ArrayList<Integer>();
+        Connection conn = batchConnection(executedBatches);
+
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLInsertClause insert = new SQLInsertClause(conn, SQLTemplates.DEFAULT, emp1);
+        insert.setBatchFlushSize(2);
+        for (int i = 0; i < 5; i++) {
+            insert.set(emp1.id, i).addBatch();
+        }
+        assertEquals(1, insert.getBatchCount());
+        assertEquals(5, insert.execute());
+        assertEquals(ImmutableList.of(2, 2, 1), executedBatches);
+
+        insert.clear();
+        for (int i = 0; i < 2; i++) {
+            insert.set(emp1.id, i).addBatch();
+        }
+        assertEquals(0, insert.getBatchCount());
+        assertEquals(2, insert.execute());
+        assertEquals(ImmutableList.of(2, 2, 1, 2), executedBatches);
+    }
+
+    @Test
+    public void batchFlushSize_clear() {
+        List<Integer> executedBatches = new ArrayList<Integer>();
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLInsertClause insert = new SQLInsertClause(batchConnection(executedBatches), SQLTemplates.DEFAULT, emp1);
+        insert.setBatchFlushSize(2);
+        for (int i = 0; i < 3; i++) {
+            insert.set(emp1.id, i).addBatch();
+        }
+        insert.clear();
+        insert.set(emp1.id, 3).addBatch();
+        assertEquals(1, insert.execute());
+        assertEquals(ImmutableList.of(2, 1), executedBatches);
+    }
+
+    @Test
+    public void batchFlushSize_executeWithKeys() {
+        List<Integer> executedBatches = new ArrayList<Integer>();
+        QEmployee emp1 = new QEmployee("emp1");
+        SQLInsertClause insert = new SQLInsertClause(batchConnection(executedBatches), SQLTemplates.DEFAULT, emp1);
+        insert.setBatchFlushSize(2);
+        for (int i = 0; i < 3; i++) {
+            insert.set(emp1.id, i).addBatch();
+        }
+        try {
+            insert.executeWithKeys();
+            fail();
+        } catch (IllegalStateException e) {
+            // keys of the flushed rows are not available
+        }
+        assertEquals(ImmutableList.of(2), executedBatches);
+        assertEquals(3, insert.execute());
+    }
+
+    private static Connection batchConnection(final List<Integer> executedBatches) {
+        return FakeConnections.connection(new FakeConnections.Database() {
+            @Override
+            protected int[] executeBatch(String sql, List<List<Object>> batch) {
+                executedBatches.add(batch.size());
+                return super.executeBatch(sql, batch);
+            }
+        });
+    }
+
 }
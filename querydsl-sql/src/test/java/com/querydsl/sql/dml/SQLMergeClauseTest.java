@@ -2,10 +2,12 @@ package com.querydsl.sql.dml;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.List;
+
 import org.junit.Test;
 
-import com.querydsl.sql.H2Templates;
-import com.querydsl.sql.KeyAccessorsTest;
+import com.querydsl.sql.*;
+import com.querydsl.sql.domain.QSurvey;
 
 public class SQLMergeClauseTest {
 
@@ -19,4 +21,67 @@ public class SQLMergeClauseTest {
         merge.clear();
         assertEquals(0, merge.getBatchCount());
     }
+
+    @Test
+    public void upsert_postgreSQL() {
+        QSurvey survey = QSurvey.survey;
+        SQLMergeClause merge = new SQLMergeClause(null, PostgreSQLTemplates.builder().nativeMerge().build(), survey);
+        merge.keys(survey.id).set(survey.id, 5).set(survey.name, "Hello World");
+        assertEquals("insert into SURVEY (ID, NAME)\nvalues (?, ?) " +
+                "on conflict (ID) do update set NAME = excluded.NAME", merge.toString());
+    }
+
+    @Test
+    public void upsert_postgreSQL_keys_only() {
+        QSurvey survey = QSurvey.survey;
+        SQLMergeClause merge = new SQLMergeClause(null, PostgreSQLTemplates.builder().nativeMerge().build(), survey);
+        merge.set(survey.id, 5);
+        assertEquals("insert into SURVEY (ID)\nvalues (?) on conflict (ID) do nothing", merge.toString());
+    }
+
+    @Test
+    public void upsert_sqlite_subQuery() {
+        QSurvey survey = QSurvey.survey;
+        QSurvey survey2 = new QSurvey("survey2");
+        SQLMergeClause merge = new SQLMergeClause(null, SQLiteTemplates.builder().nativeMerge().build(), survey);
+        merge.keys(survey.id).columns(survey.id, survey.name)
+                .select(SQLExpressions.select(survey2.id.add(1), survey2.name).from(survey2));
+        assertEquals("insert into SURVEY (ID, NAME)\n" +
+                "select survey2.ID + ?, survey2.NAME\n" +
+                "from SURVEY survey2\n" +
+                "where 1 = 1 on conflict (ID) do update set NAME = excluded.NAME", merge.toString());
+    }
+
+    @Test
+    public void upsert_mySQL_batch() {
+        QSurvey survey = QSurvey.survey;
+        SQLMergeClause merge = new SQLMergeClause(null, MySQLTemplates.builder().nativeMerge().build(), survey);
+        merge.keys(survey.id).set(survey.id, 5).set(survey.name, "5").addBatch();
+        merge.keys(survey.id).set(survey.id, 6).set(survey.name, "6").addBatch();
+        List<SQLBindings> sql = merge.getSQL();
+        assertEquals(2, sql.size());
+        assertEquals("insert into SURVEY (ID, NAME)\nvalues (?, ?) " +
+                "on duplicate key update NAME = values(NAME)", sql.get(0).getSQL());
+        assertEquals(sql.get(0).getSQL(), sql.get(1).getSQL());
+    }
+
+    @Test
+    public void merge_postgreSQL_default() {
+        QSurvey survey = QSurvey.survey;
+        SQLMergeClause merge = new SQLMergeClause(null, new PostgreSQLTemplates(), survey);
+        merge.keys(survey.id).set(survey.id, 5).set(survey.name, "Hello World");
+        assertEquals("merge into SURVEY (ID, NAME) key(ID) \nvalues (?, ?) ", merge.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void batch_mySQL_default() {
+        QSurvey survey = QSurvey.survey;
+        new SQLMergeClause(null, new MySQLTemplates(), survey).keys(survey.id).set(survey.id, 5).addBatch();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void nativeMerge_not_supported() {
+        OracleTemplates.builder().nativeMerge().build();
+    }
+
 }
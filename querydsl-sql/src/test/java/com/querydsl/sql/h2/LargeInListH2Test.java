@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.h2;
+
+import static org.junit.Assert.*;
+
+import java.sql.*;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.domain.QSurvey;
+
+public class LargeInListH2Test {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final Configuration configuration = new Configuration(new H2Templates() {
+        {
+            // use temporary tables instead of VALUES
+            setValuesSupported(false);
+            setCreateTemporaryTable("create local temporary table ");
+        }
+    });
+
+    private final List<Integer> ids = Lists.newArrayList();
+
+    private Connection conn;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, SQLException {
+        Class.forName("org.h2.Driver");
+        conn = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+        Statement stmt = conn.createStatement();
+        try {
+            stmt.execute("create table SURVEY(ID int primary key, NAME varchar(30), NAME2 varchar(30))");
+            for (int i = 1; i <= 50; i++) {
+                stmt.execute("insert into SURVEY values (" + i + ", 'name" + i + "', null)");
+            }
+        } finally {
+            stmt.close();
+        }
+        configuration.setLargeInListThreshold(10);
+        for (int i = 0; i < 100; i += 2) {
+            ids.add(i);
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(conn, configuration).from(survey);
+    }
+
+    private int temporaryTables() throws SQLException {
+        ResultSet rs = conn.getMetaData().getTables(null, null, "QUERYDSL_IN_%", null);
+        try {
+            int count = 0;
+            while (rs.next()) {
+                count++;
+            }
+            return count;
+        } finally {
+            rs.close();
+        }
+    }
+
+    @Test
+    public void fetch() throws SQLException {
+        List<Integer> results = query().where(survey.id.in(ids)).select(survey.id).fetch();
+        assertEquals(25, results.size());
+        assertEquals(0, temporaryTables());
+    }
+
+    @Test
+    public void fetchCount() throws SQLException {
+        assertEquals(25, query().where(survey.id.notIn(ids)).fetchCount());
+        assertEquals(0, temporaryTables());
+    }
+
+    @Test
+    public void strings() throws SQLException {
+        List<String> names = Lists.newArrayList();
+        for (int i = 1; i <= 20; i++) {
+            names.add("name" + i);
+        }
+        assertEquals(20, query().where(survey.name.in(names)).fetchCount());
+        assertEquals(0, temporaryTables());
+    }
+
+    @Test
+    public void iterate() throws SQLException {
+        CloseableIterator<Integer> iterator = query().where(survey.id.in(ids)).select(survey.id).iterate();
+        try {
+            // the table lives as long as the result set
+            assertEquals(1, temporaryTables());
+            assertTrue(iterator.hasNext());
+        } finally {
+            iterator.close();
+        }
+        assertEquals(0, temporaryTables());
+    }
+
+}